@@ -0,0 +1,62 @@
+package com.rei.algo.benchmark;
+
+import com.rei.algo.ReiAlgoApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.SQLException;
+
+/**
+ * 在生成好数据的 H2 内存库上启动完整的应用上下文 (每个 JMH fork 一次)。
+ * <p>
+ * 除数据源外使用 application.yml 的配置，只关闭与基准无关或依赖 MySQL 的部分：
+ * 管理端口、钉住诊断、请求级过滤器 (限流/查询预算)，以及近似总数 (H2 没有 information_schema.TABLES.TABLE_ROWS)。
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    private ConfigurableApplicationContext context;
+    private BenchmarkDatabase.Fixture fixture;
+
+    @Setup(Level.Trial)
+    public void start() throws SQLException {
+        fixture = BenchmarkDatabase.create();
+        context = new SpringApplicationBuilder(ReiAlgoApplication.class)
+                .properties(
+                        "spring.datasource.url=" + BenchmarkDatabase.URL,
+                        "spring.datasource.username=" + BenchmarkDatabase.USERNAME,
+                        "spring.datasource.password=" + BenchmarkDatabase.PASSWORD,
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.sql.init.mode=never",
+                        "spring.main.banner-mode=off",
+                        "spring.devtools.restart.enabled=false",
+                        "server.port=0",
+                        "management.server.port=-1",
+                        "virtual-threads.pinning-diagnostics.enabled=false",
+                        "query-budget.enabled=false",
+                        "rate-limit.enabled=false",
+                        "pagination.approximate-count.enabled=false",
+                        "logging.level.com.rei.algo=WARN")
+                .run();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public BenchmarkDatabase.Fixture fixture() {
+        return fixture;
+    }
+}
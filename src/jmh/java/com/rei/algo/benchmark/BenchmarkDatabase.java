@@ -0,0 +1,220 @@
+package com.rei.algo.benchmark;
+
+import com.rei.algo.util.SortableIdGenerator;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试用的 H2 内存库 (MySQL 模式)：建表 (sql/init-h2.sql)、注册 JSON 函数别名并生成固定种子的数据。
+ * <p>
+ * 数据在 Spring 上下文启动前写入，启动时加载的缓存 (标签字典、布隆过滤器等) 与生产环境一样看到完整数据。
+ * 其中一个"热门"帖子带有大量评论，用于评论分页；约 1% 的帖子内容包含 {@link #SEARCH_KEYWORD}。
+ */
+final class BenchmarkDatabase {
+
+    static final String URL = "jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+    static final String USERNAME = "sa";
+    static final String PASSWORD = "";
+    static final String SEARCH_KEYWORD = "quicksort";
+
+    private static final int USERS = 1_000;
+    private static final int TAGS = 50;
+    private static final int POSTS = 20_000;
+    private static final int HOT_POST_COMMENTS = 500;
+    private static final int MAX_COMMENTS_PER_POST = 5;
+    private static final int TAGS_PER_POST = 3;
+    private static final int BATCH_SIZE = 1_000;
+    // 与 bcrypt 哈希等长即可，基准测试不登录
+    private static final String PASSWORD_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private final Random random = new Random(42);
+    private final SortableIdGenerator ids = new SortableIdGenerator(0);
+    private final LocalDateTime start = LocalDateTime.now().minusDays(365);
+
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> tagIds = new ArrayList<>();
+    private final List<String> postIds = new ArrayList<>();
+
+    /**
+     * 生成的数据中可用作查询参数的 ID
+     * @param hotPostId 评论最多的帖子
+     * @param samplePostIds 用于按 ID 查询的帖子
+     */
+    record Fixture(String hotPostId, List<String> samplePostIds) {
+    }
+
+    static Fixture create() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("sql/init-h2.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE ALIAS IF NOT EXISTS JSON_EXTRACT FOR '" + H2Functions.class.getName() + ".jsonExtract'");
+                statement.execute("CREATE ALIAS IF NOT EXISTS JSON_UNQUOTE FOR '" + H2Functions.class.getName() + ".jsonUnquote'");
+            }
+            connection.setAutoCommit(false);
+            Fixture fixture = new BenchmarkDatabase().populate(connection);
+            connection.commit();
+            return fixture;
+        }
+    }
+
+    private Fixture populate(Connection connection) throws SQLException {
+        insertUsers(connection);
+        insertTags(connection);
+        insertPosts(connection);
+        String hotPostId = postIds.get(postIds.size() / 2);
+        insertComments(connection, hotPostId);
+
+        List<String> samples = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            samples.add(postIds.get(random.nextInt(postIds.size())));
+        }
+        return new Fixture(hotPostId, samples);
+    }
+
+    // --- Helper Methods --- //
+
+    private void insertUsers(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO `user` (user_id, username, password, email, role, created_at) VALUES (?, ?, ?, ?, 'USER', ?)")) {
+            for (int i = 0; i < USERS; i++) {
+                String userId = String.valueOf(10_000_000 + i);
+                userIds.add(userId);
+                insert.setString(1, userId);
+                insert.setString(2, "user" + i);
+                insert.setString(3, PASSWORD_HASH);
+                insert.setString(4, "user" + i + "@bench.local");
+                insert.setTimestamp(5, timestamp(i, USERS));
+                addBatch(insert, i);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void insertTags(Connection connection) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO tag (tag_id, name) VALUES (?, ?)")) {
+            for (int i = 0; i < TAGS; i++) {
+                String tagId = ids.nextId();
+                tagIds.add(tagId);
+                insert.setString(1, tagId);
+                insert.setString(2, "tag-" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void insertPosts(Connection connection) throws SQLException {
+        try (PreparedStatement post = connection.prepareStatement(
+                "INSERT INTO post (post_id, user_id, title, content, views, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement postTag = connection.prepareStatement("INSERT INTO post_tag (post_id, tag_id) VALUES (?, ?)");
+             PreparedStatement tagIndex = connection.prepareStatement(
+                     "INSERT INTO post_tag_index (tag_id, post_created_at, post_id) VALUES (?, ?, ?)")) {
+            for (int i = 0; i < POSTS; i++) {
+                String postId = ids.nextId();
+                postIds.add(postId);
+                Timestamp createdAt = timestamp(i, POSTS);
+                post.setString(1, postId);
+                post.setString(2, userIds.get(random.nextInt(userIds.size())));
+                post.setString(3, "Benchmark post " + i);
+                post.setString(4, content(random.nextInt(100) == 0));
+                post.setInt(5, random.nextInt(10_000));
+                post.setTimestamp(6, createdAt);
+                post.setTimestamp(7, createdAt);
+                addBatch(post, i);
+
+                int firstTag = random.nextInt(TAGS);
+                for (int t = 0; t < TAGS_PER_POST; t++) {
+                    String tagId = tagIds.get((firstTag + t) % TAGS);
+                    postTag.setString(1, postId);
+                    postTag.setString(2, tagId);
+                    postTag.addBatch();
+                    tagIndex.setString(1, tagId);
+                    tagIndex.setTimestamp(2, createdAt);
+                    tagIndex.setString(3, postId);
+                    tagIndex.addBatch();
+                }
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    postTag.executeBatch();
+                    tagIndex.executeBatch();
+                }
+            }
+            post.executeBatch();
+            postTag.executeBatch();
+            tagIndex.executeBatch();
+        }
+    }
+
+    private void insertComments(Connection connection, String hotPostId) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO comment (comment_id, post_id, user_id, parent_comment_id, content, created_at) VALUES (?, ?, ?, ?, ?, ?)")) {
+            int count = 0;
+            for (int i = 0; i < HOT_POST_COMMENTS; i++) {
+                String parentId = addComment(insert, hotPostId, null, count++);
+                // Every fourth top-level comment on the hot post gets a couple of replies
+                if (i % 4 == 0) {
+                    addComment(insert, hotPostId, parentId, count++);
+                    addComment(insert, hotPostId, parentId, count++);
+                }
+            }
+            for (String postId : postIds) {
+                int comments = random.nextInt(MAX_COMMENTS_PER_POST + 1);
+                for (int i = 0; i < comments; i++) {
+                    addComment(insert, postId, null, count++);
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private String addComment(PreparedStatement insert, String postId, String parentId, int index) throws SQLException {
+        String commentId = ids.nextId();
+        insert.setString(1, commentId);
+        insert.setString(2, postId);
+        insert.setString(3, userIds.get(random.nextInt(userIds.size())));
+        insert.setString(4, parentId);
+        insert.setString(5, "Benchmark comment " + index);
+        insert.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now().minusMinutes(HOT_POST_COMMENTS - index % HOT_POST_COMMENTS)));
+        addBatch(insert, index);
+        return commentId;
+    }
+
+    // Slate JS Descendants[]: a few paragraphs of text nodes
+    private String content(boolean withKeyword) {
+        StringBuilder json = new StringBuilder("[");
+        int paragraphs = 1 + random.nextInt(5);
+        for (int p = 0; p < paragraphs; p++) {
+            if (p > 0) {
+                json.append(',');
+            }
+            json.append("{\"type\":\"paragraph\",\"children\":[{\"text\":\"Paragraph ").append(p)
+                    .append(" of a generated post about sorting, graphs and dynamic programming.");
+            if (withKeyword && p == paragraphs - 1) {
+                json.append(" Also covers ").append(SEARCH_KEYWORD).append('.');
+            }
+            json.append("\"}]}");
+        }
+        return json.append(']').toString();
+    }
+
+    private Timestamp timestamp(int index, int total) {
+        return Timestamp.valueOf(start.plusSeconds(365L * 24 * 3600 * index / total));
+    }
+
+    private static void addBatch(PreparedStatement statement, int index) throws SQLException {
+        statement.addBatch();
+        if ((index + 1) % BATCH_SIZE == 0) {
+            statement.executeBatch();
+        }
+    }
+}
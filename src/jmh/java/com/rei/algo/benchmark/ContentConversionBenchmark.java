@@ -0,0 +1,65 @@
+package com.rei.algo.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帖子内容 (Slate JS Descendants[]) 与数据库中 JSON 字符串之间的转换，
+ * 与 PostServiceImpl 的 convertContentToJson / convertJsonToContent 相同 (Spring Boot 默认配置的 ObjectMapper)。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentConversionBenchmark {
+
+    @Param({"5", "200"})
+    private int paragraphs;
+
+    private ObjectMapper objectMapper;
+    private Object content;
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Object> nodes = new ArrayList<>(paragraphs);
+        for (int i = 0; i < paragraphs; i++) {
+            nodes.add(Map.of("type", "paragraph",
+                    "children", List.of(Map.of("text", "Paragraph " + i + " about sorting, graphs and dynamic programming."),
+                            Map.of("text", "inline code", "code", true))));
+        }
+        content = nodes;
+        json = objectMapper.writeValueAsString(content);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(content);
+    }
+
+    @Benchmark
+    public Object deserialize() throws JsonProcessingException {
+        return objectMapper.readValue(json, Object.class);
+    }
+}
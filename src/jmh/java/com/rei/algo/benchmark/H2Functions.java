@@ -0,0 +1,21 @@
+package com.rei.algo.benchmark;
+
+/**
+ * 在 H2 中代替 PostMapper 用到的 MySQL JSON 函数 (CREATE ALIAS)。
+ * <p>
+ * 搜索只用 JSON_UNQUOTE(JSON_EXTRACT(content, '$..text')) 做 LIKE 匹配，
+ * 这里直接返回原始 JSON：匹配结果与 MySQL 基本一致 (只会多匹配到键名)，开销同样是扫描整个 content。
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    public static String jsonExtract(String json, String path) {
+        return json;
+    }
+
+    public static String jsonUnquote(String value) {
+        return value;
+    }
+}
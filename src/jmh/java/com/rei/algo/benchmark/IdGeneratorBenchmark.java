@@ -0,0 +1,51 @@
+package com.rei.algo.benchmark;
+
+import com.rei.algo.util.IDGenerator;
+import com.rei.algo.util.SortableIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体 ID 生成：随机 ID (IDGenerator) 与按时间有序的 ID (SortableIdGenerator)，后者另测多线程争用。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    private final SortableIdGenerator sortableIdGenerator = new SortableIdGenerator(1);
+
+    @Benchmark
+    public String alphanumericId() {
+        return IDGenerator.generateAlphanumericId();
+    }
+
+    @Benchmark
+    public String userId() {
+        return IDGenerator.generateUserId();
+    }
+
+    @Benchmark
+    public String sortableId() {
+        return sortableIdGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String sortableIdContended() {
+        return sortableIdGenerator.nextId();
+    }
+}
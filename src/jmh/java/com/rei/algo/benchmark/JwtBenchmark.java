@@ -0,0 +1,62 @@
+package com.rei.algo.benchmark;
+
+import com.rei.algo.model.entity.Role;
+import com.rei.algo.model.entity.User;
+import com.rei.algo.security.JwtTokenProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个请求都要经过的 JWT 校验：verifiedCacheMaxSize=0 时每次都验签 (HMAC-SHA256 + JSON 解析)，
+ * 大于 0 时重复出现的令牌命中已验证令牌缓存。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    @Param({"0", "10000"})
+    private int verifiedCacheMaxSize;
+
+    private JwtTokenProvider tokenProvider;
+    private User user;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecretString", "8Zz5tw0Ionm3XPZZfN0NOml3z9FMfmpgXwovR9fp6ryDIoGRM8EPHAB6iHsc0fb");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", 900_000);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheMaxSize", verifiedCacheMaxSize);
+        tokenProvider.init();
+
+        user = User.builder().userId("10000001").username("bench").role(Role.USER).build();
+        token = tokenProvider.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(user);
+    }
+}
@@ -0,0 +1,82 @@
+package com.rei.algo.benchmark;
+
+import com.rei.algo.DTO.PageDTO;
+import com.rei.algo.DTO.comment.CommentDTO;
+import com.rei.algo.DTO.post.PostDTO;
+import com.rei.algo.DTO.post.PostSummaryDTO;
+import com.rei.algo.service.CommentService;
+import com.rei.algo.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务层读路径 (经过事务、MyBatis 拦截器、缓存) 在 H2 上的耗时。
+ * 分页总数走 CountCache，与线上一样在 TTL 内命中缓存；withTotal=false 的变体完全不执行 COUNT。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ServiceBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private PostService postService;
+    private CommentService commentService;
+    private String hotPostId;
+    private List<String> samplePostIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState application) {
+        postService = application.getBean(PostService.class);
+        commentService = application.getBean(CommentService.class);
+        hotPostId = application.fixture().hotPostId();
+        samplePostIds = application.fixture().samplePostIds();
+    }
+
+    @Benchmark
+    public PageDTO<PostSummaryDTO> listAllPosts() {
+        return postService.listAllPosts(1, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public PageDTO<PostSummaryDTO> listAllPostsWithoutTotal() {
+        return postService.listAllPosts(1, PAGE_SIZE, false);
+    }
+
+    @Benchmark
+    public PageDTO<PostSummaryDTO> listAllPostsDeepPage() {
+        return postService.listAllPosts(500, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public Optional<PostDTO> getPostById() {
+        return postService.getPostById(samplePostIds.get(next++ & (samplePostIds.size() - 1)));
+    }
+
+    @Benchmark
+    public PageDTO<PostSummaryDTO> searchPosts() {
+        return postService.searchPosts(BenchmarkDatabase.SEARCH_KEYWORD, 1, PAGE_SIZE, true);
+    }
+
+    @Benchmark
+    public PageDTO<CommentDTO> getCommentsByPostId() {
+        return commentService.getCommentsByPostId(hotPostId, 1, PAGE_SIZE, true);
+    }
+}
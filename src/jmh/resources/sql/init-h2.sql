@@ -0,0 +1,127 @@
+-- init.sql 的 H2 版本 (MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE)，只在 benchmark profile 的测试类路径上 (基准测试、H2 上生成数据)
+-- 与 init.sql 的差异：没有表/列注释和存储引擎选项；索引单独创建；JSON 列改为 LONGTEXT
+-- (H2 的 JSON 类型会把写入的字符串当作 JSON 字符串字面量再包一层)
+-- 修改 init.sql 的表结构时同步修改本文件
+
+CREATE TABLE IF NOT EXISTS `user` (
+    `user_id` VARCHAR(8) PRIMARY KEY,
+    `username` VARCHAR(50) NOT NULL UNIQUE,
+    `password` VARCHAR(255) NOT NULL,
+    `email` VARCHAR(100) NULL UNIQUE,
+    `role` ENUM('USER', 'ADMIN') NOT NULL DEFAULT 'USER',
+    `avatar_url` VARCHAR(255) NULL,
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS `algorithm` (
+    `algo_id` VARCHAR(16) PRIMARY KEY,
+    `user_id` VARCHAR(8) NOT NULL,
+    `title` VARCHAR(255) NOT NULL,
+    `description` TEXT NULL,
+    `code_content` LONGTEXT NULL,
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `is_public` BOOLEAN NOT NULL DEFAULT TRUE,
+    FOREIGN KEY (`user_id`) REFERENCES `user`(`user_id`) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS `idx_algo_user_id` ON `algorithm` (`user_id`);
+CREATE INDEX IF NOT EXISTS `idx_algo_title` ON `algorithm` (`title`);
+
+CREATE TABLE IF NOT EXISTS `tag` (
+    `tag_id` VARCHAR(16) PRIMARY KEY,
+    `name` VARCHAR(50) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS `post` (
+    `post_id` VARCHAR(16) PRIMARY KEY,
+    `user_id` VARCHAR(8) NOT NULL,
+    `title` VARCHAR(255) NOT NULL,
+    `content` LONGTEXT NULL,
+    `views` INT NOT NULL DEFAULT 0,
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (`user_id`) REFERENCES `user`(`user_id`) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS `idx_post_user_id` ON `post` (`user_id`);
+CREATE INDEX IF NOT EXISTS `idx_post_title` ON `post` (`title`);
+
+CREATE TABLE IF NOT EXISTS `post_evaluation` (
+    `post_id` VARCHAR(16) NOT NULL,
+    `user_id` VARCHAR(8) NOT NULL,
+    `evaluation_type` ENUM('LIKE', 'DISLIKE') NOT NULL,
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (`post_id`, `user_id`),
+    FOREIGN KEY (`post_id`) REFERENCES `post`(`post_id`) ON DELETE CASCADE,
+    FOREIGN KEY (`user_id`) REFERENCES `user`(`user_id`) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS `idx_pe_user_id` ON `post_evaluation` (`user_id`);
+
+CREATE TABLE IF NOT EXISTS `post_tag` (
+    `post_id` VARCHAR(16) NOT NULL,
+    `tag_id` VARCHAR(16) NOT NULL,
+    PRIMARY KEY (`post_id`, `tag_id`),
+    FOREIGN KEY (`post_id`) REFERENCES `post`(`post_id`) ON DELETE CASCADE,
+    FOREIGN KEY (`tag_id`) REFERENCES `tag`(`tag_id`) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS `post_tag_index` (
+    `tag_id` VARCHAR(16) NOT NULL,
+    `post_created_at` DATETIME NOT NULL,
+    `post_id` VARCHAR(16) NOT NULL,
+    PRIMARY KEY (`tag_id`, `post_created_at`, `post_id`),
+    FOREIGN KEY (`post_id`) REFERENCES `post`(`post_id`) ON DELETE CASCADE,
+    FOREIGN KEY (`tag_id`) REFERENCES `tag`(`tag_id`) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS `idx_pti_post_id` ON `post_tag_index` (`post_id`);
+
+CREATE TABLE IF NOT EXISTS `comment` (
+    `comment_id` VARCHAR(16) PRIMARY KEY,
+    `post_id` VARCHAR(16) NOT NULL,
+    `user_id` VARCHAR(8) NOT NULL,
+    `parent_comment_id` VARCHAR(16) NULL,
+    `content` TEXT NOT NULL,
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (`post_id`) REFERENCES `post`(`post_id`) ON DELETE CASCADE,
+    FOREIGN KEY (`user_id`) REFERENCES `user`(`user_id`) ON DELETE CASCADE,
+    FOREIGN KEY (`parent_comment_id`) REFERENCES `comment`(`comment_id`) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS `idx_comment_post_id` ON `comment` (`post_id`);
+CREATE INDEX IF NOT EXISTS `idx_comment_user_id` ON `comment` (`user_id`);
+CREATE INDEX IF NOT EXISTS `idx_comment_parent_id` ON `comment` (`parent_comment_id`);
+
+CREATE TABLE IF NOT EXISTS `docs` (
+    `docs_id` VARCHAR(30) PRIMARY KEY,
+    `title` VARCHAR(20),
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `content` LONGTEXT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS `refresh_token` (
+    `token_id` VARCHAR(32) PRIMARY KEY,
+    `user_id` VARCHAR(8) NOT NULL,
+    `family_id` VARCHAR(32) NOT NULL,
+    `token_hash` CHAR(64) NOT NULL,
+    `expires_at` DATETIME NOT NULL,
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `replaced_by` VARCHAR(32) NULL,
+    `revoked_at` DATETIME NULL,
+    FOREIGN KEY (`user_id`) REFERENCES `user`(`user_id`) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS `idx_rt_family_id` ON `refresh_token` (`family_id`);
+CREATE INDEX IF NOT EXISTS `idx_rt_user_id` ON `refresh_token` (`user_id`);
+CREATE INDEX IF NOT EXISTS `idx_rt_expires_at` ON `refresh_token` (`expires_at`);
+
+CREATE TABLE IF NOT EXISTS `revoked_token` (
+    `jti` VARCHAR(32) PRIMARY KEY,
+    `expires_at` DATETIME NOT NULL,
+    `revoked_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS `idx_revoked_expires_at` ON `revoked_token` (`expires_at`);
+
+CREATE TABLE IF NOT EXISTS `id_sequence` (
+    `name` VARCHAR(32) PRIMARY KEY,
+    `next_value` BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT IGNORE INTO `id_sequence` (`name`, `next_value`) VALUES ('user', 0);
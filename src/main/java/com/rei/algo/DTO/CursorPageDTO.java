@@ -0,0 +1,22 @@
+package com.rei.algo.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 基于游标 (keyset) 的分页结果 DTO
+ * 不计算总数；客户端把 nextCursor 原样传回即可获取下一页。
+ * @param <T> 数据类型
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private Integer pageSize;   // 每页数量
+    private String nextCursor;  // 下一页游标，没有下一页时为 null
+    private Boolean hasNext;    // 是否还有下一页
+    private List<T> list;       // 当前页数据列表
+}
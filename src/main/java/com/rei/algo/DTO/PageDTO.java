@@ -1,6 +1,5 @@
 package com.rei.algo.DTO;
 
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -8,15 +7,51 @@ import java.util.List;
 
 /**
  * 通用分页结果 DTO
+ * 不计算总数的分页 (withTotal=false) 中 total 和 pages 为 null，只通过 hasNext 判断是否还有下一页。
+ * 结果集很大时 total 可能是近似值 (approximateTotal = true)，前端应显示为"约 N 条"或"N+ 条"。
  * @param <T> 数据类型
  */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class PageDTO<T> {
     private Integer pageNum;    // 当前页码
     private Integer pageSize;   // 每页数量
     private Long total;         // 总记录数
     private Integer pages;      // 总页数
+    private Boolean approximateTotal; // total 是否为近似值
+    private Boolean hasNext;    // 是否还有下一页
     private List<T> list;       // 当前页数据列表
-} 
\ No newline at end of file
+
+    public PageDTO(Integer pageNum, Integer pageSize, Long total, Integer pages, List<T> list) {
+        this.pageNum = pageNum;
+        this.pageSize = pageSize;
+        this.total = total;
+        this.pages = pages;
+        this.approximateTotal = false;
+        this.hasNext = pageNum != null && pages != null && pageNum < pages;
+        this.list = list;
+    }
+
+    /**
+     * 带总数的分页结果，总页数由 total 计算
+     */
+    public static <T> PageDTO<T> of(int pageNum, int pageSize, long total, boolean approximateTotal, List<T> list) {
+        int pages = (int) ((total + pageSize - 1) / pageSize);
+        PageDTO<T> page = new PageDTO<>(pageNum, pageSize, total, pages, list);
+        page.setApproximateTotal(approximateTotal);
+        if (approximateTotal && list.size() == pageSize) {
+            page.setHasNext(true); // 近似总数可能偏小，整页时按"还有下一页"处理
+        }
+        return page;
+    }
+
+    /**
+     * 不带总数的分页结果
+     */
+    public static <T> PageDTO<T> slice(int pageNum, int pageSize, boolean hasNext, List<T> list) {
+        PageDTO<T> page = new PageDTO<>(pageNum, pageSize, null, null, list);
+        page.setApproximateTotal(null);
+        page.setHasNext(hasNext);
+        return page;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rei.algo.DTO.auth;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 用户名 / 邮箱可用性检查的响应 DTO (只包含请求中给出的字段)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityResponseDTO {
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
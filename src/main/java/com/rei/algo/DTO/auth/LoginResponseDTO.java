@@ -5,7 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
- * 登录响应 DTO，包含访问令牌
+ * 登录响应 DTO，包含访问令牌和刷新令牌
  */
 @Data
 @NoArgsConstructor
@@ -13,13 +13,19 @@ import lombok.NoArgsConstructor;
 public class LoginResponseDTO {
     private String accessToken;
     private String tokenType = "Bearer"; // JWT 令牌类型通常为 Bearer
+    private String refreshToken;         // 用于换取新的访问令牌，每次使用后轮换
+    private Long expiresIn;              // 访问令牌有效期 (秒)
 
-    // 可以根据需要添加其他信息，例如刷新令牌、用户信息、过期时间等
-    // private String refreshToken;
+    // 可以根据需要添加其他信息，例如用户信息
     // private UserDTO user;
-    // private Long expiresIn;
 
     public LoginResponseDTO(String accessToken) {
         this.accessToken = accessToken;
     }
-} 
\ No newline at end of file
+
+    public LoginResponseDTO(String accessToken, String refreshToken, Long expiresIn) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+}
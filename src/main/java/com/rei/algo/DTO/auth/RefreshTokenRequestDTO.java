@@ -0,0 +1,15 @@
+package com.rei.algo.DTO.auth;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 刷新令牌请求 DTO
+ */
+@Data
+@NoArgsConstructor
+public class RefreshTokenRequestDTO {
+    @NotBlank(message = "刷新令牌不能为空")
+    private String refreshToken;
+}
@@ -0,0 +1,14 @@
+package com.rei.algo.DTO.tag;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 预序列化的标签列表 (JSON 字节) 及其 ETag，供 GET /api/tags 直接写出。
+ */
+@Getter
+@AllArgsConstructor
+public class SerializedTagListDTO {
+    private final byte[] body;  // JSON 数组，内容与 List<Tag> 的序列化结果一致
+    private final String etag;  // 带引号的强 ETag
+}
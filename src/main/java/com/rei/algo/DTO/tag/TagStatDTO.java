@@ -0,0 +1,22 @@
+package com.rei.algo.DTO.tag;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 标签统计 DTO (帖子数 / 热度)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TagStatDTO {
+    private String tagId;
+    private String name;
+    private Long postCount;      // 使用该标签的帖子数
+    private Double trendingScore; // 按时间衰减的热度分 (仅热门标签接口返回)
+}
@@ -0,0 +1,24 @@
+package com.rei.algo.DTO.user;
+
+import com.rei.algo.DTO.auth.RegisterRequestDTO;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 管理员批量导入用户的请求 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRequestDTO {
+
+    @NotEmpty(message = "导入的用户列表不能为空")
+    @Size(max = 10000, message = "单次最多导入 10000 个用户")
+    private List<@Valid RegisterRequestDTO> users;
+}
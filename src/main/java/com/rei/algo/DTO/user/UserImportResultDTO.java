@@ -0,0 +1,19 @@
+package com.rei.algo.DTO.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量导入用户的结果 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+    private int requested;              // 请求导入的用户数
+    private int imported;               // 实际创建的用户数
+    private List<String> skippedUsernames; // 因用户名或邮箱已存在 (或在本批次中重复) 而跳过的用户名
+}
@@ -5,9 +5,11 @@ import io.swagger.v3.oas.annotations.info.Info;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan(basePackages = "com.rei.algo.mapper")
+@EnableScheduling
 @OpenAPIDefinition(info = @Info(title = "ReiAlgo API", version = "1.0", description = "API documentation for ReiAlgo"))
 public class ReiAlgoApplication {
 
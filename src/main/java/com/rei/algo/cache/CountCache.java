@@ -0,0 +1,163 @@
+package com.rei.algo.cache;
+
+import com.rei.algo.mapper.StatisticsMapper;
+import com.rei.algo.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntToLongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 分页总数缓存。
+ * <p>
+ * 每个 COUNT 查询按 key 缓存 (例如 "post:keyword:java")，TTL 很短；写操作在事务提交后按前缀失效
+ * (例如发帖后失效 "post:all" 和 "post:keyword:")，TTL 只兜底其他节点上的写入。
+ * <p>
+ * 近似模式 (pagination.approximate-count.enabled)：结果集很大时总数只需要数量级，不值得每次扫描。
+ * <ul>
+ *     <li>整表总数读取 InnoDB 的行数估算，估算值超过阈值时直接使用；</li>
+ *     <li>带条件的总数最多数到阈值 (子查询 LIMIT)，达到阈值即停止，返回"至少 N 条"。</li>
+ * </ul>
+ * 两种情况下都用 {@link Count#approximate()} 标记，结果集低于阈值时总数仍是精确的。
+ */
+@Component
+@Slf4j
+public class CountCache {
+
+    /**
+     * 总数及其是否为近似值
+     */
+    public record Count(long value, boolean approximate) {
+
+        public static Count exact(long value) {
+            return new Count(value, false);
+        }
+    }
+
+    private record Entry(Count count, long expiresAt) {
+    }
+
+    private final StatisticsMapper statisticsMapper;
+    private final long ttlMs;
+    private final int maxSize;
+    private final boolean approximateEnabled;
+    private final int approximateThreshold;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Bumped by every invalidation; a count loaded across an invalidation is returned but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public CountCache(StatisticsMapper statisticsMapper,
+                      @Value("${pagination.count-cache.ttl-ms:10000}") long ttlMs,
+                      @Value("${pagination.count-cache.max-size:10000}") int maxSize,
+                      @Value("${pagination.approximate-count.enabled:true}") boolean approximateEnabled,
+                      @Value("${pagination.approximate-count.threshold:10000}") int approximateThreshold) {
+        this.statisticsMapper = statisticsMapper;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+        this.approximateEnabled = approximateEnabled;
+        this.approximateThreshold = Math.max(1, approximateThreshold);
+    }
+
+    /**
+     * 精确总数 (缓存)
+     * @param key 查询 key，包含全部查询条件
+     * @param countQuery COUNT 查询
+     */
+    public Count exact(String key, LongSupplier countQuery) {
+        return get(key, () -> Count.exact(countQuery.getAsLong()));
+    }
+
+    /**
+     * 带条件的总数 (缓存)；近似模式下最多数到阈值
+     * @param key 查询 key，包含全部查询条件
+     * @param countQuery 精确 COUNT 查询
+     * @param cappedCountQuery 最多数到给定上限的 COUNT 查询
+     */
+    public Count upTo(String key, LongSupplier countQuery, IntToLongFunction cappedCountQuery) {
+        if (!approximateEnabled) {
+            return exact(key, countQuery);
+        }
+        return get(key, () -> {
+            long count = cappedCountQuery.applyAsLong(approximateThreshold);
+            return new Count(count, count >= approximateThreshold);
+        });
+    }
+
+    /**
+     * 整表总数 (缓存)；近似模式下估算值超过阈值时使用估算值
+     * @param key 查询 key
+     * @param tableName 表名
+     * @param countQuery 精确 COUNT 查询
+     */
+    public Count estimated(String key, String tableName, LongSupplier countQuery) {
+        if (!approximateEnabled) {
+            return exact(key, countQuery);
+        }
+        return get(key, () -> {
+            Long estimate = statisticsMapper.estimateRowCount(tableName);
+            if (estimate != null && estimate >= approximateThreshold) {
+                return new Count(estimate, true);
+            }
+            return Count.exact(countQuery.getAsLong());
+        });
+    }
+
+    /**
+     * 在当前事务提交后使以 prefix 开头的 key 失效；没有事务时立即生效。
+     */
+    public void invalidateAfterCommit(String... prefixes) {
+        TransactionUtils.afterCommit(() -> invalidate(prefixes));
+    }
+
+    public void invalidate(String... prefixes) {
+        invalidations.incrementAndGet();
+        entries.keySet().removeIf(key -> {
+            for (String prefix : prefixes) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    // --- Helper Methods --- //
+
+    private Count get(String key, Supplier<Count> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.count();
+        }
+        long generation = invalidations.get();
+        Count count = loader.get();
+        if (invalidations.get() == generation) {
+            Entry loaded = new Entry(count, now + ttlMs);
+            put(key, loaded);
+            if (invalidations.get() != generation) {
+                entries.remove(key, loaded); // an invalidation raced with the put
+            }
+        }
+        return count;
+    }
+
+    private void put(String key, Entry entry) {
+        if (entries.size() >= maxSize) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> e.expiresAt() <= now);
+        }
+        if (entries.size() >= maxSize) {
+            // Still full of live entries: start over rather than track recency
+            log.debug("Count cache reached {} entries, clearing.", maxSize);
+            entries.clear();
+        }
+        entries.put(key, entry);
+    }
+}
@@ -0,0 +1,96 @@
+package com.rei.algo.cache;
+
+import com.rei.algo.mapper.AuthTokenMapper;
+import com.rei.algo.util.BloomFilter;
+import com.rei.algo.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已吊销访问令牌 (jti) 的内存布隆过滤器。
+ * <p>
+ * 每个认证请求都要检查令牌是否被吊销，绝大多数令牌都没有被吊销：布隆过滤器以 O(1)、零分配的方式给出"一定没有"，
+ * 只有过滤器命中 (真的被吊销，或约 0.1% 的误判) 时才查询 revoked_token 表确认。
+ * <p>
+ * 本节点的吊销在事务提交后立即加入过滤器；过滤器按 jwt.revocation.refresh-interval-ms 从数据库整体重建，
+ * 以吸收其他节点的吊销并丢弃已过期的记录。访问令牌有效期很短，跨节点的可见延迟以此为上限。
+ */
+@Component
+@Slf4j
+public class RevokedTokenRegistry {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final AuthTokenMapper authTokenMapper;
+
+    private volatile BloomFilter filter = new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private volatile boolean loaded = false;
+
+    // Local revocations not yet guaranteed to be in a rebuilt filter (jti -> time added)
+    private final Map<String, Long> recent = new ConcurrentHashMap<>();
+
+    public RevokedTokenRegistry(AuthTokenMapper authTokenMapper) {
+        this.authTokenMapper = authTokenMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * 从 revoked_token 表重建过滤器 (容量按当前记录数的两倍预留，给增量添加留出余量)
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.refresh-interval-ms:60000}",
+               fixedDelayString = "${jwt.revocation.refresh-interval-ms:60000}")
+    public void rebuild() {
+        try {
+            long startedAt = System.currentTimeMillis();
+            List<String> jtis = authTokenMapper.findActiveRevokedJtis(LocalDateTime.now());
+            BloomFilter fresh = new BloomFilter(Math.max(MIN_CAPACITY, jtis.size() * 2), FALSE_POSITIVE_RATE);
+            jtis.forEach(fresh::put);
+            filter = fresh;
+            // A revocation committed while the query ran may have gone into the old filter only
+            recent.keySet().forEach(fresh::put);
+            recent.values().removeIf(addedAt -> addedAt < startedAt);
+            loaded = true;
+            log.debug("Revoked token filter rebuilt with {} jti(s), {} bits.", jtis.size(), fresh.bitSize());
+        } catch (Exception e) {
+            log.error("Failed to rebuild revoked token filter: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param jti 访问令牌 ID (没有 jti 的旧令牌无法吊销，直接返回 false)
+     * @return 令牌是否已被吊销
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (loaded && !filter.mightContain(jti)) {
+            return false; // fast path: definitely not revoked
+        }
+        // Filter hit (or not loaded yet): confirm against the table
+        return authTokenMapper.existsRevokedToken(jti);
+    }
+
+    /**
+     * 事务提交后把 jti 加入本节点的过滤器
+     */
+    public void addAfterCommit(String jti) {
+        TransactionUtils.afterCommit(() -> {
+            recent.put(jti, System.currentTimeMillis());
+            filter.put(jti);
+        });
+    }
+}
@@ -0,0 +1,210 @@
+package com.rei.algo.cache;
+
+import com.rei.algo.DTO.tag.TagStatDTO;
+import com.rei.algo.event.PostTagsChangedEvent;
+import com.rei.algo.mapper.TagMapper;
+import com.rei.algo.model.entity.PostTag;
+import com.rei.algo.util.IntIntHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 标签共现矩阵：matrix[a][b] = 同时带有标签 a 和 b 的帖子数，用于"相关标签"推荐。
+ * <p>
+ * tagId 被驻留为连续的 int，每一行是一个 {@link IntIntHashMap}，整个矩阵不装箱、只保存非零项。
+ * 启动时流式扫描 post_tag 构建，之后根据 {@link PostTagsChangedEvent} 的增量更新；
+ * 定期整体重建，以纠正重建期间并发事件造成的偏差并回收已删除标签。
+ */
+@Component
+@Slf4j
+public class TagCooccurrence {
+
+    private final TagMapper tagMapper;
+    private final TagDictionary tagDictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Matrix matrix = new Matrix(); // guarded by lock
+
+    public TagCooccurrence(TagMapper tagMapper, TagDictionary tagDictionary) {
+        this.tagMapper = tagMapper;
+        this.tagDictionary = tagDictionary;
+    }
+
+    private static final class Matrix {
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<String> tagIds = new ArrayList<>();
+        final List<IntIntHashMap> rows = new ArrayList<>();
+
+        int intern(String tagId) {
+            Integer id = ids.get(tagId);
+            if (id == null) {
+                id = tagIds.size();
+                ids.put(tagId, id);
+                tagIds.add(tagId);
+                rows.add(new IntIntHashMap());
+            }
+            return id;
+        }
+
+        void addPair(String a, String b, int delta) {
+            int x = intern(a);
+            int y = intern(b);
+            rows.get(x).addTo(y, delta);
+            rows.get(y).addTo(x, delta);
+        }
+
+        void addAllPairs(List<String> tags) {
+            for (int i = 0; i < tags.size(); i++) {
+                for (int j = i + 1; j < tags.size(); j++) {
+                    addPair(tags.get(i), tags.get(j), 1);
+                }
+            }
+        }
+    }
+
+    // --- Building --- //
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * 流式扫描 post_tag 全量重建矩阵 (在锁外构建，再整体替换)
+     */
+    @Scheduled(initialDelayString = "${tags.related.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${tags.related.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        try {
+            Matrix fresh = new Matrix();
+            List<String> postTags = new ArrayList<>();
+            String[] currentPost = {null};
+            long[] links = {0};
+            // Rows arrive ordered by post_id, so one post's tags are consecutive
+            tagMapper.scanPostTagLinks(context -> {
+                PostTag link = context.getResultObject();
+                if (!Objects.equals(link.getPostId(), currentPost[0])) {
+                    fresh.addAllPairs(postTags);
+                    postTags.clear();
+                    currentPost[0] = link.getPostId();
+                }
+                postTags.add(link.getTagId());
+                links[0]++;
+            });
+            fresh.addAllPairs(postTags);
+
+            lock.writeLock().lock();
+            try {
+                matrix = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Tag co-occurrence matrix built from {} post_tag row(s), {} tag(s).", links[0], fresh.tagIds.size());
+        } catch (Exception e) {
+            log.error("Failed to build tag co-occurrence matrix: {}", e.getMessage(), e);
+        }
+    }
+
+    // --- Incremental maintenance --- //
+
+    @TransactionalEventListener
+    public void onPostTagsChanged(PostTagsChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        Set<String> previousTagIds = new HashSet<>(event.currentTagIds());
+        previousTagIds.removeAll(event.addedTagIds());
+        previousTagIds.addAll(event.removedTagIds());
+
+        lock.writeLock().lock();
+        try {
+            // Pairs that exist now but did not before involve at least one added tag, and vice versa
+            applyPairs(event.addedTagIds(), event.currentTagIds(), 1);
+            applyPairs(event.removedTagIds(), previousTagIds, -1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Lookups --- //
+
+    /**
+     * 与给定标签共同出现次数最多的标签
+     *
+     * @param tagId 标签 ID
+     * @param limit 最多返回的数量
+     * @return 相关标签 (postCount 为共同出现的帖子数)，按次数降序
+     */
+    public List<TagStatDTO> related(String tagId, int limit) {
+        // Over-fetch a little: deleted tags are skipped below
+        int wanted = limit + Math.max(4, limit / 2);
+        List<String> topIds = new ArrayList<>(wanted);
+        List<Integer> topCounts = new ArrayList<>(wanted);
+
+        lock.readLock().lock();
+        try {
+            Integer id = matrix.ids.get(tagId);
+            if (id == null) {
+                return List.of();
+            }
+            // Min-heap of {tag, count}: only the best `wanted` entries of the row are kept
+            PriorityQueue<int[]> heap = new PriorityQueue<>(wanted + 1, (x, y) -> Integer.compare(x[1], y[1]));
+            matrix.rows.get(id).forEach((other, count) -> {
+                if (count > 0) {
+                    heap.offer(new int[]{other, count});
+                    if (heap.size() > wanted) {
+                        heap.poll();
+                    }
+                }
+            });
+            List<int[]> sorted = new ArrayList<>(heap);
+            sorted.sort((x, y) -> Integer.compare(y[1], x[1]));
+            for (int[] entry : sorted) {
+                topIds.add(matrix.tagIds.get(entry[0]));
+                topCounts.add(entry[1]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<TagStatDTO> result = new ArrayList<>(limit);
+        for (int i = 0; i < topIds.size() && result.size() < limit; i++) {
+            int count = topCounts.get(i);
+            tagDictionary.findById(topIds.get(i)).ifPresent(tag -> result.add(TagStatDTO.builder()
+                    .tagId(tag.getTagId())
+                    .name(tag.getName())
+                    .postCount((long) count)
+                    .build()));
+        }
+        return result;
+    }
+
+    // --- Helper Methods --- //
+
+    // Adds delta to every pair (changed, other) with other in tagSet; pairs of two changed tags are applied once
+    private void applyPairs(Collection<String> changed, Collection<String> tagSet, int delta) {
+        for (String a : changed) {
+            for (String b : tagSet) {
+                if (a.equals(b) || (changed.contains(b) && b.compareTo(a) < 0)) {
+                    continue;
+                }
+                matrix.addPair(a, b, delta);
+            }
+        }
+    }
+}
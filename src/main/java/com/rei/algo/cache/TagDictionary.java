@@ -0,0 +1,227 @@
+package com.rei.algo.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rei.algo.mapper.TagMapper;
+import com.rei.algo.model.entity.Tag;
+import com.rei.algo.util.TransactionUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * 内存中的标签字典 (name ↔ id)。
+ * 启动时从数据库加载，之后在标签创建/删除时以 copy-on-write 方式整体替换快照，读路径完全无锁。
+ * 快照同时保存按名称排序的列表及其预序列化的 JSON 和 ETag，供 GET /api/tags 直接返回。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TagDictionary {
+
+    private final TagMapper tagMapper;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+
+    private volatile boolean warm = false;
+
+    /**
+     * 不可变快照。所有集合在构造后不再修改，可被任意线程并发读取。
+     */
+    public static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), Collections.emptyMap(),
+                Collections.emptyList(), "[]".getBytes(), "\"empty\"");
+
+        private final Map<String, Tag> byId;
+        private final Map<String, Tag> byName;  // key: 小写名称 (与 tag.name 的 _ci 排序规则一致)
+        private final List<Tag> sorted;
+        private final byte[] json;
+        private final String etag;
+
+        private Snapshot(Map<String, Tag> byId, Map<String, Tag> byName, List<Tag> sorted, byte[] json, String etag) {
+            this.byId = byId;
+            this.byName = byName;
+            this.sorted = sorted;
+            this.json = json;
+            this.etag = etag;
+        }
+
+        public List<Tag> getSorted() {
+            return sorted;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public int size() {
+            return byId.size();
+        }
+    }
+
+    // --- Loading --- //
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // other tag caches are built from this dictionary
+    public void warmUp() {
+        reload();
+    }
+
+    /**
+     * 从数据库全量重建快照。定期执行以吸收其他节点的修改。
+     */
+    @Scheduled(initialDelayString = "${tags.dictionary.refresh-interval-ms:300000}",
+               fixedDelayString = "${tags.dictionary.refresh-interval-ms:300000}")
+    public void reload() {
+        try {
+            List<Tag> tags = tagMapper.findAll();
+            snapshot.set(buildSnapshot(tags));
+            warm = true;
+            log.info("Tag dictionary loaded with {} tag(s).", tags.size());
+        } catch (Exception e) {
+            log.error("Failed to load tag dictionary, lookups will fall back to the database: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    // --- Lookups --- //
+
+    public Snapshot current() {
+        return snapshot.get();
+    }
+
+    public Optional<Tag> findById(String tagId) {
+        return Optional.ofNullable(snapshot.get().byId.get(tagId));
+    }
+
+    public Optional<Tag> findByName(String name) {
+        return Optional.ofNullable(snapshot.get().byName.get(normalize(name)));
+    }
+
+    /**
+     * 将一批 tagId 解析为标签实体。未命中的 ID 会被放入 missingIds (可为 null)。
+     */
+    public List<Tag> findByIds(Collection<String> tagIds, Collection<String> missingIds) {
+        Snapshot current = snapshot.get();
+        List<Tag> result = new ArrayList<>(tagIds.size());
+        for (String tagId : tagIds) {
+            Tag tag = current.byId.get(tagId);
+            if (tag != null) {
+                result.add(tag);
+            } else if (missingIds != null) {
+                missingIds.add(tagId);
+            }
+        }
+        return result;
+    }
+
+    // --- Mutations (copy-on-write) --- //
+
+    /**
+     * 在当前事务提交后把标签加入字典；没有事务时立即生效。
+     * 避免事务回滚后字典中残留数据库里并不存在的标签。
+     */
+    public void registerAfterCommit(Collection<Tag> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        List<Tag> copy = List.copyOf(tags);
+        TransactionUtils.afterCommit(() -> register(copy));
+    }
+
+    public void evictAfterCommit(String tagId) {
+        TransactionUtils.afterCommit(() -> evict(tagId));
+    }
+
+    public void register(Collection<Tag> tags) {
+        swap(current -> {
+            boolean changed = false;
+            Map<String, Tag> byId = new HashMap<>(current.byId);
+            for (Tag tag : tags) {
+                Tag existing = byId.get(tag.getTagId());
+                if (existing == null || !existing.getName().equals(tag.getName())) {
+                    byId.put(tag.getTagId(), copyOf(tag));
+                    changed = true;
+                }
+            }
+            return changed ? buildSnapshot(byId.values()) : current;
+        });
+    }
+
+    public void evict(String tagId) {
+        swap(current -> {
+            if (!current.byId.containsKey(tagId)) {
+                return current;
+            }
+            Map<String, Tag> byId = new HashMap<>(current.byId);
+            byId.remove(tagId);
+            return buildSnapshot(byId.values());
+        });
+    }
+
+    // --- Helper Methods --- //
+
+    private void swap(UnaryOperator<Snapshot> update) {
+        // updateAndGet may re-run the function under contention; buildSnapshot is side-effect free
+        snapshot.updateAndGet(update);
+    }
+
+    private Snapshot buildSnapshot(Collection<Tag> tags) {
+        Map<String, Tag> byId = new HashMap<>(tags.size() * 2);
+        Map<String, Tag> byName = new HashMap<>(tags.size() * 2);
+        List<Tag> sorted = new ArrayList<>(tags.size());
+        for (Tag tag : tags) {
+            Tag copy = copyOf(tag);
+            byId.put(copy.getTagId(), copy);
+            byName.put(normalize(copy.getName()), copy);
+            sorted.add(copy);
+        }
+        sorted.sort(Comparator.comparing(Tag::getName, String.CASE_INSENSITIVE_ORDER));
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(sorted);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize tag dictionary", e);
+        }
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+
+        return new Snapshot(Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName),
+                Collections.unmodifiableList(sorted), json, etag);
+    }
+
+    private static Tag copyOf(Tag tag) {
+        return Tag.builder().tagId(tag.getTagId()).name(tag.getName()).build();
+    }
+
+    private static String normalize(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,169 @@
+package com.rei.algo.cache;
+
+import com.rei.algo.DTO.tag.TagStatDTO;
+import com.rei.algo.event.PostTagsChangedEvent;
+import com.rei.algo.mapper.TagMapper;
+import com.rei.algo.model.entity.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 标签统计：每个标签的帖子数 + 按时间衰减的热门标签。
+ * <p>
+ * 帖子数在启动时用一次 GROUP BY 初始化，之后根据 {@link PostTagsChangedEvent} 增量维护。
+ * 热度采用 forward decay：每次打标签累加 exp(λ·(t - landmark))，任意时刻的真实热度为
+ * 累加值 × exp(-λ·(now - landmark))。该系数对所有标签相同，因此比较大小时无需逐个衰减；
+ * 后台任务定期用大小为 K 的最小堆选出 Top-K 并发布为不可变列表。
+ */
+@Component
+@Slf4j
+public class TagStatistics {
+
+    // exp() of this many half-lives is still far from double overflow; rescale before getting there
+    private static final double RESCALE_EXPONENT = 500.0;
+    private static final double MIN_SCORE = 1e-3;
+
+    private final TagMapper tagMapper;
+    private final TagDictionary tagDictionary;
+    private final double lambda;   // 衰减系数 ln2 / halfLife (1/ms)
+    private final int topK;
+
+    private final ConcurrentHashMap<String, AtomicLong> postCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Double> forwardScores = new ConcurrentHashMap<>();
+
+    private volatile long landmark = System.currentTimeMillis();
+    private volatile List<TagStatDTO> trending = Collections.emptyList();
+
+    public TagStatistics(TagMapper tagMapper,
+                         TagDictionary tagDictionary,
+                         @Value("${tags.trending.half-life-ms:86400000}") long halfLifeMs,
+                         @Value("${tags.trending.top-k:50}") int topK) {
+        this.tagMapper = tagMapper;
+        this.tagDictionary = tagDictionary;
+        this.lambda = Math.log(2) / halfLifeMs;
+        this.topK = topK;
+    }
+
+    // --- Loading --- //
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCounts() {
+        try {
+            List<TagStatDTO> counts = tagMapper.countPostsByTag();
+            postCounts.clear();
+            counts.forEach(c -> postCounts.put(c.getTagId(), new AtomicLong(c.getPostCount())));
+            log.info("Loaded post counts for {} tag(s).", counts.size());
+        } catch (Exception e) {
+            log.error("Failed to load tag post counts: {}", e.getMessage(), e);
+        }
+    }
+
+    // --- Incremental maintenance --- //
+
+    @TransactionalEventListener
+    public void onPostTagsChanged(PostTagsChangedEvent event) {
+        if (event.isEmpty()) {
+            return;
+        }
+        event.addedTagIds().forEach(tagId -> postCounts.computeIfAbsent(tagId, k -> new AtomicLong()).incrementAndGet());
+        event.removedTagIds().forEach(tagId -> {
+            AtomicLong count = postCounts.get(tagId);
+            if (count != null) {
+                count.updateAndGet(c -> Math.max(0, c - 1));
+            }
+        });
+
+        // Only tagging activity feeds the trending score; un-tagging does not make a tag "anti-trending"
+        if (!event.addedTagIds().isEmpty()) {
+            double weight = Math.exp(lambda * (System.currentTimeMillis() - landmark));
+            event.addedTagIds().forEach(tagId -> forwardScores.merge(tagId, weight, Double::sum));
+        }
+    }
+
+    /**
+     * 重新计算 Top-K 热门标签。每次只持有 K 个元素的堆，不对全部标签排序。
+     */
+    @Scheduled(fixedDelayString = "${tags.trending.refresh-interval-ms:10000}")
+    public void refreshTrending() {
+        long now = System.currentTimeMillis();
+        double exponent = lambda * (now - landmark);
+        if (exponent > RESCALE_EXPONENT) {
+            rescale(now, exponent);
+            exponent = 0;
+        }
+        double decay = Math.exp(-exponent);
+
+        PriorityQueue<Map.Entry<String, Double>> heap = new PriorityQueue<>(topK + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<String, Double> entry : forwardScores.entrySet()) {
+            if (entry.getValue() * decay < MIN_SCORE) {
+                forwardScores.remove(entry.getKey(), entry.getValue()); // fully decayed
+                continue;
+            }
+            if (tagDictionary.isWarm() && tagDictionary.findById(entry.getKey()).isEmpty()) {
+                continue; // tag was deleted
+            }
+            heap.offer(Map.entry(entry.getKey(), entry.getValue()));
+            if (heap.size() > topK) {
+                heap.poll();
+            }
+        }
+
+        List<TagStatDTO> result = new ArrayList<>(heap.size());
+        for (Map.Entry<String, Double> entry : heap) {
+            result.add(TagStatDTO.builder()
+                    .tagId(entry.getKey())
+                    .name(tagDictionary.findById(entry.getKey()).map(Tag::getName).orElse(null))
+                    .postCount(getPostCount(entry.getKey()))
+                    .trendingScore(entry.getValue() * decay)
+                    .build());
+        }
+        result.sort(Comparator.comparing(TagStatDTO::getTrendingScore).reversed());
+        trending = Collections.unmodifiableList(result);
+    }
+
+    // --- Reads --- //
+
+    public long getPostCount(String tagId) {
+        return Optional.ofNullable(postCounts.get(tagId)).map(AtomicLong::get).orElse(0L);
+    }
+
+    /**
+     * @return tagId -> 帖子数 的只读视图
+     */
+    public Map<String, AtomicLong> getPostCounts() {
+        return Collections.unmodifiableMap(postCounts);
+    }
+
+    /**
+     * @return 最近一次计算的热门标签 (按热度降序，最多 K 个)
+     */
+    public List<TagStatDTO> getTrending() {
+        return trending;
+    }
+
+    // --- Helper Methods --- //
+
+    // Moves the landmark to now so forward scores stay well inside double range.
+    // Increments racing with the rescale may be off by one decay factor, which is acceptable for a popularity signal.
+    private void rescale(long now, double exponent) {
+        double factor = Math.exp(-exponent);
+        landmark = now;
+        forwardScores.replaceAll((tagId, score) -> score * factor);
+        log.debug("Rescaled trending tag scores by {}", factor);
+    }
+}
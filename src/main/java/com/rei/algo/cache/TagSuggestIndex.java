@@ -0,0 +1,204 @@
+package com.rei.algo.cache;
+
+import com.rei.algo.DTO.tag.TagStatDTO;
+import com.rei.algo.model.entity.Tag;
+import com.rei.algo.util.RadixTrie;
+import com.rei.algo.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 标签自动补全索引：基于压缩前缀树，按标签热度 (帖子数) 排序返回建议。
+ * <p>
+ * 每个标签会以多个 key 写入前缀树：
+ * <ul>
+ *     <li>小写后的完整名称 ("Spring Boot" -> "spring boot")</li>
+ *     <li>每个单词起始处的后缀 ("spring boot" -> "boot")</li>
+ * </ul>
+ * 中文标签不生成拼音 key：classpath 上没有拼音转换库，中文名称只能按原文前缀匹配。
+ * 启动时与标签字典同步全量构建，之后随标签创建/删除增量更新，并定期整体重建以回收空节点。
+ * 帖子数随时变化，无法在树节点上维护子树最大热度，因此查询时遍历前缀下的全部标签，用大小为 limit 的堆取热度前 K 个。
+ */
+@Component
+@Slf4j
+public class TagSuggestIndex {
+
+    private static final Comparator<TagStatDTO> BY_POPULARITY = Comparator
+            .comparing(TagStatDTO::getPostCount, Comparator.reverseOrder())
+            .thenComparing(TagStatDTO::getName, String.CASE_INSENSITIVE_ORDER);
+
+    private final TagDictionary tagDictionary;
+    private final TagStatistics tagStatistics;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes rebuild with add/remove, so a change made while a rebuild is running is applied to the new trie
+    private final ReentrantLock mutationLock = new ReentrantLock();
+    private RadixTrie<String> trie = new RadixTrie<>(); // value: tagId, guarded by lock
+
+    public TagSuggestIndex(TagDictionary tagDictionary, TagStatistics tagStatistics) {
+        this.tagDictionary = tagDictionary;
+        this.tagStatistics = tagStatistics;
+    }
+
+    // --- Building --- //
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * 从标签字典全量重建 (在读写锁外构建新树，再整体替换，查询不受影响)。
+     * 重建期间到达的增量修改会等待重建完成，再作用在新树上。
+     */
+    @Scheduled(initialDelayString = "${tags.dictionary.refresh-interval-ms:300000}",
+               fixedDelayString = "${tags.dictionary.refresh-interval-ms:300000}")
+    public void rebuild() {
+        mutationLock.lock();
+        try {
+            List<Tag> tags = tagDictionary.current().getSorted();
+            RadixTrie<String> fresh = new RadixTrie<>();
+            tags.forEach(tag -> insert(fresh, tag));
+
+            lock.writeLock().lock();
+            try {
+                trie = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Tag suggest index built with {} key(s) for {} tag(s).", fresh.size(), tags.size());
+        } finally {
+            mutationLock.unlock();
+        }
+    }
+
+    /**
+     * 在当前事务提交后把标签加入索引；没有事务时立即生效。
+     */
+    public void addAfterCommit(Collection<Tag> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        List<Tag> copy = List.copyOf(tags);
+        TransactionUtils.afterCommit(() -> add(copy));
+    }
+
+    public void removeAfterCommit(String tagId) {
+        TransactionUtils.afterCommit(() -> remove(tagId));
+    }
+
+    public void add(Collection<Tag> tags) {
+        mutationLock.lock();
+        lock.writeLock().lock();
+        try {
+            tags.forEach(tag -> insert(trie, tag));
+        } finally {
+            lock.writeLock().unlock();
+            mutationLock.unlock();
+        }
+    }
+
+    public void remove(String tagId) {
+        mutationLock.lock();
+        lock.writeLock().lock();
+        try {
+            trie.removeIf(tagId::equals);
+        } finally {
+            lock.writeLock().unlock();
+            mutationLock.unlock();
+        }
+    }
+
+    // --- Lookups --- //
+
+    /**
+     * 按前缀查找标签，热度高的排在前面
+     *
+     * @param prefix 用户输入的前缀 (大小写不敏感)
+     * @param limit  最多返回的数量
+     * @return 标签建议列表 (包含帖子数)
+     */
+    public List<TagStatDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+
+        if (limit <= 0) {
+            return List.of();
+        }
+
+        // A tag can match through several keys (full name, word start)
+        Set<String> tagIds = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            trie.forEachWithPrefix(key, tagIds::add);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Min-heap on popularity holding the best `limit` tags seen so far
+        PriorityQueue<TagStatDTO> top = new PriorityQueue<>(limit + 1, BY_POPULARITY.reversed());
+        for (String tagId : tagIds) {
+            tagDictionary.findById(tagId).ifPresent(tag -> {
+                top.offer(TagStatDTO.builder()
+                        .tagId(tag.getTagId())
+                        .name(tag.getName())
+                        .postCount(tagStatistics.getPostCount(tag.getTagId()))
+                        .build());
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+        }
+        List<TagStatDTO> result = new ArrayList<>(top);
+        result.sort(BY_POPULARITY);
+        return result;
+    }
+
+    // --- Helper Methods --- //
+
+    private void insert(RadixTrie<String> target, Tag tag) {
+        for (String key : keysOf(tag.getName())) {
+            target.put(key, tag.getTagId());
+        }
+    }
+
+    private Set<String> keysOf(String name) {
+        Set<String> keys = new LinkedHashSet<>();
+        String folded = normalize(name);
+        if (folded.isEmpty()) {
+            return keys;
+        }
+        keys.add(folded);
+        for (int i = 1; i < folded.length(); i++) {
+            if (isWordSeparator(folded.charAt(i - 1)) && !isWordSeparator(folded.charAt(i))) {
+                keys.add(folded.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static boolean isWordSeparator(char c) {
+        return Character.isWhitespace(c) || c == '-' || c == '_' || c == '.' || c == '/';
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,144 @@
+package com.rei.algo.cache;
+
+import com.rei.algo.mapper.UserMapper;
+import com.rei.algo.model.entity.User;
+import com.rei.algo.util.BloomFilter;
+import com.rei.algo.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户名 / 邮箱是否已被占用的内存布隆过滤器，用于注册表单的实时可用性检查。
+ * <p>
+ * 绝大多数被检查的用户名都没有被占用：过滤器未命中即可直接回答"可用"，不访问数据库；
+ * 只有命中 (已被占用，或约 0.1% 的误判) 时才用 existsByUsername / existsByEmail 确认。
+ * <p>
+ * 过滤器在启动时流式扫描 user 表构建，本节点注册的用户在事务提交后加入；
+ * 按 users.availability.rebuild-interval-ms 重建，以吸收其他节点的注册并按用户总数重新确定容量。
+ * 在此之前其他节点刚注册的名字可能被报告为"可用"，注册时仍由 UNIQUE 约束兜底。
+ * <p>
+ * 键按小写比较，与 utf8mb4_unicode_ci 排序规则下的唯一性一致。
+ */
+@Component
+@Slf4j
+public class UserAvailabilityFilter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+    private static final int MIN_CAPACITY = 10_000;
+
+    private final UserMapper userMapper;
+
+    private volatile Filters filters;
+
+    // Local registrations not yet guaranteed to be in a rebuilt filter (key -> time added)
+    private final Map<String, Long> recentUsernames = new ConcurrentHashMap<>();
+    private final Map<String, Long> recentEmails = new ConcurrentHashMap<>();
+
+    public UserAvailabilityFilter(UserMapper userMapper) {
+        this.userMapper = userMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * 流式扫描 user 表重建过滤器 (容量按当前用户数的两倍预留)
+     */
+    @Scheduled(initialDelayString = "${users.availability.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${users.availability.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        try {
+            long startedAt = System.currentTimeMillis();
+            long users = userMapper.countUsers();
+            int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CAPACITY, users * 2));
+            Filters fresh = new Filters(new BloomFilter(capacity, FALSE_POSITIVE_RATE),
+                    new BloomFilter(capacity, FALSE_POSITIVE_RATE));
+            long[] scanned = {0};
+            userMapper.scanUsernamesAndEmails(context -> {
+                User user = context.getResultObject();
+                fresh.usernames.put(normalize(user.getUsername()));
+                if (user.getEmail() != null) {
+                    fresh.emails.put(normalize(user.getEmail()));
+                }
+                scanned[0]++;
+            });
+            filters = fresh;
+            // A registration committed while the scan ran may have gone into the old filter only
+            recentUsernames.keySet().forEach(fresh.usernames::put);
+            recentEmails.keySet().forEach(fresh.emails::put);
+            recentUsernames.values().removeIf(addedAt -> addedAt < startedAt);
+            recentEmails.values().removeIf(addedAt -> addedAt < startedAt);
+            log.info("User availability filters built from {} user(s), {} bits each.", scanned[0], fresh.usernames.bitSize());
+        } catch (Exception e) {
+            log.error("Failed to build user availability filters: {}", e.getMessage(), e);
+        }
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        Filters current = filters;
+        if (current != null && !current.usernames.mightContain(normalize(username))) {
+            return true; // fast path: definitely not taken
+        }
+        return !userMapper.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        Filters current = filters;
+        if (current != null && !current.emails.mightContain(normalize(email))) {
+            return true;
+        }
+        return !userMapper.existsByEmail(email.trim());
+    }
+
+    /**
+     * 事务提交后把新用户的用户名和邮箱加入过滤器
+     */
+    public void addAfterCommit(String username, String email) {
+        TransactionUtils.afterCommit(() -> add(username, email, System.currentTimeMillis()));
+    }
+
+    /**
+     * 事务提交后把一批新用户加入过滤器 (批量导入)
+     */
+    public void addAllAfterCommit(Collection<User> users) {
+        TransactionUtils.afterCommit(() -> {
+            long now = System.currentTimeMillis();
+            users.forEach(user -> add(user.getUsername(), user.getEmail(), now));
+        });
+    }
+
+    // --- Helper Methods --- //
+
+    private void add(String username, String email, long now) {
+        String usernameKey = normalize(username);
+        String emailKey = email != null ? normalize(email) : null;
+        recentUsernames.put(usernameKey, now);
+        if (emailKey != null) {
+            recentEmails.put(emailKey, now);
+        }
+        Filters current = filters;
+        if (current != null) {
+            current.usernames.put(usernameKey);
+            if (emailKey != null) {
+                current.emails.put(emailKey);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.rei.algo.cache;
+
+import com.rei.algo.model.entity.User;
+import com.rei.algo.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 短 TTL 的用户缓存 (按 userId 和用户名两种 key)。
+ * <p>
+ * 认证本身已不再查询用户表 (见 JwtAuthenticationFilter)，这里只服务于确实需要用户完整信息的操作，
+ * 例如查看个人资料、登录时加载密码哈希。用户信息修改后在事务提交时失效，TTL 只兜底其他节点的修改。
+ * 缓存中保存的是副本，调用方修改返回对象不会污染缓存。
+ * 加载期间发生过失效时，加载结果只返回给调用方而不写入缓存，避免旧数据在失效后被重新放回。
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private record Entry(User user, long expiresAt) {
+    }
+
+    private final long ttlMs;
+    private final int maxSize;
+
+    private final Map<String, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Entry> byUsername = new ConcurrentHashMap<>(); // key: 小写用户名 (user.username 为 _ci 排序规则)
+    // Bumped by every invalidation; a user loaded across an invalidation is returned but not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public UserCache(@Value("${users.cache.ttl-ms:30000}") long ttlMs,
+                     @Value("${users.cache.max-size:10000}") int maxSize) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    public Optional<User> getById(String userId, Supplier<Optional<User>> loader) {
+        return get(byId, userId, loader);
+    }
+
+    public Optional<User> getByUsername(String username, Supplier<Optional<User>> loader) {
+        return get(byUsername, normalize(username), loader);
+    }
+
+    /**
+     * 在当前事务提交后使用户缓存失效；没有事务时立即生效。
+     */
+    public void invalidateAfterCommit(String userId) {
+        TransactionUtils.afterCommit(() -> invalidate(userId));
+    }
+
+    public void invalidate(String userId) {
+        invalidations.incrementAndGet();
+        Entry removed = byId.remove(userId);
+        if (removed != null) {
+            byUsername.remove(normalize(removed.user().getUsername()));
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private Optional<User> get(Map<String, Entry> index, String key, Supplier<Optional<User>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = index.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return Optional.of(copyOf(entry.user()));
+        }
+        long generation = invalidations.get();
+        Optional<User> loaded = loader.get();
+        if (invalidations.get() == generation) {
+            loaded.ifPresentOrElse(user -> {
+                Entry cached = put(user, now + ttlMs);
+                if (invalidations.get() != generation) {
+                    // an invalidation raced with the put
+                    byId.remove(user.getUserId(), cached);
+                    byUsername.remove(normalize(user.getUsername()), cached);
+                }
+            }, () -> index.remove(key));
+        }
+        return loaded.map(UserCache::copyOf);
+    }
+
+    private Entry put(User user, long expiresAt) {
+        if (byId.size() >= maxSize) {
+            evictExpired();
+        }
+        if (byId.size() >= maxSize) {
+            // Still full of live entries: start over rather than track recency
+            log.debug("User cache reached {} entries, clearing.", maxSize);
+            byId.clear();
+            byUsername.clear();
+        }
+        Entry entry = new Entry(copyOf(user), expiresAt);
+        byId.put(user.getUserId(), entry);
+        byUsername.put(normalize(user.getUsername()), entry);
+        return entry;
+    }
+
+    private void evictExpired() {
+        long now = System.currentTimeMillis();
+        byId.values().removeIf(entry -> entry.expiresAt() <= now);
+        byUsername.values().removeIf(entry -> entry.expiresAt() <= now);
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .userId(user.getUserId())
+                .username(user.getUsername())
+                .password(user.getPassword())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .avatarUrl(user.getAvatarUrl())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+}
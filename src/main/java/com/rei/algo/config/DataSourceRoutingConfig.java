@@ -0,0 +1,96 @@
+package com.rei.algo.config;
+
+import com.rei.algo.datasource.ConcurrencyLimitedDataSource;
+import com.rei.algo.datasource.ReadWriteRoutingDataSource;
+import com.rei.algo.datasource.ReadYourWritesTracker;
+import com.rei.algo.datasource.ReplicaHealthChecker;
+import com.rei.algo.datasource.RoutingDataSourceProperties;
+import com.rei.algo.security.SecurityUtils;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 读写分离 (datasource.routing.enabled=true 时生效)：
+ * 主库仍按 spring.datasource.* 创建，副本按 datasource.routing.replicas 创建，
+ * 对外暴露的 DataSource 是 LazyConnectionDataSourceProxy -> {@link ReadWriteRoutingDataSource}。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Value("${db.gate.enabled:true}")
+    private boolean gateEnabled;
+
+    @Value("${db.gate.acquire-timeout-ms:3000}")
+    private long gateAcquireTimeoutMs;
+
+    // Gated by the dataSourceGatePostProcessor like the single-pool setup
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            DataSourceProperties dataSourceProperties,
+            RoutingDataSourceProperties routingProperties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        Assert.notEmpty(routingProperties.getReplicas(), "datasource.routing.replicas must not be empty when routing is enabled");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (RoutingDataSourceProperties.Replica replica : routingProperties.getReplicas()) {
+            Assert.hasText(replica.getName(), "Replica name cannot be empty");
+            Assert.hasText(replica.getUrl(), "Replica '" + replica.getName() + "' needs a url");
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(replica.getName());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(StringUtils.hasText(replica.getUsername()) ? replica.getUsername() : dataSourceProperties.getUsername());
+            pool.setPassword(StringUtils.hasText(replica.getUsername()) ? replica.getPassword() : dataSourceProperties.getPassword());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setMinimumIdle(replica.getMinimumIdle());
+            pool.setReadOnly(true);
+            replicas.put(replica.getName(), gateEnabled
+                    ? new ConcurrencyLimitedDataSource(replica.getName(), pool, replica.getMaximumPoolSize(),
+                            gateAcquireTimeoutMs, meterRegistry.getIfAvailable())
+                    : pool);
+        }
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(routingProperties.getStickyWindowMs(),
+                () -> SecurityUtils.getCurrentUserId().orElse(null));
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, tracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(ReadWriteRoutingDataSource readWriteRoutingDataSource,
+                                                     RoutingDataSourceProperties routingProperties) {
+        return new ReplicaHealthChecker(readWriteRoutingDataSource, routingProperties.getLagQuery(),
+                routingProperties.getMaxLagSeconds());
+    }
+}
@@ -0,0 +1,45 @@
+package com.rei.algo.config;
+
+import com.rei.algo.interceptor.SlowQueryInterceptor;
+import com.rei.algo.interceptor.StatementMetricsInterceptor;
+import com.rei.algo.monitoring.SlowQueryEndpoint;
+import com.rei.algo.monitoring.SlowQueryLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MyBatis 语句级指标与慢查询记录。Interceptor 类型的 Bean 会被 mybatis-spring-boot 自动注册到 SqlSessionFactory。
+ */
+@Configuration
+public class MybatisMetricsConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "db.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public StatementMetricsInterceptor statementMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new StatementMetricsInterceptor(meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "db.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SlowQueryLog slowQueryLog(@Value("${db.slow-query.capacity:200}") int capacity) {
+        return new SlowQueryLog(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "db.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SlowQueryInterceptor slowQueryInterceptor(SlowQueryLog slowQueryLog,
+                                                     @Value("${db.slow-query.threshold-ms:200}") long thresholdMs,
+                                                     @Value("${db.slow-query.explain-sample-rate:0.2}") double explainSampleRate,
+                                                     @Value("${db.slow-query.explain-interval-ms:60000}") long explainIntervalMs) {
+        return new SlowQueryInterceptor(slowQueryLog, thresholdMs, explainSampleRate, explainIntervalMs);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "db.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+}
@@ -0,0 +1,33 @@
+package com.rei.algo.config;
+
+import com.rei.algo.interceptor.QueryBudgetFilter;
+import com.rei.algo.interceptor.QueryBudgetProperties;
+import com.rei.algo.interceptor.QueryCountInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 每个请求的 SQL 语句计数与预算 (见 {@link QueryBudgetFilter})。
+ */
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+@ConditionalOnProperty(prefix = "query-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetConfig {
+
+    @Bean
+    public QueryCountInterceptor queryCountInterceptor() {
+        return new QueryCountInterceptor();
+    }
+
+    // Runs just outside the Spring Security filter chain
+    @Bean
+    public FilterRegistrationBean<QueryBudgetFilter> queryBudgetFilter(QueryBudgetProperties properties) {
+        FilterRegistrationBean<QueryBudgetFilter> registration = new FilterRegistrationBean<>(new QueryBudgetFilter(properties));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
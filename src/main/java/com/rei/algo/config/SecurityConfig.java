@@ -1,8 +1,17 @@
 package com.rei.algo.config;
 
+import com.rei.algo.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rei.algo.security.JwtAuthenticationFilter; // Import the filter
+import com.rei.algo.security.RateLimitFilter;
+import com.rei.algo.security.RateLimitProperties;
 import com.rei.algo.service.UserService; // Need this for UserDetailsService
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,7 +23,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer; // For disabling CSRF/Session
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter; // Import this filter class
@@ -26,24 +34,42 @@ import jakarta.servlet.http.HttpServletResponse;
 @Configuration
 @EnableWebSecurity // 启用 Spring Security 的 Web 安全支持
 @EnableMethodSecurity(prePostEnabled = true, securedEnabled = true) // 启用方法级别的安全注解
+@EnableConfigurationProperties(RateLimitProperties.class)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final UserService userService; // Inject UserService (UserDetailsService)
     private final JwtAuthenticationFilter jwtAuthenticationFilter; // Inject the filter
+    private final RateLimitProperties rateLimitProperties;
 
-    // 定义密码编码器 Bean
+    @Value("${password.hashing.strength:10}")
+    private int passwordStrength;
+
+    @Value("${password.hashing.threads:0}") // 0 = CPU 核数
+    private int passwordHashingThreads;
+
+    @Value("${password.hashing.queue-capacity:64}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${password.hashing.timeout-ms:5000}")
+    private long passwordHashingTimeoutMs;
+
+    // 定义密码编码器 Bean: BCrypt 在独立的有界线程池中执行，饱和时快速返回 503
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(ObjectProvider<MeterRegistry> meterRegistry) {
+        int threads = passwordHashingThreads > 0 ? passwordHashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(passwordStrength, threads, passwordHashingQueueCapacity,
+                passwordHashingTimeoutMs, meterRegistry.getIfAvailable());
     }
 
     // 定义 AuthenticationProvider Bean，使用 UserDetailsService 和 PasswordEncoder
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userService); // userService 实现了 UserDetailsService
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // 登录成功且哈希的 cost 低于当前配置时，用新 cost 重新哈希并保存
+        authProvider.setUserDetailsPasswordService(userService);
         return authProvider;
     }
 
@@ -56,7 +82,8 @@ public class SecurityConfig {
 
     // 配置 SecurityFilterChain (核心安全规则)
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider,
+                                                   ObjectMapper objectMapper, ObjectProvider<MeterRegistry> meterRegistry) throws Exception {
         http
                 // 禁用 CSRF (因为我们使用 JWT，不需要 CSRF 保护)
                 .csrf(AbstractHttpConfigurer::disable)
@@ -76,11 +103,18 @@ public class SecurityConfig {
                         // Authentication & API Docs
                         .requestMatchers("/api/auth/**").permitAll().requestMatchers("/swagger-ui/**").permitAll().requestMatchers("/v3/api-docs/**").permitAll()
 
+                        // Health checks and Prometheus scraping (management port, not exposed publicly)
+                        .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
+                        // Other actuator endpoints (metrics, slow queries with their SQL) are for administrators only
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).hasRole("ADMIN")
+
                         // ----- 公共只读 API (GET) -----
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/tags/**").permitAll() // 允许获取标签
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/posts").permitAll() // 允许获取帖子列表
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/posts/search").permitAll() // 允许搜索帖子
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/posts/user/{userId}").permitAll() // 允许获取用户帖子
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/posts/tag/{tagId}").permitAll() // 允许按标签获取帖子
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/posts/tags").permitAll() // 允许按多个标签过滤帖子
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/posts/{postId}").permitAll() // 允许获取单个帖子
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/comments/post/{postId}").permitAll() // 允许获取帖子评论
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/comments/{commentId}/with-replies").permitAll() // 允许获取评论带回复
@@ -99,7 +133,7 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 
                 // 设置 AuthenticationProvider
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
 
                 // ***** Add the JWT filter before the standard authentication filter *****
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
@@ -120,6 +154,12 @@ public class SecurityConfig {
                     })
                 );
 
+        // ***** Rate limiting runs after the JWT filter so per-user limits can see the authenticated user *****
+        if (rateLimitProperties.isEnabled()) {
+            http.addFilterAfter(new RateLimitFilter(rateLimitProperties, objectMapper, meterRegistry.getIfAvailable()),
+                    JwtAuthenticationFilter.class);
+        }
+
         return http.build();
     }
 } 
\ No newline at end of file
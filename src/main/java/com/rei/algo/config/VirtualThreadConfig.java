@@ -0,0 +1,59 @@
+package com.rei.algo.config;
+
+import com.rei.algo.datasource.ConcurrencyLimitedDataSource;
+import com.rei.algo.monitoring.PinnedThreadMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * 虚拟线程运行模式的配套配置 (spring.threads.virtual.enabled=true 时 Tomcat 和 @Scheduled 任务运行在虚拟线程上)：
+ * <ul>
+ *     <li>数据库并发闸门：把 DataSource 包装为 {@link ConcurrencyLimitedDataSource}，许可数默认等于连接池大小</li>
+ *     <li>钉住诊断：{@link PinnedThreadMonitor}</li>
+ * </ul>
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    // static: BeanPostProcessors are created before regular beans and must not drag this configuration with them
+    @Bean
+    @ConditionalOnProperty(prefix = "db.gate", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor dataSourceGatePostProcessor(
+            @Value("${db.gate.max-concurrency:0}") int maxConcurrency,
+            @Value("${db.gate.acquire-timeout-ms:3000}") long acquireTimeoutMs,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Gate the connection pools themselves, not wrappers around them (routing, lazy proxies)
+                if (!(bean instanceof DataSource dataSource)
+                        || bean instanceof DelegatingDataSource || bean instanceof AbstractRoutingDataSource) {
+                    return bean;
+                }
+                int permits = maxConcurrency > 0 ? maxConcurrency
+                        : bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                return new ConcurrencyLimitedDataSource(beanName, dataSource, permits, acquireTimeoutMs,
+                        meterRegistry.getIfAvailable());
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "virtual-threads.pinning-diagnostics", name = "enabled", havingValue = "true")
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            @Value("${virtual-threads.pinning-diagnostics.threshold-ms:20}") long thresholdMs,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new PinnedThreadMonitor(Duration.ofMillis(thresholdMs), meterRegistry.getIfAvailable());
+    }
+}
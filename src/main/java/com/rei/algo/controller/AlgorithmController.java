@@ -124,6 +124,7 @@ public class AlgorithmController {
      * @param userId 用户 ID
      * @param pageNum 页码
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数 (默认 true)；false 时只返回 hasNext
      * @return 分页结果
      */
     @GetMapping("/user/{userId}")
@@ -131,9 +132,10 @@ public class AlgorithmController {
     public ResponseEntity<PageDTO<AlgorithmDTO>> getAlgorithmsByUserId(
             @PathVariable String userId,
             @RequestParam(defaultValue = "1") int pageNum,
-            @RequestParam(defaultValue = "10") int pageSize) {
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
         // TODO: Consider if only owner/admin can see private algorithms in this list - Service layer should handle this
-        PageDTO<AlgorithmDTO> page = algorithmService.getAlgorithmsByUserId(userId, pageNum, pageSize);
+        PageDTO<AlgorithmDTO> page = algorithmService.getAlgorithmsByUserId(userId, pageNum, pageSize, withTotal);
         return ResponseEntity.ok(page);
     }
 
@@ -142,6 +144,7 @@ public class AlgorithmController {
      * @param keyword 关键字
      * @param pageNum 页码
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数 (默认 true)；false 时只返回 hasNext
      * @return 分页结果
      */
     @GetMapping("/search")
@@ -149,8 +152,9 @@ public class AlgorithmController {
     public ResponseEntity<PageDTO<AlgorithmDTO>> searchPublicAlgorithms(
             @RequestParam(required = false) String keyword,
             @RequestParam(defaultValue = "1") int pageNum,
-            @RequestParam(defaultValue = "10") int pageSize) {
-        PageDTO<AlgorithmDTO> page = algorithmService.searchPublicAlgorithms(keyword, pageNum, pageSize);
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+        PageDTO<AlgorithmDTO> page = algorithmService.searchPublicAlgorithms(keyword, pageNum, pageSize, withTotal);
         return ResponseEntity.ok(page);
     }
 
@@ -158,14 +162,16 @@ public class AlgorithmController {
      * 获取所有公开算法列表 (分页)
      * @param pageNum 页码
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数 (默认 true)；false 时只返回 hasNext
      * @return 分页结果
      */
     @GetMapping("/public")
      @PreAuthorize("isAuthenticated()") // Or permitAll()?
     public ResponseEntity<PageDTO<AlgorithmDTO>> listPublicAlgorithms(
             @RequestParam(defaultValue = "1") int pageNum,
-            @RequestParam(defaultValue = "10") int pageSize) {
-        PageDTO<AlgorithmDTO> page = algorithmService.listPublicAlgorithms(pageNum, pageSize);
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "true") boolean withTotal) {
+        PageDTO<AlgorithmDTO> page = algorithmService.listPublicAlgorithms(pageNum, pageSize, withTotal);
         return ResponseEntity.ok(page);
     }
 } 
\ No newline at end of file
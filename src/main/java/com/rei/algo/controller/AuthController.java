@@ -1,18 +1,25 @@
 package com.rei.algo.controller;
 
+import com.rei.algo.DTO.auth.AvailabilityResponseDTO;
 import com.rei.algo.DTO.auth.LoginRequestDTO;
 import com.rei.algo.DTO.auth.LoginResponseDTO;
+import com.rei.algo.DTO.auth.RefreshTokenRequestDTO;
 import com.rei.algo.DTO.user.UserDTO;
 import com.rei.algo.DTO.auth.RegisterRequestDTO;
+import com.rei.algo.cache.UserAvailabilityFilter;
+import com.rei.algo.model.entity.User;
 import com.rei.algo.security.JwtTokenProvider;
+import com.rei.algo.service.AuthTokenService;
 import com.rei.algo.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -20,6 +27,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -34,6 +42,8 @@ public class AuthController {
     private final UserService userService;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final AuthTokenService authTokenService;
+    private final UserAvailabilityFilter userAvailabilityFilter;
 
     /**
      * 用户注册接口。
@@ -65,12 +75,35 @@ public class AuthController {
     }
 
 
+    /**
+     * 用户名 / 邮箱可用性检查接口 (注册表单实时校验)。
+     * 由内存布隆过滤器回答，只有可能已被占用时才查询数据库。
+     *
+     * @param username 要检查的用户名 (可选)
+     * @param email 要检查的邮箱 (可选)
+     * @return 200 OK 和各字段是否可用；两个参数都为空时返回 400 Bad Request。
+     */
+    @Operation(summary = "检查用户名/邮箱是否可用", description = "注册前检查用户名或邮箱是否已被占用")
+    @ApiResponse(responseCode = "200", description = "检查完成", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AvailabilityResponseDTO.class)))
+    @ApiResponse(responseCode = "400", description = "未提供用户名或邮箱")
+    @GetMapping("/available")
+    public ResponseEntity<AvailabilityResponseDTO> checkAvailability(
+            @Parameter(description = "要检查的用户名") @RequestParam(required = false) String username,
+            @Parameter(description = "要检查的邮箱") @RequestParam(required = false) String email) {
+        if (!StringUtils.hasText(username) && !StringUtils.hasText(email)) {
+            throw new IllegalArgumentException("请提供要检查的用户名或邮箱");
+        }
+        return ResponseEntity.ok(new AvailabilityResponseDTO(
+                StringUtils.hasText(username) ? userAvailabilityFilter.isUsernameAvailable(username) : null,
+                StringUtils.hasText(email) ? userAvailabilityFilter.isEmailAvailable(email) : null));
+    }
+
     /**
      * 用户登录接口。
-     * 使用用户名和密码进行认证，成功后返回 JWT 访问令牌。
+     * 使用用户名和密码进行认证，成功后返回短期有效的 JWT 访问令牌和刷新令牌。
      *
      * @param loginRequest 包含用户名和密码的 LoginRequestDTO 对象。
-     * @return 登录成功时返回 200 OK 和包含 accessToken 的 LoginResponseDTO。
+     * @return 登录成功时返回 200 OK 和包含 accessToken / refreshToken 的 LoginResponseDTO。
      *         如果认证失败（用户名或密码错误），返回 401 Unauthorized。
      */
     @Operation(summary = "用户登录", description = "使用用户名和密码获取 JWT 访问令牌")
@@ -89,6 +122,9 @@ public class AuthController {
             );
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = tokenProvider.generateToken(authentication);
+            String refreshToken = authentication.getPrincipal() instanceof User user
+                    ? authTokenService.issueRefreshToken(user.getUserId())
+                    : null;
 
             // Log successful login - consider logging user ID if easily available in 'authentication' principal
             String username = loginRequest.getUsername();
@@ -97,7 +133,7 @@ public class AuthController {
             }
             log.info("User '{}' authenticated successfully.", username);
 
-            return ResponseEntity.ok(new LoginResponseDTO(jwt));
+            return ResponseEntity.ok(new LoginResponseDTO(jwt, refreshToken, tokenProvider.getAccessTokenTtlMs() / 1000));
         } catch (AuthenticationException e) {
             log.warn("Authentication failed for user {}: {}", loginRequest.getUsername(), e.getMessage());
             throw e;
@@ -107,6 +143,36 @@ public class AuthController {
         }
     }
 
-    // Optional: /logout endpoint (if using stateful tokens or server-side session management)
-    // Optional: /refresh token endpoint (if using refresh tokens)
+    /**
+     * 刷新令牌接口。
+     * 使用刷新令牌换取新的访问令牌，同时轮换刷新令牌 (旧令牌随即作废)。
+     *
+     * @param request 包含刷新令牌的 RefreshTokenRequestDTO 对象。
+     * @return 成功时返回 200 OK 和新的令牌对；令牌无效、过期或已被使用时返回 401 Unauthorized。
+     */
+    @Operation(summary = "刷新令牌", description = "使用刷新令牌换取新的访问令牌和刷新令牌")
+    @ApiResponse(responseCode = "200", description = "刷新成功", content = @Content(mediaType = "application/json", schema = @Schema(implementation = LoginResponseDTO.class)))
+    @ApiResponse(responseCode = "401", description = "刷新令牌无效、过期或已被使用")
+    @PostMapping("/refresh")
+    public ResponseEntity<LoginResponseDTO> refreshToken(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        return ResponseEntity.ok(authTokenService.refresh(request.getRefreshToken()));
+    }
+
+    /**
+     * 登出接口。
+     * 吊销请求头中的访问令牌；如果请求体中带有刷新令牌，同时作废其所在的轮换链。
+     *
+     * @param authorization Authorization 请求头 (Bearer 令牌，可选)
+     * @param request 包含刷新令牌的请求体 (可选)
+     * @return 204 No Content
+     */
+    @Operation(summary = "用户登出", description = "吊销当前访问令牌和刷新令牌")
+    @ApiResponse(responseCode = "204", description = "登出成功")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequestDTO request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authTokenService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
 } 
\ No newline at end of file
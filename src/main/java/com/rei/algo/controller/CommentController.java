@@ -132,6 +132,7 @@ public class CommentController {
      * @param postId 帖子 ID。
      * @param pageNum 页码 (从1开始)。
      * @param pageSize 每页数量。
+     * @param withTotal 是否计算总数 (默认 true)；false 时只返回 hasNext。
      * @return 成功时返回 200 OK 和分页的评论 DTO 列表。
      */
     @Operation(summary = "获取帖子的评论列表", description = "获取指定帖子下的顶级评论列表（分页），包含部分回复预览。")
@@ -141,8 +142,9 @@ public class CommentController {
     public ResponseEntity<PageDTO<CommentDTO>> getCommentsByPostId(
             @Parameter(description = "要查询评论的帖子ID") @PathVariable String postId,
             @Parameter(description = "页码 (从1开始)") @RequestParam(defaultValue = "1") int pageNum,
-            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize) {
-        PageDTO<CommentDTO> page = commentService.getCommentsByPostId(postId, pageNum, pageSize);
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "是否计算总数；false 时不执行 COUNT，只返回 hasNext") @RequestParam(defaultValue = "true") boolean withTotal) {
+        PageDTO<CommentDTO> page = commentService.getCommentsByPostId(postId, pageNum, pageSize, withTotal);
         return ResponseEntity.ok(page);
     }
 
@@ -173,6 +175,7 @@ public class CommentController {
      * @param userId 用户 ID。
      * @param pageNum 页码 (从1开始)。
      * @param pageSize 每页数量。
+     * @param withTotal 是否计算总数 (默认 true)；false 时只返回 hasNext。
      * @return 成功时返回 200 OK 和分页的评论 DTO 列表。
      */
     @Operation(summary = "获取用户的评论列表", description = "获取指定用户发表的所有评论（分页）。可能需要用户认证。",
@@ -184,8 +187,9 @@ public class CommentController {
     public ResponseEntity<PageDTO<CommentDTO>> getCommentsByUserId(
             @Parameter(description = "要查询的用户ID") @PathVariable String userId,
             @Parameter(description = "页码 (从1开始)") @RequestParam(defaultValue = "1") int pageNum,
-            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize) {
-        PageDTO<CommentDTO> page = commentService.getCommentsByUserId(userId, pageNum, pageSize);
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "是否计算总数；false 时不执行 COUNT，只返回 hasNext") @RequestParam(defaultValue = "true") boolean withTotal) {
+        PageDTO<CommentDTO> page = commentService.getCommentsByUserId(userId, pageNum, pageSize, withTotal);
         return ResponseEntity.ok(page);
     }
 } 
\ No newline at end of file
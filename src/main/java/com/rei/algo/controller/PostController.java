@@ -1,5 +1,6 @@
 package com.rei.algo.controller;
 
+import com.rei.algo.DTO.CursorPageDTO;
 import com.rei.algo.DTO.post.PostCreateRequestDTO;
 import com.rei.algo.DTO.post.PostSummaryDTO;
 import com.rei.algo.DTO.post.PostUpdateRequestDTO;
@@ -8,6 +9,7 @@ import com.rei.algo.DTO.post.PostDTO;
 import com.rei.algo.security.SecurityUtils;
 import com.rei.algo.service.PostService;
 import com.rei.algo.model.enums.EvaluationType;
+import com.rei.algo.model.enums.TagMatchMode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -24,6 +26,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+
 @Tag(name = "Posts", description = "社区帖子相关 API")
 @RestController
 @RequestMapping("/api/posts")
@@ -143,6 +147,7 @@ public class PostController {
      * @param userId 用户 ID。
      * @param pageNum 页码 (从1开始)。
      * @param pageSize 每页数量。
+     * @param withTotal 是否计算总数 (默认 true)；false 时只返回 hasNext。
      * @return 成功时返回 200 OK 和分页的帖子 DTO 列表。
      */
     @Operation(summary = "获取用户的帖子列表", description = "获取指定用户发布的所有帖子（分页）。")
@@ -152,8 +157,9 @@ public class PostController {
     public ResponseEntity<PageDTO<PostSummaryDTO>> getPostsByUserId(
             @Parameter(description = "要查询的用户ID") @PathVariable String userId,
             @Parameter(description = "页码 (从1开始)") @RequestParam(defaultValue = "1") int pageNum,
-            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize) {
-        PageDTO<PostSummaryDTO> page = postService.getPostsByUserId(userId, pageNum, pageSize);
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "是否计算总数；false 时不执行 COUNT，只返回 hasNext") @RequestParam(defaultValue = "true") boolean withTotal) {
+        PageDTO<PostSummaryDTO> page = postService.getPostsByUserId(userId, pageNum, pageSize, withTotal);
         return ResponseEntity.ok(page);
     }
 
@@ -164,6 +170,7 @@ public class PostController {
      * @param keyword 搜索关键字 (标题或内容)。
      * @param pageNum 页码 (从1开始)。
      * @param pageSize 每页数量。
+     * @param withTotal 是否计算总数 (默认 true)；false 时只返回 hasNext。
      * @return 成功时返回 200 OK 和分页的帖子 DTO 列表。
      */
     @Operation(summary = "搜索帖子", description = "根据关键字搜索帖子标题或内容。")
@@ -173,8 +180,9 @@ public class PostController {
     public ResponseEntity<PageDTO<PostSummaryDTO>> searchPosts(
             @Parameter(description = "搜索关键字") @RequestParam(required = false) String keyword,
             @Parameter(description = "页码 (从1开始)") @RequestParam(defaultValue = "1") int pageNum,
-            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize) {
-        PageDTO<PostSummaryDTO> page = postService.searchPosts(keyword, pageNum, pageSize);
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "是否计算总数；false 时不执行 COUNT，只返回 hasNext") @RequestParam(defaultValue = "true") boolean withTotal) {
+        PageDTO<PostSummaryDTO> page = postService.searchPosts(keyword, pageNum, pageSize, withTotal);
         return ResponseEntity.ok(page);
     }
 
@@ -184,6 +192,7 @@ public class PostController {
      *
      * @param pageNum 页码 (从1开始)。
      * @param pageSize 每页数量。
+     * @param withTotal 是否计算总数 (默认 true)；false 时只返回 hasNext。
      * @return 成功时返回 200 OK 和分页的帖子 DTO 列表。
      */
     @Operation(summary = "获取帖子列表", description = "获取所有帖子的列表（分页）。")
@@ -192,8 +201,9 @@ public class PostController {
     @PreAuthorize("permitAll()")
     public ResponseEntity<PageDTO<PostSummaryDTO>> listAllPosts(
             @Parameter(description = "页码 (从1开始)") @RequestParam(defaultValue = "1") int pageNum,
-            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize) {
-        PageDTO<PostSummaryDTO> page = postService.listAllPosts(pageNum, pageSize);
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize,
+            @Parameter(description = "是否计算总数；false 时不执行 COUNT，只返回 hasNext") @RequestParam(defaultValue = "true") boolean withTotal) {
+        PageDTO<PostSummaryDTO> page = postService.listAllPosts(pageNum, pageSize, withTotal);
         return ResponseEntity.ok(page);
     }
 
@@ -271,8 +281,50 @@ public class PostController {
     // Simple record to hold evaluation type from request body
     private record EvaluationRequest(EvaluationType evaluationType) {}
 
-    // TODO: Add endpoint for getting posts by tag?
-    // @GetMapping("/tag/{tagId}")
-    // @PreAuthorize("permitAll()")
-    // public ResponseEntity<PageDTO<PostDTO>> getPostsByTag(...)
+    /**
+     * 获取指定标签下的帖子列表（游标分页，按创建时间倒序）。
+     * 允许匿名访问。
+     *
+     * @param tagId 标签 ID。
+     * @param cursor 上一页返回的 nextCursor，第一页不传。
+     * @param pageSize 每页数量。
+     * @return 成功时返回 200 OK 和游标分页的帖子梗概列表。
+     *         游标格式错误返回 400 Bad Request。
+     */
+    @Operation(summary = "按标签获取帖子列表", description = "获取带有指定标签的帖子（游标分页，按创建时间倒序）。")
+    @ApiResponse(responseCode = "200", description = "成功获取列表")
+    @ApiResponse(responseCode = "400", description = "游标无效")
+    @GetMapping("/tag/{tagId}")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<CursorPageDTO<PostSummaryDTO>> getPostsByTag(
+            @Parameter(description = "标签ID") @PathVariable String tagId,
+            @Parameter(description = "上一页返回的游标，第一页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize) {
+        CursorPageDTO<PostSummaryDTO> page = postService.getPostsByTags(List.of(tagId), TagMatchMode.AND, cursor, pageSize);
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * 按多个标签过滤帖子列表（游标分页，按创建时间倒序）。
+     * 允许匿名访问。
+     *
+     * @param tagIds 标签 ID 列表 (例如 ?tagIds=a&tagIds=b)。
+     * @param match 匹配方式：AND 需包含全部标签，OR 包含任一标签即可。
+     * @param cursor 上一页返回的 nextCursor，第一页不传。
+     * @param pageSize 每页数量。
+     * @return 成功时返回 200 OK 和游标分页的帖子梗概列表。
+     */
+    @Operation(summary = "按多个标签过滤帖子", description = "按多个标签过滤帖子，支持 AND / OR 匹配（游标分页，按创建时间倒序）。")
+    @ApiResponse(responseCode = "200", description = "成功获取列表")
+    @ApiResponse(responseCode = "400", description = "未指定标签或游标无效")
+    @GetMapping("/tags")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<CursorPageDTO<PostSummaryDTO>> getPostsByTags(
+            @Parameter(description = "标签ID列表") @RequestParam List<String> tagIds,
+            @Parameter(description = "匹配方式 (AND 或 OR)") @RequestParam(defaultValue = "AND") TagMatchMode match,
+            @Parameter(description = "上一页返回的游标，第一页不传") @RequestParam(required = false) String cursor,
+            @Parameter(description = "每页数量") @RequestParam(defaultValue = "10") int pageSize) {
+        CursorPageDTO<PostSummaryDTO> page = postService.getPostsByTags(tagIds, match, cursor, pageSize);
+        return ResponseEntity.ok(page);
+    }
 } 
\ No newline at end of file
@@ -1,11 +1,18 @@
 package com.rei.algo.controller;
 
+import com.rei.algo.DTO.tag.SerializedTagListDTO;
+import com.rei.algo.DTO.tag.TagStatDTO;
 import com.rei.algo.model.entity.Tag;
 import com.rei.algo.service.TagService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -23,16 +30,23 @@ public class TagController {
     /**
      * 获取所有标签列表。
      * 允许匿名访问。
+     * 直接写出内存标签字典中预序列化的 JSON，并带上 ETag；客户端携带 If-None-Match 命中时返回 304。
      *
-     * @return 包含所有标签的 Tag 列表。
+     * @return 包含所有标签的 Tag 列表 (JSON)。
      */
-    @Operation(summary = "获取所有标签", description = "获取系统内所有已使用的标签列表。")
-    @ApiResponse(responseCode = "200", description = "成功获取标签列表")
+    @Operation(summary = "获取所有标签", description = "获取系统内所有已使用的标签列表。支持 ETag / If-None-Match 条件请求。")
+    @ApiResponse(responseCode = "200", description = "成功获取标签列表",
+                 content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = Tag.class))))
+    @ApiResponse(responseCode = "304", description = "标签列表未变化")
     @GetMapping
     @PreAuthorize("permitAll()")
-    public ResponseEntity<List<com.rei.algo.model.entity.Tag>> getAllTags() {
-        List<Tag> tags = tagService.getAllTags();
-        return ResponseEntity.ok(tags);
+    public ResponseEntity<byte[]> getAllTags() {
+        SerializedTagListDTO tags = tagService.getAllTagsSerialized();
+        // HttpEntityMethodProcessor compares the ETag with If-None-Match and answers 304 itself
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(tags.getEtag())
+                .body(tags.getBody());
     }
 
     /**
@@ -53,22 +67,78 @@ public class TagController {
         return ResponseEntity.ok(tags);
     }
 
-    // --- Admin Endpoints (Optional, uncomment and implement if needed) ---
-    /*
-    @Operation(summary = "创建标签（管理员）", description = "直接创建一个新标签，仅限管理员。",
-               security = @SecurityRequirement(name = "bearerAuth"))
-    @ApiResponse(responseCode = "201", description = "标签创建成功", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Tag.class)))
-    @ApiResponse(responseCode = "400", description = "请求无效（例如名称为空或已存在）")
-    @ApiResponse(responseCode = "401", description = "未认证")
-    @ApiResponse(responseCode = "403", description = "无权限")
-    @PostMapping
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Tag> createTag(@Valid @RequestBody Tag Tag) {
-        Tag createdTag = tagService.createTag(Tag);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdTag);
+    /**
+     * 获取每个标签的帖子数。
+     * 允许匿名访问。数据来自内存计数器，不会触发 GROUP BY 查询。
+     *
+     * @return 按帖子数降序的标签统计列表。
+     */
+    @Operation(summary = "获取标签帖子数", description = "获取每个标签下的帖子数量，按数量降序。")
+    @ApiResponse(responseCode = "200", description = "成功获取统计")
+    @GetMapping("/counts")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<List<TagStatDTO>> getTagPostCounts() {
+        return ResponseEntity.ok(tagService.getTagPostCounts());
     }
 
-    @Operation(summary = "删除标签（管理员）", description = "删除指定 ID 的标签，仅限管理员。注意：需要处理标签与帖子的关联。",
+    /**
+     * 获取热门标签。
+     * 允许匿名访问。热度按时间衰减，最近被频繁使用的标签排在前面。
+     *
+     * @param limit 返回数量 (默认 10，最大 100)。
+     * @return 热门标签列表。
+     */
+    @Operation(summary = "获取热门标签", description = "获取按时间衰减热度排序的热门标签。")
+    @ApiResponse(responseCode = "200", description = "成功获取热门标签")
+    @ApiResponse(responseCode = "400", description = "limit 参数无效")
+    @GetMapping("/trending")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<List<TagStatDTO>> getTrendingTags(
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tagService.getTrendingTags(limit));
+    }
+
+    /**
+     * 标签输入联想。
+     * 允许匿名访问。由内存前缀树提供，不访问数据库。
+     *
+     * @param prefix 已输入的前缀。
+     * @param limit  返回数量 (默认 10，最大 20)。
+     * @return 匹配的标签列表，热门标签在前。
+     */
+    @Operation(summary = "标签自动补全", description = "根据前缀返回匹配的标签，按使用次数排序。支持单词开头匹配。")
+    @ApiResponse(responseCode = "200", description = "成功获取建议")
+    @ApiResponse(responseCode = "400", description = "参数无效")
+    @GetMapping("/suggest")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<List<TagStatDTO>> suggestTags(
+            @Parameter(description = "输入的前缀") @RequestParam String prefix,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tagService.suggestTags(prefix, limit));
+    }
+
+    /**
+     * 获取相关标签。
+     * 允许匿名访问。返回与指定标签在同一帖子中出现次数最多的标签。
+     *
+     * @param tagId 标签 ID。
+     * @param limit 返回数量 (默认 10，最大 50)。
+     * @return 相关标签列表，postCount 为共同出现的帖子数。
+     */
+    @Operation(summary = "获取相关标签", description = "返回与指定标签最常一起使用的标签，按共同出现的帖子数降序。")
+    @ApiResponse(responseCode = "200", description = "成功获取相关标签")
+    @ApiResponse(responseCode = "404", description = "标签未找到")
+    @GetMapping("/{tagId}/related")
+    @PreAuthorize("permitAll()")
+    public ResponseEntity<List<TagStatDTO>> getRelatedTags(
+            @Parameter(description = "标签ID") @PathVariable String tagId,
+            @Parameter(description = "返回数量") @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(tagService.getRelatedTags(tagId, limit));
+    }
+
+    // --- Admin Endpoints --- //
+
+    @Operation(summary = "删除标签（管理员）", description = "删除指定 ID 的标签，仅限管理员。与帖子的关联由数据库级联删除。",
                security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponse(responseCode = "204", description = "删除成功")
     @ApiResponse(responseCode = "401", description = "未认证")
@@ -77,7 +147,7 @@ public class TagController {
     @DeleteMapping("/{tagId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteTag(@Parameter(description = "要删除的标签ID") @PathVariable String tagId) {
-         return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build();
+        tagService.deleteTag(tagId);
+        return ResponseEntity.noContent().build();
     }
-    */
 }
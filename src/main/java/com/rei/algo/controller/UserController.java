@@ -2,6 +2,8 @@ package com.rei.algo.controller;
 
 import com.rei.algo.DTO.PageDTO;
 import com.rei.algo.DTO.user.UserDTO;
+import com.rei.algo.DTO.user.UserImportRequestDTO;
+import com.rei.algo.DTO.user.UserImportResultDTO;
 import com.rei.algo.DTO.user.UserProfileUpdateDTO;
 import com.rei.algo.security.SecurityUtils;
 import com.rei.algo.service.UserService;
@@ -150,6 +152,23 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.NOT_IMPLEMENTED).build(); // Placeholder
     }
 
+    /**
+     * 批量导入用户（仅限管理员）。
+     * 用户名或邮箱已存在的用户会被跳过，并在结果中列出。
+     */
+    @Operation(summary = "批量导入用户", description = "批量创建用户（单次最多 10000 个），仅限管理员操作。",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponse(responseCode = "200", description = "导入完成", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserImportResultDTO.class)))
+    @ApiResponse(responseCode = "400", description = "请求无效")
+    @ApiResponse(responseCode = "401", description = "未认证")
+    @ApiResponse(responseCode = "403", description = "无权限操作")
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UserImportResultDTO> importUsers(@Valid @RequestBody UserImportRequestDTO importRequest) {
+        log.info("Admin request to import {} user(s)", importRequest.getUsers().size());
+        return ResponseEntity.ok(userService.importUsers(importRequest.getUsers()));
+    }
+
     /**
      * 删除指定用户（仅限管理员）。
      */
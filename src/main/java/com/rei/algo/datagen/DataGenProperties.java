@@ -0,0 +1,56 @@
+package com.rei.algo.datagen;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 合成数据生成 (datagen.*)，见 {@link DataGenerator}。
+ * <p>
+ * 各实体的数量是总量，按帖子热度 (Zipf 分布) 分配到每个帖子上：热度排名第 k 的帖子分到的评论、评价和阅读量与 1/k^s 成正比。
+ */
+@Data
+@ConfigurationProperties(prefix = "datagen")
+public class DataGenProperties {
+
+    private int users = 100_000;
+
+    private int tags = 500;
+
+    private int posts = 1_000_000;
+
+    /** 评论总数 */
+    private long comments = 5_000_000;
+
+    /** 点赞/点踩总数；单个帖子的评价数不超过用户数 */
+    private long evaluations = 10_000_000;
+
+    /** 每个帖子的平均阅读量 */
+    private long viewsPerPost = 200;
+
+    /** 每个帖子的标签数上限，标签本身也按 Zipf 分布被选中 */
+    private int tagsPerPost = 3;
+
+    /** 帖子热度的 Zipf 指数 s，越大越集中在头部帖子 */
+    private double popularityExponent = 1.0;
+
+    /** 标签使用频率的 Zipf 指数 */
+    private double tagExponent = 1.1;
+
+    /** 一条评论是回复 (而不是顶层评论) 的概率；回复按优先连接选择父评论，回复数呈幂律分布 */
+    private double replyProbability = 0.6;
+
+    /** 点赞占评价的比例 */
+    private double likeRatio = 0.8;
+
+    /** 帖子创建时间分布在最近多少天内 */
+    private int days = 365;
+
+    /** 每条多行 INSERT 包含的行数 */
+    private int rowsPerStatement = 1000;
+
+    /** 第一个用户的 ID (8 位)，避开已有用户 */
+    private int firstUserId = 20_000_000;
+
+    /** 随机种子，相同配置和种子生成相同的数据 (时间相对于生成时刻) */
+    private long seed = 42;
+}
@@ -0,0 +1,45 @@
+package com.rei.algo.datagen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * datagen profile 下启动时生成合成数据，完成后退出 (退出码 0 表示成功)。
+ * <p>
+ * 表结构需要在启动时已经存在 (启动时的缓存会查询这些表)。MySQL (先执行 init.sql)：
+ * <pre>
+ *   java -jar rei_algo.jar --spring.profiles.active=datagen --datagen.posts=5000000 --datagen.comments=20000000
+ * </pre>
+ * H2 (h2 和 sql/init-h2.sql 只在 benchmark profile 的测试类路径上)：
+ * <pre>
+ *   mvn -Pbenchmark spring-boot:run -Dspring-boot.run.useTestClasspath=true -Dspring-boot.run.profiles=datagen \
+ *     -Dspring-boot.run.arguments="--spring.datasource.url=jdbc:h2:file:./target/reialgo;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE --spring.datasource.username=sa --spring.datasource.password= --spring.sql.init.mode=always --spring.sql.init.schema-locations=classpath:sql/init-h2.sql"
+ * </pre>
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DataGenProperties.class)
+@RequiredArgsConstructor
+public class DataGenRunner implements ApplicationRunner {
+
+    private final DataSource dataSource;
+    private final DataGenProperties properties;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("Generating synthetic data: {}", properties);
+        new DataGenerator(dataSource, properties).generate();
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
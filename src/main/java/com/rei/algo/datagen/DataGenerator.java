@@ -0,0 +1,313 @@
+package com.rei.algo.datagen;
+
+import com.rei.algo.util.FeistelPermutation;
+import com.rei.algo.util.SortableIdGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在已建好 init.sql 表结构的库中生成大规模合成数据：用户、标签、帖子 (含标签关联和标签时间索引)、评论和点赞/点踩。
+ * <p>
+ * 分布：
+ * <ul>
+ *     <li>帖子热度服从 Zipf 分布，热度排名由帖子序号经 {@link FeistelPermutation} 打散 (热门帖子不集中在某个时间段)，
+ *     评论数、评价数和阅读量按热度分配；</li>
+ *     <li>评论树按优先连接生长：每条评论以 replyProbability 的概率回复已有评论，被回复越多的评论越容易再被回复，
+ *     回复数呈幂律分布并形成很深的回复链；</li>
+ *     <li>标签使用频率同样服从 Zipf 分布。</li>
+ * </ul>
+ * 行按外键顺序流式生成，每 rowsPerStatement 行用一条多行 INSERT 写入 (见 {@link MultiRowInsert})，
+ * 每写完 rowsPerStatement 个帖子 (及其评论和评价) 提交一次，内存占用与数据量无关 (最热门帖子的评论树除外，每条评论 8 字节)。
+ * <p>
+ * ID：用户 ID 从 firstUserId 起连续分配；其他 ID 与 {@link SortableIdGenerator} 格式相同，
+ * 时间取行的创建时间，低 32 bit 取该表内的行序号，因此不会相互冲突，主键基本按插入顺序递增。
+ * 密码统一为 seed.sql 中普通用户的哈希 (明文 password123)。
+ */
+@Slf4j
+public class DataGenerator {
+
+    private static final String PASSWORD_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+    private static final Duration COMMENT_WINDOW = Duration.ofDays(7);
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final String[] WORDS = {
+            "array", "binary", "search", "tree", "graph", "heap", "sort", "merge", "quick", "dynamic", "programming",
+            "greedy", "hash", "table", "queue", "stack", "linked", "list", "trie", "segment", "union", "find",
+            "shortest", "path", "dijkstra", "bellman", "ford", "topological", "order", "bit", "manipulation",
+            "sliding", "window", "two", "pointers", "backtracking", "recursion", "memoization", "interval", "matrix",
+            "string", "palindrome", "substring", "prefix", "sum", "monotonic", "complexity", "java", "spring", "mybatis"
+    };
+
+    private final DataSource dataSource;
+    private final DataGenProperties properties;
+    private final SplittableRandom random;
+    private final Instant end;
+    private final Instant start;
+    private final long spanMillis;
+
+    // Attachment pool of the comment tree being generated: each comment appears once plus once per reply
+    private int[] pool = new int[1024];
+    private long lastProgress;
+
+    public DataGenerator(DataSource dataSource, DataGenProperties properties) {
+        Assert.isTrue(properties.getUsers() > 0 && properties.getTags() > 0 && properties.getPosts() > 0,
+                "users, tags and posts must be positive");
+        Assert.isTrue(properties.getComments() >= 0 && properties.getEvaluations() >= 0, "comments and evaluations must not be negative");
+        Assert.isTrue(properties.getFirstUserId() >= 10_000_000 && (long) properties.getFirstUserId() + properties.getUsers() <= 100_000_000L,
+                "user IDs must stay within 8 digits");
+        Assert.isTrue(properties.getComments() <= 0xFFFFFFFFL, "comments must fit in the 32-bit ID suffix");
+        Assert.isTrue(properties.getRowsPerStatement() > 0, "rowsPerStatement must be positive");
+        Assert.isTrue(properties.getDays() > 0, "days must be positive");
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.random = new SplittableRandom(properties.getSeed());
+        this.end = Instant.now();
+        this.start = end.minus(Duration.ofDays(properties.getDays()));
+        this.spanMillis = end.toEpochMilli() - start.toEpochMilli();
+    }
+
+    /**
+     * 生成全部数据
+     * @return 每张表写入的行数
+     */
+    public Map<String, Long> generate() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                return generate(connection);
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private Map<String, Long> generate(Connection connection) throws SQLException {
+        int batch = properties.getRowsPerStatement();
+        long begin = System.nanoTime();
+        lastProgress = begin;
+        try (MultiRowInsert users = new MultiRowInsert(connection, batch, "`user`",
+                "user_id", "username", "password", "email", "role", "created_at");
+             MultiRowInsert tags = new MultiRowInsert(connection, batch, "tag", "tag_id", "name");
+             MultiRowInsert posts = new MultiRowInsert(connection, batch, "post",
+                     "post_id", "user_id", "title", "content", "views", "created_at", "updated_at");
+             MultiRowInsert postTags = new MultiRowInsert(connection, batch, "post_tag", "post_id", "tag_id");
+             MultiRowInsert tagIndex = new MultiRowInsert(connection, batch, "post_tag_index", "tag_id", "post_created_at", "post_id");
+             MultiRowInsert comments = new MultiRowInsert(connection, batch, "comment",
+                     "comment_id", "post_id", "user_id", "parent_comment_id", "content", "created_at");
+             MultiRowInsert evaluations = new MultiRowInsert(connection, batch, "post_evaluation",
+                     "post_id", "user_id", "evaluation_type", "created_at")) {
+            List<MultiRowInsert> all = List.of(users, tags, posts, postTags, tagIndex, comments, evaluations);
+
+            for (int i = 0; i < properties.getUsers(); i++) {
+                Instant createdAt = timeOf(i, properties.getUsers());
+                users.add(userId(i), "gen_user_" + i, PASSWORD_HASH, "gen_user_" + i + "@example.com", "USER", Timestamp.from(createdAt));
+            }
+            users.flush();
+            String[] tagIds = new String[properties.getTags()];
+            for (int i = 0; i < tagIds.length; i++) {
+                tagIds[i] = SortableIdGenerator.of(start, i);
+                tags.add(tagIds[i], "gen-tag-" + i);
+            }
+            tags.flush();
+            connection.commit();
+
+            generatePosts(connection, tagIds, posts, postTags, tagIndex, comments, evaluations, all, begin);
+            for (MultiRowInsert insert : all) {
+                insert.flush();
+            }
+            connection.commit();
+
+            Map<String, Long> rows = new LinkedHashMap<>();
+            for (MultiRowInsert insert : all) {
+                rows.put(insert.table(), insert.insertedRows());
+            }
+            long total = rows.values().stream().mapToLong(Long::longValue).sum();
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            log.info("Generated {} rows in {} s ({} rows/s): {}", total, String.format("%.1f", seconds),
+                    Math.round(total / Math.max(seconds, 1e-3)), rows);
+            return rows;
+        }
+    }
+
+    private void generatePosts(Connection connection, String[] tagIds, MultiRowInsert posts, MultiRowInsert postTags,
+                               MultiRowInsert tagIndex, MultiRowInsert comments, MultiRowInsert evaluations,
+                               List<MultiRowInsert> all, long begin) throws SQLException {
+        int postCount = properties.getPosts();
+        int chunk = properties.getRowsPerStatement();
+        ZipfDistribution popularity = new ZipfDistribution(postCount, properties.getPopularityExponent());
+        ZipfDistribution tagPopularity = new ZipfDistribution(tagIds.length, properties.getTagExponent());
+        FeistelPermutation ranks = new FeistelPermutation(postCount, properties.getSeed());
+        // Stepping through users with a stride coprime to their count visits distinct users
+        int userStride = coprimeStride(properties.getUsers());
+        long commentIndex = 0;
+
+        for (int chunkStart = 0; chunkStart < postCount; chunkStart += chunk) {
+            int chunkEnd = Math.min(postCount, chunkStart + chunk);
+            // Posts of the chunk are written first so that every child row below references an inserted post
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                double share = popularity.probability((int) ranks.permute(i) + 1);
+                Timestamp createdAt = Timestamp.from(timeOf(i, postCount));
+                long views = amount(share * properties.getViewsPerPost() * postCount);
+                posts.add(postId(i), randomUserId(), sentence(4 + random.nextInt(6)), content(), (int) Math.min(views, Integer.MAX_VALUE),
+                        createdAt, createdAt);
+            }
+            posts.flush();
+
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                String postId = postId(i);
+                Instant createdAt = timeOf(i, postCount);
+                double share = popularity.probability((int) ranks.permute(i) + 1);
+
+                int[] chosenTags = new int[Math.min(properties.getTagsPerPost(), tagIds.length)];
+                int tagCount = 0;
+                for (int t = 0; t < chosenTags.length; t++) {
+                    int tag = tagPopularity.sample(random) - 1;
+                    if (!contains(chosenTags, tagCount, tag)) {
+                        chosenTags[tagCount++] = tag;
+                        postTags.add(postId, tagIds[tag]);
+                        tagIndex.add(tagIds[tag], Timestamp.from(createdAt), postId);
+                    }
+                }
+
+                int commentTotal = (int) Math.min(Integer.MAX_VALUE / 2, amount(share * properties.getComments()));
+                Assert.isTrue(commentIndex + commentTotal <= 0xFFFFFFFFL, "comments exceed the 32-bit ID suffix");
+                addCommentTree(comments, postId, createdAt, commentIndex, commentTotal);
+                commentIndex += commentTotal;
+
+                long evaluationTotal = Math.min(properties.getUsers(), amount(share * properties.getEvaluations()));
+                int firstUser = random.nextInt(properties.getUsers());
+                for (long e = 0; e < evaluationTotal; e++) {
+                    int user = (int) ((firstUser + e * userStride) % properties.getUsers());
+                    String type = random.nextDouble() < properties.getLikeRatio() ? "LIKE" : "DISLIKE";
+                    evaluations.add(postId, userId(user), type, Timestamp.from(followUpTime(createdAt, e, evaluationTotal)));
+                }
+            }
+            connection.commit();
+            logProgress(chunkEnd, postCount, all, begin);
+        }
+    }
+
+    // Preferential attachment: a reply picks its parent uniformly from the pool, i.e. with weight 1 + replies
+    private void addCommentTree(MultiRowInsert comments, String postId, Instant postCreatedAt, long firstIndex, int count)
+            throws SQLException {
+        int poolSize = 0;
+        for (int j = 0; j < count; j++) {
+            int parent = j > 0 && random.nextDouble() < properties.getReplyProbability() ? pool[random.nextInt(poolSize)] : -1;
+            if (poolSize + 2 > pool.length) {
+                pool = Arrays.copyOf(pool, pool.length * 2);
+            }
+            pool[poolSize++] = j;
+            if (parent >= 0) {
+                pool[poolSize++] = parent;
+            }
+            // Comment times grow with j, so a reply is always newer than its parent
+            Instant createdAt = followUpTime(postCreatedAt, j, count);
+            String parentId = parent >= 0 ? SortableIdGenerator.of(followUpTime(postCreatedAt, parent, count), firstIndex + parent) : null;
+            comments.add(SortableIdGenerator.of(createdAt, firstIndex + j), postId, randomUserId(), parentId,
+                    sentence(3 + random.nextInt(20)), Timestamp.from(createdAt));
+        }
+    }
+
+    private void logProgress(int donePosts, int totalPosts, List<MultiRowInsert> inserts, long begin) {
+        long now = System.nanoTime();
+        if (now - lastProgress < PROGRESS_INTERVAL_NANOS && donePosts < totalPosts) {
+            return;
+        }
+        lastProgress = now;
+        long rows = inserts.stream().mapToLong(MultiRowInsert::insertedRows).sum();
+        double seconds = (now - begin) / 1e9;
+        log.info("Posts {}/{}, {} rows so far ({} rows/s)", donePosts, totalPosts, rows, Math.round(rows / Math.max(seconds, 1e-3)));
+    }
+
+    private String postId(int index) {
+        return SortableIdGenerator.of(timeOf(index, properties.getPosts()), index);
+    }
+
+    private String userId(int index) {
+        return String.valueOf(properties.getFirstUserId() + index);
+    }
+
+    private String randomUserId() {
+        return userId(random.nextInt(properties.getUsers()));
+    }
+
+    // Spreads row i of n evenly over [start, end)
+    private Instant timeOf(long index, long count) {
+        return start.plusMillis(spanMillis * index / count);
+    }
+
+    // Spreads the j-th of n comments or evaluations over the week after the post (never in the future)
+    private Instant followUpTime(Instant postCreatedAt, long index, long count) {
+        long window = Math.min(COMMENT_WINDOW.toMillis(), end.toEpochMilli() - postCreatedAt.toEpochMilli());
+        return postCreatedAt.plusMillis(window * (index + 1) / (count + 1));
+    }
+
+    // Rounds an expected amount up or down at random so that the totals match in expectation
+    private long amount(double expected) {
+        long whole = (long) expected;
+        return whole + (random.nextDouble() < expected - whole ? 1 : 0);
+    }
+
+    private String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    // Slate JS Descendants[]: one to five paragraphs of text nodes
+    private String content() {
+        StringBuilder json = new StringBuilder("[");
+        int paragraphs = 1 + random.nextInt(5);
+        for (int p = 0; p < paragraphs; p++) {
+            if (p > 0) {
+                json.append(',');
+            }
+            json.append("{\"type\":\"paragraph\",\"children\":[{\"text\":\"").append(sentence(10 + random.nextInt(40))).append("\"}]}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int coprimeStride(int n) {
+        int stride = Math.max(1, (int) (n * 0.618));
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
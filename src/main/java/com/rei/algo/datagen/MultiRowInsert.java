@@ -0,0 +1,107 @@
+package com.rei.algo.datagen;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.StringJoiner;
+
+/**
+ * 多行 INSERT 缓冲：攒满 rowsPerStatement 行后用一条 {@code INSERT ... VALUES (...), (...), ...} 写入。
+ * <p>
+ * 整批语句只预编译一次并反复执行；{@link #flush()} 写出不足一批的剩余行时才临时预编译。
+ * 与 JDBC batch 相比不依赖驱动改写 (MySQL 的 rewriteBatchedStatements)，在 MySQL 和 H2 上都是一次往返写入一批。
+ * 非线程安全。
+ */
+public class MultiRowInsert implements AutoCloseable {
+
+    private final Connection connection;
+    private final String table;
+    private final String[] columns;
+    private final int rowsPerStatement;
+    private final Object[] buffer;
+    private PreparedStatement fullStatement;
+    private int bufferedRows;
+    private long insertedRows;
+
+    public MultiRowInsert(Connection connection, int rowsPerStatement, String table, String... columns) {
+        this.connection = connection;
+        this.table = table;
+        this.columns = columns;
+        this.rowsPerStatement = rowsPerStatement;
+        this.buffer = new Object[rowsPerStatement * columns.length];
+    }
+
+    /**
+     * 追加一行，值的顺序与构造时的列一致
+     */
+    public void add(Object... values) throws SQLException {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values for " + table + ", got " + values.length);
+        }
+        System.arraycopy(values, 0, buffer, bufferedRows * columns.length, columns.length);
+        if (++bufferedRows == rowsPerStatement) {
+            if (fullStatement == null) {
+                fullStatement = connection.prepareStatement(sql(rowsPerStatement));
+            }
+            execute(fullStatement);
+        }
+    }
+
+    /**
+     * 写出缓冲中剩余的行
+     */
+    public void flush() throws SQLException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql(bufferedRows))) {
+            execute(statement);
+        }
+    }
+
+    public long insertedRows() {
+        return insertedRows;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (fullStatement != null) {
+            fullStatement.close();
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private void execute(PreparedStatement statement) throws SQLException {
+        int values = bufferedRows * columns.length;
+        for (int i = 0; i < values; i++) {
+            statement.setObject(i + 1, buffer[i]);
+            buffer[i] = null;
+        }
+        statement.executeUpdate();
+        insertedRows += bufferedRows;
+        bufferedRows = 0;
+    }
+
+    private String sql(int rows) {
+        StringJoiner columnList = new StringJoiner(", ", " (", ")");
+        StringJoiner row = new StringJoiner(", ", "(", ")");
+        for (String column : columns) {
+            columnList.add(column);
+            row.add("?");
+        }
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(columnList).append(" VALUES ");
+        String placeholders = row.toString();
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(placeholders);
+        }
+        return sql.toString();
+    }
+}
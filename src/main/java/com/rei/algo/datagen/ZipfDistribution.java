@@ -0,0 +1,54 @@
+package com.rei.algo.datagen;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 排名 1..n 上的 Zipf 分布：P(k) = k^-s / H(n, s)。
+ * <p>
+ * {@link #probability(int)} 用于按排名分配总量 (不需要额外内存)；
+ * {@link #sample(SplittableRandom)} 按累积分布二分查找，首次调用时才建表 (n 个 double)，只适合 n 不大的情况。
+ */
+public class ZipfDistribution {
+
+    private final int n;
+    private final double exponent;
+    private final double harmonic;
+    private double[] cumulative;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be positive: " + n);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += Math.pow(k, -exponent);
+        }
+        this.harmonic = sum;
+    }
+
+    /**
+     * @param rank 排名 (1 - n)
+     */
+    public double probability(int rank) {
+        return Math.pow(rank, -exponent) / harmonic;
+    }
+
+    /**
+     * @return 按分布抽取的排名 (1 - n)
+     */
+    public int sample(SplittableRandom random) {
+        if (cumulative == null) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int k = 1; k <= n; k++) {
+                sum += probability(k);
+                cumulative[k - 1] = sum;
+            }
+        }
+        int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[n - 1]);
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
@@ -0,0 +1,158 @@
+package com.rei.algo.datasource;
+
+import com.rei.algo.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用公平信号量限制同时持有的数据库连接数的 DataSource 包装。
+ * <p>
+ * 请求运行在虚拟线程上时，同时访问数据库的请求可能有成千上万个，而连接池只有几个连接。
+ * 在进入连接池之前先按 FIFO 顺序排队：许可数与连接池大小一致，等待超过 acquireTimeout 时
+ * 直接抛出 {@link ServiceBusyException} (503)，而不是让大量线程在连接池内部等待 connection-timeout。
+ * 许可在连接 close() 时归还 (重复 close 只归还一次)。
+ * <p>
+ * 同一线程嵌套获取连接 (例如 REQUIRES_NEW) 会占用两个许可，与连接池本身的行为一致；许可被外层请求占满时嵌套连接
+ * 会等到超时，因此需要独立连接的操作 (例如 {@link com.rei.algo.service.impl.UserIdAllocator} 租用号段) 应在事务外执行。
+ */
+@Slf4j
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMs;
+
+    private final Timer waitTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param name             连接池名称 (指标标签 pool)
+     * @param target           被包装的 DataSource (通常是 HikariDataSource)
+     * @param maxConcurrency   同时持有连接的上限
+     * @param acquireTimeoutMs 等待许可的最长时间
+     * @param meterRegistry    指标注册表，可为 null
+     */
+    public ConcurrencyLimitedDataSource(String name, DataSource target, int maxConcurrency, long acquireTimeoutMs,
+                                        MeterRegistry meterRegistry) {
+        super(target);
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        if (meterRegistry != null) {
+            this.waitTimer = Timer.builder("db.gate.wait").tag("pool", name)
+                    .description("Time spent waiting for a database permit").register(meterRegistry);
+            this.rejectedCounter = Counter.builder("db.gate.rejected").tag("pool", name)
+                    .description("Requests rejected because no database permit became available in time").register(meterRegistry);
+            Gauge.builder("db.gate.active", this, ds -> ds.maxConcurrency - ds.permits.availablePermits()).tag("pool", name)
+                    .description("Connections currently held through the gate").register(meterRegistry);
+            Gauge.builder("db.gate.waiting", permits, Semaphore::getQueueLength).tag("pool", name)
+                    .description("Threads waiting for a database permit").register(meterRegistry);
+        } else {
+            this.waitTimer = null;
+            this.rejectedCounter = null;
+        }
+        log.info("Database concurrency gate enabled for '{}': {} permit(s), acquire timeout {} ms", name, maxConcurrency, acquireTimeoutMs);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return wrap(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return wrap(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private void acquire() throws SQLException {
+        long startedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database permit", e);
+        }
+        if (waitTimer != null) {
+            waitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            log.warn("No database permit within {} ms ({} thread(s) waiting), rejecting request",
+                    acquireTimeoutMs, permits.getQueueLength());
+            throw new ServiceBusyException("服务繁忙，请稍后重试", RETRY_AFTER_SECONDS);
+        }
+    }
+
+    private Connection wrap(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ReleasingHandler(target));
+    }
+
+    private final class ReleasingHandler implements InvocationHandler {
+        private final Connection target;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Gated[" + target + "]";
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            } finally {
+                if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
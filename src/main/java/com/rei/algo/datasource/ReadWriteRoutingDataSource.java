@@ -0,0 +1,126 @@
+package com.rei.algo.datasource;
+
+import com.rei.algo.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离的路由 DataSource：
+ * <ul>
+ *     <li>@Transactional(readOnly = true) 的事务轮询分配到健康的副本</li>
+ *     <li>其他事务 (以及事务外的访问) 使用主库</li>
+ *     <li>没有健康副本，或当前用户刚提交过写事务 ({@link ReadYourWritesTracker}) 时，只读事务也使用主库</li>
+ * </ul>
+ * 必须包在 {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} 里使用：
+ * 事务管理器在设置 readOnly 标记之前就会获取连接，延迟到第一条语句执行时再路由才能看到正确的标记。
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final Map<String, Boolean> replicaHealth = new ConcurrentHashMap<>();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    private volatile String[] healthyReplicas;
+
+    /**
+     * @param primary               主库
+     * @param replicas              副本 (名称 -> DataSource)，初始均视为健康
+     * @param readYourWritesTracker 读己之写跟踪器
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        replicas.keySet().forEach(name -> replicaHealth.put(name, true));
+        this.healthyReplicas = replicas.keySet().toArray(new String[0]);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                String writer = readYourWritesTracker.currentKey();
+                TransactionUtils.afterCommit(() -> readYourWritesTracker.recordWrite(writer));
+            }
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.isSticky()) {
+            return PRIMARY;
+        }
+        String[] candidates = healthyReplicas;
+        if (candidates.length == 0) {
+            return PRIMARY;
+        }
+        return candidates[Math.floorMod(roundRobin.getAndIncrement(), candidates.length)];
+    }
+
+    /**
+     * @return 副本 (名称 -> DataSource)，供健康检查使用
+     */
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * 更新副本的健康状态；不健康的副本不再分配只读事务
+     */
+    public synchronized void setReplicaHealthy(String name, boolean healthy) {
+        Boolean previous = replicaHealth.put(name, healthy);
+        if (previous != null && previous == healthy) {
+            return;
+        }
+        List<String> inRotation = new ArrayList<>();
+        replicaHealth.forEach((replica, isHealthy) -> {
+            if (isHealthy) {
+                inRotation.add(replica);
+            }
+        });
+        healthyReplicas = inRotation.toArray(new String[0]);
+        if (healthy) {
+            log.info("Replica '{}' is healthy again, {} replica(s) in rotation", name, healthyReplicas.length);
+        } else {
+            log.warn("Replica '{}' removed from rotation, {} replica(s) left", name, healthyReplicas.length);
+        }
+    }
+
+    public boolean isReplicaHealthy(String name) {
+        return Boolean.TRUE.equals(replicaHealth.get(name));
+    }
+
+    // Replica pools are not beans themselves, so close them here (the primary is closed as its own bean)
+    @Override
+    public void destroy() {
+        replicas.forEach((name, dataSource) -> {
+            try {
+                if (dataSource.isWrapperFor(Closeable.class)) {
+                    dataSource.unwrap(Closeable.class).close();
+                }
+            } catch (SQLException | IOException e) {
+                log.warn("Failed to close replica '{}': {}", name, e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,72 @@
+package com.rei.algo.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 读己之写 (read-your-writes)：用户提交写事务后的一小段时间内，他的只读事务也走主库，
+ * 避免刚写入的数据因副本延迟而"消失"。
+ * <p>
+ * 记录保存在本节点内存中，按写入时间过期；多节点部署时需要负载均衡按用户保持会话粘性，
+ * 否则其他节点上的读请求仍可能落到副本上 (最多滞后 max-lag-seconds)。
+ */
+public class ReadYourWritesTracker {
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    private final long windowMs;
+    private final Supplier<String> currentKey;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    /**
+     * @param windowMs   写入后保持走主库的时长
+     * @param currentKey 当前请求的用户标识 (未登录时返回 null，不做粘性)
+     */
+    public ReadYourWritesTracker(long windowMs, Supplier<String> currentKey) {
+        this.windowMs = windowMs;
+        this.currentKey = currentKey;
+    }
+
+    /**
+     * @return 当前用户标识，可为 null
+     */
+    public String currentKey() {
+        return currentKey.get();
+    }
+
+    public void recordWrite(String key) {
+        if (key == null || windowMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastWrites.put(key, now);
+        if (lastWrites.size() > SWEEP_THRESHOLD) {
+            long last = lastSweep.get();
+            if (now - last >= windowMs && lastSweep.compareAndSet(last, now)) {
+                lastWrites.values().removeIf(writtenAt -> now - writtenAt >= windowMs);
+            }
+        }
+    }
+
+    /**
+     * @return 当前用户是否在写入后的粘性窗口内
+     */
+    public boolean isSticky() {
+        String key = currentKey.get();
+        if (key == null) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(key);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - writtenAt >= windowMs) {
+            lastWrites.remove(key, writtenAt);
+            return false;
+        }
+        return true;
+    }
+}
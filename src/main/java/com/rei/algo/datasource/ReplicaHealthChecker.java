@@ -0,0 +1,97 @@
+package com.rei.algo.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * 副本健康检查：连接可用，且复制延迟不超过 maxLagSeconds。
+ * <p>
+ * 延迟通过 lagQuery 读取 (默认 MySQL 8 的 SHOW REPLICA STATUS，需要 REPLICATION CLIENT 权限)：
+ * 结果为空或 Seconds_Behind_Source 为 NULL 表示复制已停止，视为不健康。
+ * lagQuery 为空时只检查连接。
+ */
+@Slf4j
+public class ReplicaHealthChecker {
+
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    public ReplicaHealthChecker(ReadWriteRoutingDataSource routingDataSource, String lagQuery, long maxLagSeconds) {
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    /**
+     * 检查所有副本并更新路由状态
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.health-check-interval-ms:5000}")
+    public void checkAll() {
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            routingDataSource.setReplicaHealthy(replica.getKey(), isHealthy(replica.getKey(), replica.getValue()));
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private boolean isHealthy(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(QUERY_TIMEOUT_SECONDS)) {
+                log.warn("Replica '{}' connection is not valid", name);
+                return false;
+            }
+            if (!StringUtils.hasText(lagQuery)) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+                try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                    if (!resultSet.next()) {
+                        log.warn("Replica '{}' is not replicating (empty replica status)", name);
+                        return false;
+                    }
+                    Long lagSeconds = readLagSeconds(resultSet);
+                    if (lagSeconds == null) {
+                        log.warn("Replica '{}' replication is stopped", name);
+                        return false;
+                    }
+                    if (lagSeconds > maxLagSeconds) {
+                        log.warn("Replica '{}' is {}s behind the primary (max {}s)", name, lagSeconds, maxLagSeconds);
+                        return false;
+                    }
+                    return true;
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Replica '{}' health check failed: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    // MySQL 8.0.22+ reports Seconds_Behind_Source; older versions Seconds_Behind_Master
+    private static Long readLagSeconds(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String column = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(column) || "Seconds_Behind_Master".equalsIgnoreCase(column)) {
+                long value = resultSet.getLong(i);
+                return resultSet.wasNull() ? null : value;
+            }
+        }
+        // Custom lag query: first column is the lag in seconds
+        long value = resultSet.getLong(1);
+        return resultSet.wasNull() ? null : value;
+    }
+}
@@ -0,0 +1,39 @@
+package com.rei.algo.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置 (datasource.routing.*)，主库沿用 spring.datasource.*
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class RoutingDataSourceProperties {
+
+    private boolean enabled = false;
+
+    /** 副本允许的最大复制延迟 (秒)，超过时只读事务改走主库 */
+    private long maxLagSeconds = 5;
+
+    /** 读取复制延迟的语句，为空时只检查连接 */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /** 用户提交写事务后，只读事务继续走主库的时长 (毫秒) */
+    private long stickyWindowMs = 5000;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        /** 为空时沿用 spring.datasource.username / password */
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+    }
+}
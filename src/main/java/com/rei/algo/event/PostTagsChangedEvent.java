@@ -0,0 +1,22 @@
+package com.rei.algo.event;
+
+import java.util.Set;
+
+/**
+ * 帖子的标签集合发生变化 (创建、更新标签、删除帖子) 时发布的事件。
+ * 只携带增量，监听方 (计数器、缓存等) 据此做增量维护。
+ *
+ * @param postId        帖子 ID
+ * @param addedTagIds   本次新增的标签 ID
+ * @param removedTagIds 本次移除的标签 ID
+ * @param currentTagIds 变化后帖子拥有的全部标签 ID (删除帖子时为空)
+ */
+public record PostTagsChangedEvent(String postId,
+                                   Set<String> addedTagIds,
+                                   Set<String> removedTagIds,
+                                   Set<String> currentTagIds) {
+
+    public boolean isEmpty() {
+        return addedTagIds.isEmpty() && removedTagIds.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package com.rei.algo.exception;
+
+/**
+ * 请求执行的 SQL 语句数超出预算 (query-budget.mode=FAIL 时抛出，用于测试)
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
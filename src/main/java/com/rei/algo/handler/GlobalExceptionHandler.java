@@ -1,9 +1,11 @@
 package com.rei.algo.handler;
 
+import com.rei.algo.exception.ServiceBusyException;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -66,22 +68,40 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // Handle Overload (e.g., password hashing executor saturated - 503 Service Unavailable)
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ErrorResponse> handleServiceBusyException(ServiceBusyException ex) {
+        log.warn("Service busy: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse(
+                        LocalDateTime.now(),
+                        HttpStatus.SERVICE_UNAVAILABLE.value(),
+                        "Service Unavailable",
+                        ex.getMessage(),
+                        null, null
+                ));
+    }
+
     // Handle Authentication Failures (e.g., bad credentials - 401 Unauthorized)
     @ExceptionHandler(AuthenticationException.class)
-    @ResponseStatus(HttpStatus.UNAUTHORIZED)
-    public ErrorResponse handleAuthenticationException(AuthenticationException ex) {
+    public ResponseEntity<ErrorResponse> handleAuthenticationException(AuthenticationException ex) {
+        // Spring Security wraps unexpected errors (e.g. an overloaded hashing executor) in InternalAuthenticationServiceException
+        if (ex.getCause() instanceof ServiceBusyException busy) {
+            return handleServiceBusyException(busy);
+        }
         log.warn("Authentication Failed: {}", ex.getMessage());
         String message = "用户名或密码错误";
         if (ex.getMessage() != null && ex.getMessage().contains("Bad credentials")) {
             message = "用户名或密码错误";
         }
-        return new ErrorResponse(
+        return new ResponseEntity<>(new ErrorResponse(
                 LocalDateTime.now(),
                 HttpStatus.UNAUTHORIZED.value(),
                 "Unauthorized",
                 message,
                 null, null
-        );
+        ), HttpStatus.UNAUTHORIZED);
     }
 
      // Handle custom or specific runtime exceptions from services (e.g., ResourceNotFound)
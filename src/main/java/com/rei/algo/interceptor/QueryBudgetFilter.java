@@ -0,0 +1,120 @@
+package com.rei.algo.interceptor;
+
+import com.rei.algo.exception.QueryBudgetExceededException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 统计每个请求执行的 SQL 语句数，并与接口的预算比较。
+ * <p>
+ * 超出预算时打印警告 (或在测试中抛出异常)，同时列出重复执行的语句，N+1 查询会表现为同一语句执行了几十次，
+ * 例如为列表中的每一行单独查询作者的 UserMapper.findById。开发环境可以打开 X-Query-Count 响应头。
+ * 由 QueryBudgetConfig 注册在 Spring Security 过滤器链之外层，认证过程中的查询也会被计入。
+ */
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+
+    private record Budget(RequestMatcher matcher, int limit) {
+    }
+
+    private final List<Budget> budgets;
+    private final int defaultBudget;
+    private final int repeatThreshold;
+    private final boolean exposeHeader;
+    private final QueryBudgetProperties.Mode mode;
+
+    public QueryBudgetFilter(QueryBudgetProperties properties) {
+        this.defaultBudget = properties.getDefaultBudget();
+        this.repeatThreshold = Math.max(2, properties.getRepeatThreshold());
+        this.exposeHeader = properties.isExposeHeader();
+        this.mode = properties.getMode();
+        this.budgets = properties.getEndpoints().stream()
+                .map(endpoint -> {
+                    String method = StringUtils.hasText(endpoint.getMethod()) ? endpoint.getMethod().toUpperCase(Locale.ROOT) : null;
+                    RequestMatcher matcher = new OrRequestMatcher(endpoint.getPatterns().stream()
+                            .map(pattern -> (RequestMatcher) new AntPathRequestMatcher(pattern, method))
+                            .toList());
+                    return new Budget(matcher, endpoint.getBudget());
+                })
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        QueryCounter counter = new QueryCounter();
+        QueryCounter previous = QueryCounter.begin(counter);
+        HttpServletResponse wrapped = exposeHeader ? new QueryCountHeaderResponse(response, counter) : response;
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            QueryCounter.restore(previous);
+        }
+        if (exposeHeader && !response.isCommitted()) {
+            response.setHeader(QUERY_COUNT_HEADER, String.valueOf(counter.total()));
+        }
+        checkBudget(request, counter);
+    }
+
+    // --- Helper Methods --- //
+
+    private void checkBudget(HttpServletRequest request, QueryCounter counter) {
+        int limit = budgetFor(request);
+        int executed = counter.total();
+        if (executed <= limit) {
+            return;
+        }
+        String repeated = counter.repeatedStatements(repeatThreshold);
+        String message = String.format("%s %s executed %d SQL statement(s), budget %d%s",
+                request.getMethod(), request.getRequestURI(), executed, limit,
+                repeated.isEmpty() ? "" : "; repeated (possible N+1): " + repeated);
+        if (mode == QueryBudgetProperties.Mode.FAIL) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+
+    private int budgetFor(HttpServletRequest request) {
+        for (Budget budget : budgets) {
+            if (budget.matcher().matches(request)) {
+                return budget.limit();
+            }
+        }
+        return defaultBudget;
+    }
+
+    // Adds the header just before the response is committed, while headers can still be written
+    private static final class QueryCountHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final QueryCounter counter;
+
+        QueryCountHeaderResponse(HttpServletResponse response, QueryCounter counter) {
+            super(response);
+            this.counter = counter;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(counter.total()));
+        }
+    }
+}
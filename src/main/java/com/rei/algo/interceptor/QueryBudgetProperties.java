@@ -0,0 +1,50 @@
+package com.rei.algo.interceptor;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 每个请求的 SQL 语句预算 (query-budget.*)。
+ * <p>
+ * 请求匹配多条 endpoint 配置时使用第一条，都不匹配时使用 defaultBudget。
+ */
+@Data
+@ConfigurationProperties(prefix = "query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+
+    /** 超出预算时的处理方式 */
+    private Mode mode = Mode.WARN;
+
+    /** 未单独配置的接口的预算 */
+    private int defaultBudget = 20;
+
+    /** 同一语句在一个请求中执行达到该次数时，视为疑似 N+1 并在日志中列出 */
+    private int repeatThreshold = 5;
+
+    /** 是否在响应头 X-Query-Count 中返回语句数 (开发环境) */
+    private boolean exposeHeader = false;
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    @Data
+    public static class Endpoint {
+        /** HTTP 方法，为空表示任意方法 */
+        private String method;
+        /** Ant 风格的路径模式 */
+        private List<String> patterns = new ArrayList<>();
+        /** 单个请求允许执行的语句数 */
+        private int budget;
+    }
+
+    public enum Mode {
+        /** 打印警告日志 */
+        WARN,
+        /** 抛出 QueryBudgetExceededException (测试中使用，让超出预算的用例失败) */
+        FAIL
+    }
+}
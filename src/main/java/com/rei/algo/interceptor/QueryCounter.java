@@ -0,0 +1,85 @@
+package com.rei.algo.interceptor;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 当前 HTTP 请求执行的 SQL 语句计数 (按 mapped statement 分组)。
+ * <p>
+ * 由 {@link QueryBudgetFilter} 在请求开始时绑定到当前线程，{@link QueryCountInterceptor} 在每条语句执行时累加。
+ * 请求内派生到其他线程的查询 (例如并行的分页 COUNT) 需要用 {@link #propagate(Callable)} 带上计数器。
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<QueryCounter> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger total = new AtomicInteger();
+    private final Map<String, AtomicInteger> byStatement = new ConcurrentHashMap<>();
+
+    /**
+     * @return 绑定到当前线程的计数器，不在请求中时为 null
+     */
+    public static QueryCounter current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 为当前线程绑定一个新的计数器
+     * @return 之前绑定的计数器 (通常为 null)，结束时传给 {@link #restore(QueryCounter)}
+     */
+    static QueryCounter begin(QueryCounter counter) {
+        QueryCounter previous = CURRENT.get();
+        CURRENT.set(counter);
+        return previous;
+    }
+
+    static void restore(QueryCounter previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 让任务在其他线程上执行时继续计入当前请求
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        QueryCounter counter = current();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            QueryCounter previous = begin(counter);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    void record(String statement) {
+        total.incrementAndGet();
+        byStatement.computeIfAbsent(statement, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public int total() {
+        return total.get();
+    }
+
+    /**
+     * 执行次数不少于 minExecutions 的语句，按次数降序，例如 "CommentMapper.findRepliesByParentId x10, UserMapper.findById x7"
+     */
+    public String repeatedStatements(int minExecutions) {
+        return byStatement.entrySet().stream()
+                .filter(entry -> entry.getValue().get() >= minExecutions)
+                .sorted(Comparator.comparingInt((Map.Entry<String, AtomicInteger> entry) -> entry.getValue().get()).reversed())
+                .map(entry -> entry.getKey() + " x" + entry.getValue().get())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,225 @@
+package com.rei.algo.interceptor;
+
+import com.rei.algo.monitoring.SlowQueryLog;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 慢查询记录器。
+ * <p>
+ * 语句耗时超过阈值时，把语句 ID、填入参数的 SQL、耗时和行数写入 {@link SlowQueryLog}：
+ * 名称像密码/令牌的参数替换为 ***，过长的参数被截断。
+ * 按采样率对慢 SELECT 在同一连接上执行一次 EXPLAIN 并保存执行计划，同一语句在 explainInterval 内只 EXPLAIN 一次，
+ * 避免在数据库已经变慢时再放大负载。EXPLAIN 同步执行，只会让被采样的那一次慢查询再慢一点。
+ */
+@Slf4j
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SlowQueryInterceptor implements Interceptor {
+
+    private static final Pattern SECRET_PARAMETER = Pattern.compile("(?i).*(password|secret|token|hash|credential).*");
+    private static final int MAX_PARAMETER_LENGTH = 64;
+
+    private final SlowQueryLog slowQueryLog;
+    private final long thresholdNanos;
+    private final double explainSampleRate;
+    private final long explainIntervalNanos;
+    private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+
+    /**
+     * @param slowQueryLog      慢查询记录的存放位置
+     * @param thresholdMs       慢查询阈值
+     * @param explainSampleRate 对慢 SELECT 执行 EXPLAIN 的比例 (0 - 1)
+     * @param explainIntervalMs 同一语句两次 EXPLAIN 的最小间隔
+     */
+    public SlowQueryInterceptor(SlowQueryLog slowQueryLog, long thresholdMs, double explainSampleRate, long explainIntervalMs) {
+        this.slowQueryLog = slowQueryLog;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.explainSampleRate = explainSampleRate;
+        this.explainIntervalNanos = TimeUnit.MILLISECONDS.toNanos(explainIntervalMs);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (elapsed >= thresholdNanos) {
+                record(invocation, elapsed, failed ? -1 : rowCount(result));
+            }
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private void record(Invocation invocation, long elapsedNanos, long rows) {
+        try {
+            Object[] args = invocation.getArgs();
+            MappedStatement statement = (MappedStatement) args[0];
+            Object parameterObject = args[1];
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : statement.getBoundSql(parameterObject);
+            String name = StatementMetricsInterceptor.shortName(statement.getId());
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+            List<Map<String, Object>> plan = null;
+            String explainError = null;
+            if (rows >= 0 && statement.getSqlCommandType() == SqlCommandType.SELECT && shouldExplain(statement.getId())) {
+                try {
+                    plan = explain((Executor) invocation.getTarget(), statement, parameterObject, boundSql);
+                } catch (SQLException | RuntimeException e) {
+                    explainError = e.getMessage();
+                }
+            }
+
+            slowQueryLog.add(new SlowQueryLog.Entry(Instant.now(), name, statement.getSqlCommandType().name(),
+                    renderSql(statement.getConfiguration(), boundSql, parameterObject), durationMs, rows, plan, explainError));
+            log.warn("Slow query {} took {} ms ({} rows)", name, durationMs, rows);
+        } catch (RuntimeException e) {
+            // Never let diagnostics break the query itself
+            log.debug("Failed to record slow query: {}", e.getMessage());
+        }
+    }
+
+    private boolean shouldExplain(String statementId) {
+        if (explainSampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= explainSampleRate) {
+            return false;
+        }
+        long now = System.nanoTime();
+        Long previous = lastExplained.get(statementId);
+        if (previous != null && now - previous < explainIntervalNanos) {
+            return false;
+        }
+        // Only one of several concurrent slow executions of the same statement wins the EXPLAIN
+        return previous == null ? lastExplained.putIfAbsent(statementId, now) == null
+                : lastExplained.replace(statementId, previous, now);
+    }
+
+    // EXPLAIN on the executor's own connection, with the parameters bound exactly as for the query
+    private static List<Map<String, Object>> explain(Executor executor, MappedStatement statement,
+                                                     Object parameterObject, BoundSql boundSql) throws SQLException {
+        Connection connection = executor.getTransaction().getConnection();
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            statement.getConfiguration().newParameterHandler(statement, parameterObject, boundSql).setParameters(explain);
+            try (ResultSet resultSet = explain.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                List<Map<String, Object>> plan = new ArrayList<>();
+                while (resultSet.next()) {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int column = 1; column <= metaData.getColumnCount(); column++) {
+                        row.put(metaData.getColumnLabel(column), resultSet.getObject(column));
+                    }
+                    plan.add(row);
+                }
+                return plan;
+            }
+        }
+    }
+
+    // Replaces each '?' placeholder (outside string literals) with its rendered parameter
+    private static String renderSql(Configuration configuration, BoundSql boundSql, Object parameterObject) {
+        String sql = boundSql.getSql().replaceAll("\\s+", " ").trim();
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        StringBuilder rendered = new StringBuilder(sql.length() + mappings.size() * 16);
+        int next = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"' || c == '`') {
+                quote = c;
+            } else if (c == '?' && next < mappings.size()) {
+                String property = mappings.get(next++).getProperty();
+                rendered.append(renderValue(property, parameterValue(configuration, boundSql, parameterObject, property)));
+                continue;
+            }
+            rendered.append(c);
+        }
+        return rendered.toString();
+    }
+
+    // Same lookup order as DefaultParameterHandler
+    private static Object parameterValue(Configuration configuration, BoundSql boundSql, Object parameterObject, String property) {
+        if (boundSql.hasAdditionalParameter(property)) {
+            return boundSql.getAdditionalParameter(property);
+        }
+        if (parameterObject == null) {
+            return null;
+        }
+        if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+            return parameterObject;
+        }
+        MetaObject metaObject = configuration.newMetaObject(parameterObject);
+        return metaObject.hasGetter(property) ? metaObject.getValue(property) : null;
+    }
+
+    private static String renderValue(String property, Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (SECRET_PARAMETER.matcher(property).matches()) {
+            return "'***'";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        String text = String.valueOf(value);
+        if (text.length() > MAX_PARAMETER_LENGTH) {
+            text = text.substring(0, MAX_PARAMETER_LENGTH) + "...(" + text.length() + " chars)";
+        }
+        return "'" + text.replace("'", "''") + "'";
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Number affected) {
+            return affected.longValue();
+        }
+        return result == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,114 @@
+package com.rei.algo.interceptor;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按 MyBatis 语句记录耗时和行数的拦截器。
+ * <p>
+ * 每个 mapped statement (例如 PostMapper.search) 对应：
+ * <ul>
+ *     <li>Timer mybatis.statement (tag: statement, command, outcome)：执行耗时，含结果映射</li>
+ *     <li>DistributionSummary mybatis.statement.rows (tag: statement, command)：查询返回的行数或写操作影响的行数</li>
+ * </ul>
+ * 两者都发布直方图桶 (见 application.yml 中 management.metrics.distribution)，在 Prometheus 中用
+ * histogram_quantile 计算任意分位数，并能跨实例聚合。
+ * 计时包在 Executor 外层，二级缓存命中也会被计入 (耗时接近 0)。
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+
+    public static final String TIMER_NAME = "mybatis.statement";
+    public static final String ROWS_NAME = "mybatis.statement.rows";
+
+    private record Meters(Timer success, Timer error, DistributionSummary rows) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public StatementMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        Meters statementMeters = meters.computeIfAbsent(statement.getId(), id -> register(statement));
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            statementMeters.success().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            statementMeters.rows().record(rowCount(result));
+            return result;
+        } catch (Throwable e) {
+            statementMeters.error().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private Meters register(MappedStatement statement) {
+        String name = shortName(statement.getId());
+        String command = statement.getSqlCommandType().name();
+        return new Meters(
+                timer(name, command, "success"),
+                timer(name, command, "error"),
+                DistributionSummary.builder(ROWS_NAME)
+                        .description("Rows returned (SELECT) or affected (INSERT/UPDATE/DELETE) per MyBatis statement")
+                        .baseUnit("rows")
+                        .tag("statement", name)
+                        .tag("command", command)
+                        .register(meterRegistry));
+    }
+
+    private Timer timer(String name, String command, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Execution time of MyBatis mapped statements")
+                .tag("statement", name)
+                .tag("command", command)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // com.rei.algo.mapper.PostMapper.search -> PostMapper.search
+    static String shortName(String statementId) {
+        int method = statementId.lastIndexOf('.');
+        int type = method > 0 ? statementId.lastIndexOf('.', method - 1) : -1;
+        return type >= 0 ? statementId.substring(type + 1) : statementId;
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> rows) {
+            return rows.size();
+        }
+        if (result instanceof Number affected) {
+            return Math.max(0, affected.longValue());
+        }
+        return result == null ? 0 : 1;
+    }
+}
@@ -71,6 +71,14 @@ public interface AlgorithmMapper {
      */
     long countPublicByKeyword(@Param("keyword") String keyword);
 
+    /**
+     * 计算关键字搜索公开算法的总数，最多数到 limit
+     * @param keyword 关键字
+     * @param limit 上限
+     * @return min(总数, limit)
+     */
+    long countPublicByKeywordUpTo(@Param("keyword") String keyword, @Param("limit") int limit);
+
      /**
      * 查询所有公开算法 (可分页)
      * @param offset 偏移量
@@ -85,5 +93,12 @@ public interface AlgorithmMapper {
      */
     long countAllPublic();
 
+    /**
+     * 计算所有公开算法的总数，最多数到 limit
+     * @param limit 上限
+     * @return min(总数, limit)
+     */
+    long countAllPublicUpTo(@Param("limit") int limit);
+
     // 可以添加根据用户ID和关键字搜索等组合查询
 } 
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.rei.algo.mapper;
+
+import com.rei.algo.model.entity.RefreshToken;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Mapper
+public interface AuthTokenMapper {
+
+    // --- Refresh Token --- //
+
+    /**
+     * 插入刷新令牌
+     * @param refreshToken 刷新令牌实体
+     * @return 影响行数
+     */
+    int insertRefreshToken(RefreshToken refreshToken);
+
+    /**
+     * 根据 ID 查询刷新令牌
+     * @param tokenId 令牌 ID
+     * @return 刷新令牌 (Optional)
+     */
+    Optional<RefreshToken> findRefreshTokenById(@Param("tokenId") String tokenId);
+
+    /**
+     * 把令牌标记为已轮换。只有仍然有效 (未作废、未被替换) 的令牌会被更新，
+     * 并发的两次刷新只有一次能成功
+     * @param tokenId 旧令牌 ID
+     * @param replacedBy 新令牌 ID
+     * @return 影响行数 (0 表示令牌已被使用过)
+     */
+    int markRefreshTokenReplaced(@Param("tokenId") String tokenId, @Param("replacedBy") String replacedBy);
+
+    /**
+     * 作废整条轮换链上所有仍有效的令牌 (登出或检测到重用时)
+     * @param familyId 轮换链 ID
+     * @return 影响行数
+     */
+    int revokeRefreshTokenFamily(@Param("familyId") String familyId);
+
+    /**
+     * 删除已过期的刷新令牌
+     * @param now 当前时间
+     * @return 影响行数
+     */
+    int deleteExpiredRefreshTokens(@Param("now") LocalDateTime now);
+
+    // --- Revoked Access Token --- //
+
+    /**
+     * 记录被吊销的访问令牌 (重复吊销会被忽略)
+     * @param jti 访问令牌 ID
+     * @param expiresAt 访问令牌过期时间
+     * @return 影响行数
+     */
+    int insertRevokedToken(@Param("jti") String jti, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * 检查访问令牌是否已被吊销
+     * @param jti 访问令牌 ID
+     * @return 是否已吊销
+     */
+    boolean existsRevokedToken(@Param("jti") String jti);
+
+    /**
+     * 查询所有尚未过期的已吊销令牌 ID (用于重建布隆过滤器)
+     * @param now 当前时间
+     * @return jti 列表
+     */
+    List<String> findActiveRevokedJtis(@Param("now") LocalDateTime now);
+
+    /**
+     * 删除已过期的吊销记录 (过期的令牌本身已无法通过验证)
+     * @param now 当前时间
+     * @return 影响行数
+     */
+    int deleteExpiredRevokedTokens(@Param("now") LocalDateTime now);
+}
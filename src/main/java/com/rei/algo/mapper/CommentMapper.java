@@ -4,6 +4,7 @@ import com.rei.algo.model.entity.Comment;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -63,6 +64,14 @@ public interface CommentMapper {
      */
     List<Comment> findRepliesByParentId(@Param("parentCommentId") String parentCommentId, @Param("offset") int offset, @Param("limit") int limit);
 
+    /**
+     * 一次查询多条父评论各自最早的若干条回复 (评论列表的回复预览，避免逐条查询)
+     * @param parentCommentIds 父评论 ID 集合
+     * @param limit 每条父评论最多返回的回复数
+     * @return 回复列表 (包含用户信息)，按父评论、创建时间排序
+     */
+    List<Comment> findReplyPreviewsByParentIds(@Param("parentCommentIds") Collection<String> parentCommentIds, @Param("limit") int limit);
+
      /**
      * 计算父评论的回复总数
      * @param parentCommentId 父评论 ID
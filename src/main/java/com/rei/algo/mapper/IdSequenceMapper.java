@@ -0,0 +1,30 @@
+package com.rei.algo.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface IdSequenceMapper {
+
+    /**
+     * 序列不存在时创建 (从 0 开始)
+     * @param name 序列名称
+     * @return 影响行数 (已存在时为 0)
+     */
+    int insertIfAbsent(@Param("name") String name);
+
+    /**
+     * 锁定序列行并返回下一个未分配的序号 (SELECT ... FOR UPDATE，需在事务中调用)
+     * @param name 序列名称
+     * @return 下一个未分配的序号，序列不存在时为 null
+     */
+    Long findNextValueForUpdate(@Param("name") String name);
+
+    /**
+     * 序列前进 delta
+     * @param name  序列名称
+     * @param delta 前进的步长 (块大小)
+     * @return 影响行数
+     */
+    int advance(@Param("name") String name, @Param("delta") long delta);
+}
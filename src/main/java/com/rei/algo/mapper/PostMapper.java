@@ -7,6 +7,8 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.session.RowBounds;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -80,6 +82,14 @@ public interface PostMapper {
      */
     long countByKeyword(@Param("keyword") String keyword);
 
+    /**
+     * 计算关键字搜索帖子的总数，最多数到 limit (扫描到 limit 行即停止)
+     * @param keyword 关键字
+     * @param limit 上限
+     * @return min(总数, limit)
+     */
+    long countByKeywordUpTo(@Param("keyword") String keyword, @Param("limit") int limit);
+
 
     /**
      * 查询所有帖子梗概 (分页)
@@ -94,6 +104,34 @@ public interface PostMapper {
      */
     long countPosts();
 
+    /**
+     * 按单个标签列出帖子梗概 (基于 post_tag_index 的 keyset 分页，时间倒序)
+     * @param tagId 标签 ID
+     * @param cursorCreatedAt 上一页最后一行的创建时间 (第一页为 null)
+     * @param cursorPostId 上一页最后一行的帖子 ID (第一页为 null)
+     * @param limit 数量
+     * @return PostSummaryDTO 列表
+     */
+    List<PostSummaryDTO> findSummariesByTag(@Param("tagId") String tagId,
+                                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                            @Param("cursorPostId") String cursorPostId,
+                                            @Param("limit") int limit);
+
+    /**
+     * 按多个标签列出帖子梗概 (AND: 同时包含全部标签; OR: 包含任一标签)
+     * @param tagIds 标签 ID 集合 (不重复)
+     * @param matchAll true 为 AND，false 为 OR
+     * @param cursorCreatedAt 上一页最后一行的创建时间 (第一页为 null)
+     * @param cursorPostId 上一页最后一行的帖子 ID (第一页为 null)
+     * @param limit 数量
+     * @return PostSummaryDTO 列表
+     */
+    List<PostSummaryDTO> findSummariesByTags(@Param("tagIds") Collection<String> tagIds,
+                                             @Param("matchAll") boolean matchAll,
+                                             @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                             @Param("cursorPostId") String cursorPostId,
+                                             @Param("limit") int limit);
+
     /**
      * 增加指定帖子的浏览量
      *
@@ -144,6 +182,48 @@ public interface PostMapper {
      */
     int removeAllTagsFromPost(@Param("postId") String postId);
 
+    /**
+     * 删除帖子与一批标签的关联关系
+     * @param postId 帖子 ID
+     * @param tagIds 要移除的标签 ID 集合 (不能为空)
+     * @return 影响行数
+     */
+    int removeTagsFromPost(@Param("postId") String postId, @Param("tagIds") Collection<String> tagIds);
+
+    /**
+     * 查询帖子当前的标签 ID 并对这些 post_tag 行加锁 (SELECT ... FOR UPDATE)，
+     * 使同一帖子的并发标签更新串行化，基于差集的增删不会互相冲突
+     * @param postId 帖子 ID
+     * @return 标签 ID 列表
+     */
+    List<String> findTagIdsByPostIdForUpdate(@Param("postId") String postId);
+
+    // --- Tag Index (post_tag_index) --- //
+
+    /**
+     * 为帖子的指定标签写入 (tag_id, post_created_at, post_id) 索引行
+     * post_created_at 直接取自 post 表，保证与帖子创建时间完全一致
+     * @param postId 帖子 ID
+     * @param tagIds 标签 ID 集合
+     * @return 影响行数
+     */
+    int addTagsToIndex(@Param("postId") String postId, @Param("tagIds") Collection<String> tagIds);
+
+    /**
+     * 删除帖子的全部标签索引行
+     * @param postId 帖子 ID
+     * @return 影响行数
+     */
+    int removeAllTagsFromIndex(@Param("postId") String postId);
+
+    /**
+     * 删除帖子指定标签的索引行
+     * @param postId 帖子 ID
+     * @param tagIds 标签 ID 集合 (不能为空)
+     * @return 影响行数
+     */
+    int removeTagsFromIndex(@Param("postId") String postId, @Param("tagIds") Collection<String> tagIds);
+
      /**
      * 删除帖子与指定标签的关联关系
      * @param postId 帖子 ID
@@ -0,0 +1,15 @@
+package com.rei.algo.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+@Mapper
+public interface StatisticsMapper {
+
+    /**
+     * 读取 InnoDB 对表行数的估算值 (information_schema.TABLES.TABLE_ROWS，来自索引统计，误差可能达 40%)
+     * @param tableName 当前库中的表名
+     * @return 估算行数，表不存在时为 null
+     */
+    Long estimateRowCount(@Param("tableName") String tableName);
+}
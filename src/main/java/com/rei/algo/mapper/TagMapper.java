@@ -1,9 +1,13 @@
 package com.rei.algo.mapper;
 
+import com.rei.algo.DTO.tag.TagStatDTO;
+import com.rei.algo.model.entity.PostTag;
 import com.rei.algo.model.entity.Tag;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -39,6 +43,13 @@ public interface TagMapper {
      */
     Optional<Tag> findByName(@Param("name") String name);
 
+    /**
+     * 根据一批名称查询标签 (单条 SELECT ... WHERE name IN (...))
+     * @param names 标签名称集合 (不能为空)
+     * @return 已存在的标签列表
+     */
+    List<Tag> findByNames(@Param("names") Collection<String> names);
+
     /**
      * 检查标签名称是否存在
      * @param name 标签名称
@@ -59,11 +70,25 @@ public interface TagMapper {
      */
     List<Tag> findTagsByPostId(@Param("postId") String postId);
 
+    /**
+     * 根据帖子 ID 查询关联的标签 ID (只走 post_tag 主键，不关联 tag 表)
+     * @param postId 帖子 ID
+     * @return 标签 ID 列表
+     */
+    List<String> findTagIdsByPostId(@Param("postId") String postId);
+
+    /**
+     * 一次查询多个帖子的标签关联关系
+     * @param postIds 帖子 ID 集合 (不能为空)
+     * @return (postId, tagId) 列表
+     */
+    List<PostTag> findTagLinksByPostIds(@Param("postIds") Collection<String> postIds);
+
     /**
      * 批量插入标签 (如果不存在)
-     * 通常在 XML 中使用 foreach 实现
+     * 使用单条多行 INSERT IGNORE，名称重复的行会被跳过
      * @param tags 标签列表
-     * @return 影响行数
+     * @return 实际插入的行数
      */
     int insertBatchIfNotExists(List<Tag> tags);
 
@@ -74,4 +99,16 @@ public interface TagMapper {
      */
     List<Tag> findByIds(@Param("tagIds") Set<String> tagIds);
 
+    /**
+     * 统计每个标签的帖子数 (仅在启动时用于初始化内存计数器)
+     * @return (tagId, postCount) 列表，没有帖子的标签不在结果中
+     */
+    List<TagStatDTO> countPostsByTag();
+
+    /**
+     * 按 post_id 顺序流式读取全部 (postId, tagId) 关联，不在内存中物化整张表
+     * @param handler 逐行回调
+     */
+    void scanPostTagLinks(ResultHandler<PostTag> handler);
+
 } 
\ No newline at end of file
@@ -3,7 +3,10 @@ package com.rei.algo.mapper;
 import com.rei.algo.model.entity.User;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Mapper
@@ -30,6 +33,13 @@ public interface UserMapper {
      */
     Optional<User> findById(@Param("userId") String userId);
 
+    /**
+     * 批量查询用户的公开信息 (只填充 user_id、username、avatar_url)，用于列表中的作者信息
+     * @param userIds 用户ID集合
+     * @return 存在的用户
+     */
+    List<User> findSummariesByIds(@Param("userIds") Collection<String> userIds);
+
     /**
      * 检查用户名是否存在
      * @param username 用户名
@@ -51,6 +61,25 @@ public interface UserMapper {
      */
     boolean existsById(@Param("userId") String userId);
 
+    /**
+     * 用户总数
+     * @return 用户总数
+     */
+    long countUsers();
+
+    /**
+     * 流式读取全部用户的用户名和邮箱 (只填充 username、email)，不在内存中物化整张表
+     * @param handler 逐行回调
+     */
+    void scanUsernamesAndEmails(ResultHandler<User> handler);
+
+    /**
+     * 批量检查用户ID是否已被占用 (用于排除历史随机生成的用户ID)
+     * @param userIds 待检查的用户ID集合
+     * @return 其中已存在的用户ID
+     */
+    List<String> findExistingUserIds(@Param("userIds") Collection<String> userIds);
+
     /**
      * 插入新用户
      * @param user 用户实体
@@ -58,6 +87,13 @@ public interface UserMapper {
      */
     int insert(User user);
 
+    /**
+     * 批量插入用户 (INSERT IGNORE)：用户名或邮箱冲突的行被跳过而不是让整条语句失败
+     * @param users 用户实体列表
+     * @return 实际插入的行数
+     */
+    int insertIgnoreBatch(@Param("users") List<User> users);
+
     /**
      * 更新用户信息 (通常在 XML 中实现动态更新非空字段)
      * @param user 用户实体
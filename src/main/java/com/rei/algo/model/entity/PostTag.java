@@ -0,0 +1,16 @@
+package com.rei.algo.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostTag {
+
+    private String postId;      // VARCHAR(16)
+    private String tagId;       // VARCHAR(16)
+}
@@ -0,0 +1,24 @@
+package com.rei.algo.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    private String tokenId;            // VARCHAR(32)
+    private String userId;             // VARCHAR(8)
+    private String familyId;           // VARCHAR(32)
+    private String tokenHash;          // CHAR(64)
+    private LocalDateTime expiresAt;   // DATETIME
+    private LocalDateTime createdAt;   // DATETIME
+    private String replacedBy;         // VARCHAR(32)
+    private LocalDateTime revokedAt;   // DATETIME
+}
@@ -0,0 +1,9 @@
+package com.rei.algo.model.enums;
+
+/**
+ * 多标签过滤的匹配方式
+ */
+public enum TagMatchMode {
+    AND,    // 帖子必须包含全部指定标签
+    OR      // 帖子包含任一指定标签即可
+}
@@ -0,0 +1,91 @@
+package com.rei.algo.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 虚拟线程钉住 (pinning) 诊断。
+ * <p>
+ * 虚拟线程在 synchronized 块或本地方法中阻塞时无法从载体线程卸载，会占住载体线程；
+ * 载体线程数只有 CPU 核数，钉住频繁时吞吐会退化到比平台线程池还差。
+ * 这里用 JFR 事件流订阅 jdk.VirtualThreadPinned (超过阈值的钉住)，记录指标 jvm.threads.virtual.pinned，
+ * 并对每个不同的调用位置打印一次栈，便于定位需要改成 ReentrantLock 的代码。
+ */
+@Slf4j
+public class PinnedThreadMonitor implements DisposableBean {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    private static final int MAX_LOGGED_SITES = 1000;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Map<String, Boolean> loggedSites = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    /**
+     * @param threshold     只报告持续时间超过该值的钉住
+     * @param meterRegistry 指标注册表，可为 null
+     */
+    public PinnedThreadMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedCounter = meterRegistry != null
+                ? Counter.builder("jvm.threads.virtual.pinned")
+                        .description("Virtual threads pinned to their carrier longer than the threshold").register(meterRegistry)
+                : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            RecordingStream recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::onPinned);
+            recording.startAsync();
+            stream = recording;
+            log.info("Virtual thread pinning diagnostics started (threshold {} ms)", threshold.toMillis());
+        } catch (Exception e) {
+            log.warn("Could not start virtual thread pinning diagnostics: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private void onPinned(RecordedEvent event) {
+        if (pinnedCounter != null) {
+            pinnedCounter.increment();
+        }
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String site = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n\tat "));
+        // Log each distinct call site once; the counter keeps the totals
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.putIfAbsent(site, Boolean.TRUE) == null) {
+            log.warn("Virtual thread pinned for {} ms:\n\tat {}", event.getDuration().toMillis(), site);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.rei.algo.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * 慢查询 Actuator 端点：GET /actuator/slowqueries?limit=50 查看最近的慢查询 (含采样的执行计划)，
+ * DELETE 清空 (例如发布新版本后观察回归)。
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public List<SlowQueryLog.Entry> slowQueries(@Nullable Integer limit) {
+        return slowQueryLog.recent(limit != null && limit > 0 ? limit : slowQueryLog.capacity());
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
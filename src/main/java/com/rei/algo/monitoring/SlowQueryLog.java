@@ -0,0 +1,91 @@
+package com.rei.algo.monitoring;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 最近的慢查询 (固定容量的环形缓冲区，新记录覆盖最旧的记录)。
+ * <p>
+ * 写入无锁：每次写入用原子序号领取一个槽位，再用 CAS 写入；缓冲区已绕回一圈、槽位中已经是更新的记录时
+ * 放弃这次 (较旧的) 写入，因此慢的写入者不会覆盖新记录。读取按序号从新到旧遍历，槽位中的序号与期望不符
+ * (正在写入或已被更新的记录覆盖) 时跳过，因此读到的快照可能略少于容量，但不会重复或错位。
+ */
+public class SlowQueryLog {
+
+    /**
+     * 一条慢查询记录
+     * @param timestamp 执行结束时间
+     * @param statement 语句 ID，例如 PostMapper.search
+     * @param command SELECT / INSERT / UPDATE / DELETE
+     * @param sql 填入参数后的 SQL (敏感参数已脱敏，长参数已截断)
+     * @param durationMs 耗时 (含结果映射)
+     * @param rows 返回的行数或影响的行数，失败时为 -1
+     * @param plan EXPLAIN 结果 (每行一个 Map)，未采样时为 null
+     * @param explainError EXPLAIN 失败的原因
+     */
+    public record Entry(Instant timestamp, String statement, String command, String sql, long durationMs, long rows,
+                        List<Map<String, Object>> plan, String explainError) {
+    }
+
+    private record Slot(long sequence, Entry entry) {
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    public SlowQueryLog(int capacity) {
+        this.slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public void add(Entry entry) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = indexOf(sequence);
+        Slot slot = new Slot(sequence, entry);
+        while (true) {
+            Slot current = slots.get(index);
+            if (current != null && current.sequence() > sequence) {
+                return; // lapped by a newer entry while this one was in flight
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param limit 最多返回的条数
+     * @return 最近的慢查询，从新到旧
+     */
+    public List<Entry> recent(int limit) {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - Math.min(limit, slots.length()));
+        List<Entry> entries = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            Slot slot = slots.get(indexOf(sequence));
+            if (slot != null && slot.sequence() == sequence) {
+                entries.add(slot.entry());
+            }
+        }
+        return entries;
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    // --- Helper Methods --- //
+
+    private int indexOf(long sequence) {
+        return (int) (sequence % slots.length());
+    }
+}
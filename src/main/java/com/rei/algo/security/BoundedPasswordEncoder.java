@@ -0,0 +1,237 @@
+package com.rei.algo.security;
+
+import com.rei.algo.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 在独立的有界线程池中执行 BCrypt 的 PasswordEncoder。
+ * <p>
+ * BCrypt 每次计算需要几十到上百毫秒的 CPU，直接在 Tomcat 工作线程上执行时，登录高峰会占满所有工作线程，
+ * 连廉价的 GET 请求也要排队。这里把哈希计算限制在固定数量的线程上，等待队列也有上限：
+ * 队列已满或等待超时时立即抛出 {@link ServiceBusyException} (503)，调用线程最多被占用 timeout 时间。
+ * <p>
+ * 代价 (cost) 可配置；调高后 {@link #upgradeEncoding(String)} 会让 DaoAuthenticationProvider 在用户下次登录成功时透明地重新哈希。
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+    private static final long BULK_RESUBMIT_DELAY_MS = 20;
+
+    private final BCryptPasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param strength      BCrypt cost (4 - 31)
+     * @param threads       哈希线程数
+     * @param queueCapacity 等待队列长度
+     * @param timeoutMs     调用方最长等待时间 (含排队)
+     * @param meterRegistry 指标注册表，可为 null
+     */
+    public BoundedPasswordEncoder(int strength, int threads, int queueCapacity, long timeoutMs, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        if (meterRegistry != null) {
+            this.encodeTimer = Timer.builder("password.hashing").tag("operation", "encode")
+                    .description("BCrypt execution time").register(meterRegistry);
+            this.matchesTimer = Timer.builder("password.hashing").tag("operation", "matches")
+                    .description("BCrypt execution time").register(meterRegistry);
+            this.queueWaitTimer = Timer.builder("password.hashing.queue.wait")
+                    .description("Time spent waiting for a hashing thread").register(meterRegistry);
+            this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                    .description("Hashing requests rejected because the executor was saturated").register(meterRegistry);
+            Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+            Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        } else {
+            this.encodeTimer = null;
+            this.matchesTimer = null;
+            this.queueWaitTimer = null;
+            this.rejectedCounter = null;
+        }
+        log.info("Password hashing executor started: BCrypt strength {}, {} thread(s), queue {}, timeout {} ms",
+                strength, threads, queueCapacity, timeoutMs);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    /**
+     * 批量哈希 (例如导入用户)，按输入顺序返回结果。
+     * <p>
+     * 同时提交到执行器的任务 (排队或执行中) 最多 maxInFlight 个，前面的完成后才提交下一个，
+     * 因此批量任务最多占用 maxInFlight 个哈希线程，其余线程和等待队列留给登录。
+     * 队列被登录请求占满时稍后重试提交，而不是失败；单个任务也不受 timeoutMs 限制，批量调用只会变慢，不会因繁忙整体失败。
+     * @param rawPasswords 明文密码
+     * @param maxInFlight  同时占用的执行器位置上限 (不超过线程数)
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords, int maxInFlight) {
+        int window = Math.max(1, Math.min(maxInFlight, executor.getMaximumPoolSize()));
+        String[] hashes = new String[rawPasswords.size()];
+        Deque<Future<?>> inFlight = new ArrayDeque<>(window);
+        try {
+            for (int i = 0; i < hashes.length; i++) {
+                if (inFlight.size() == window) {
+                    awaitBulk(inFlight.poll());
+                }
+                int index = i;
+                CharSequence rawPassword = rawPasswords.get(i);
+                inFlight.add(submitBulk(() -> {
+                    long startedAt = System.nanoTime();
+                    hashes[index] = delegate.encode(rawPassword);
+                    record(encodeTimer, System.nanoTime() - startedAt);
+                }));
+            }
+            while (!inFlight.isEmpty()) {
+                awaitBulk(inFlight.poll());
+            }
+        } finally {
+            // Only non-empty when a hash failed or the caller was interrupted
+            inFlight.forEach(future -> future.cancel(true));
+        }
+        // Future.get() orders every worker's write before these reads
+        return Arrays.asList(hashes);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only parses the cost from the hash prefix, cheap enough for the caller's thread
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    // --- Helper Methods --- //
+
+    private <T> T execute(Callable<T> task, Timer timer) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                record(queueWaitTimer, startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    record(timer, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            log.warn("Password hashing executor saturated (queue size {}), rejecting request", executor.getQueue().size());
+            throw new ServiceBusyException("服务繁忙，请稍后重试", RETRY_AFTER_SECONDS, e);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            if (rejectedCounter != null) {
+                rejectedCounter.increment();
+            }
+            throw new ServiceBusyException("服务繁忙，请稍后重试", RETRY_AFTER_SECONDS, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException; // e.g. IllegalArgumentException for a malformed hash
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private Future<?> submitBulk(Runnable task) {
+        while (true) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    throw new IllegalStateException("Password hashing executor is shut down", e);
+                }
+                // Queue full of login requests: back off instead of failing the whole batch
+                sleep(BULK_RESUBMIT_DELAY_MS);
+            }
+        }
+    }
+
+    private static void awaitBulk(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        }
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.rei.algo.security;
 
+import com.rei.algo.cache.RevokedTokenRegistry;
 import com.rei.algo.service.UserService; // To load UserDetails by username
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +19,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component // Mark as a Spring component
 @RequiredArgsConstructor
@@ -25,6 +28,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter { // Ensures f
 
     private final JwtTokenProvider tokenProvider;
     private final UserService userService; // UserDetailsService implementation
+    private final RevokedTokenRegistry revokedTokenRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -36,14 +40,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter { // Ensures f
             // 1. 从请求中获取 JWT
             String jwt = getJwtFromRequest(request);
 
-            // 2. 验证 Token 并加载用户信息
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromJWT(jwt);
+            // 2. 验证 Token (每个请求只解析一次) 并构建用户信息
+            Optional<Claims> claims = tokenProvider.parseAndVerify(jwt);
+            // 已注销的令牌 (布隆过滤器未命中时无需查库)
+            if (claims.isPresent() && revokedTokenRegistry.isRevoked(claims.get().getId())) {
+                log.debug("Rejected revoked token {} for request {}", claims.get().getId(), request.getRequestURI());
+                claims = Optional.empty();
+            }
+            if (claims.isPresent()) {
+                String username = claims.get().getSubject();
 
-                // 从数据库加载 UserDetails (通过 UserService)
                 // Check if authentication already exists in context (might happen in some scenarios)
                  if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                     UserDetails userDetails = userService.loadUserByUsername(username);
+                     // 直接由令牌中的声明构建 Principal，不查询数据库；
+                     // 只有缺少 userId/role 声明的旧令牌才回退到 UserService (带短 TTL 缓存)
+                     UserDetails userDetails = tokenProvider.getUserFromClaims(claims.get())
+                             .map(UserDetails.class::cast)
+                             .orElseGet(() -> userService.loadUserByUsername(username));
 
                      // 创建 Authentication 对象
                      UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
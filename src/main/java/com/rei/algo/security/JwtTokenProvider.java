@@ -1,6 +1,8 @@
 package com.rei.algo.security;
 
+import com.rei.algo.model.entity.Role;
 import com.rei.algo.model.entity.User; // Assuming User implements UserDetails
+import com.rei.algo.util.IDGenerator;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException; // Use the correct SignatureException
@@ -14,18 +16,29 @@ import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
+    static final String CLAIM_USER_ID = "userId";
+    static final String CLAIM_ROLE = "role";
+
     @Value("${jwt.secret}") // 从 application.yml 读取密钥
     private String jwtSecretString;
 
     @Value("${jwt.expiration-ms}") // 从 application.yml 读取有效期
     private int jwtExpirationInMs;
 
+    @Value("${jwt.verified-cache.max-size:10000}") // 已验证令牌缓存的最大条目数，0 表示关闭
+    private int verifiedCacheMaxSize;
+
     private SecretKey secretKey;
+    private JwtParser jwtParser; // 线程安全，所有请求共享
+    private VerifiedTokenCache verifiedTokens;
 
     @PostConstruct
     public void init() {
@@ -42,34 +55,54 @@ public class JwtTokenProvider {
         }
 
         if (jwtExpirationInMs <= 0) {
-            log.warn("JWT expiration time (jwt.expiration-ms) is not configured or invalid. Using default: 1 hour.");
-            this.jwtExpirationInMs = 3600000; // Default to 1 hour
+            log.warn("JWT expiration time (jwt.expiration-ms) is not configured or invalid. Using default: 15 minutes.");
+            this.jwtExpirationInMs = 900000; // Default to 15 minutes
         }
+
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(secretKey).build();
+        this.verifiedTokens = new VerifiedTokenCache(verifiedCacheMaxSize);
     }
 
     // 生成 JWT 令牌
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        String userId = "";
-        if (userPrincipal instanceof User) {
-             userId = ((User) userPrincipal).getUserId(); // Assuming getUserId() exists in User entity
-        } else {
-            // Handle cases where principal might not be your User entity directly
-            // Potentially extract ID from claims if available, or throw error
-             log.warn("User principal is not an instance of com.rei.algo.model.entity.User. Cannot extract custom userId claim reliably.");
-             // Consider extracting username as fallback or throwing an error
-             // userId = userPrincipal.getUsername(); // Example fallback
+        if (userPrincipal instanceof User user) {
+            return generateToken(user);
         }
+        // Handle cases where principal might not be your User entity directly
+        log.warn("User principal is not an instance of com.rei.algo.model.entity.User. Cannot extract custom userId claim reliably.");
+        return buildToken(userPrincipal.getUsername(), "", null);
+    }
 
+    /**
+     * 为用户生成访问令牌 (登录和刷新令牌时使用)
+     * @param user 用户实体 (需要 userId、username、role)
+     * @return 签名后的 JWT
+     */
+    public String generateToken(User user) {
+        return buildToken(user.getUsername(), user.getUserId(), user.getRole());
+    }
+
+    /**
+     * @return 访问令牌有效期 (毫秒)
+     */
+    public long getAccessTokenTtlMs() {
+        return jwtExpirationInMs;
+    }
 
+    private String buildToken(String username, String userId, Role role) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
-        return Jwts.builder()
-                .setSubject(userPrincipal.getUsername()) // Usually username
-                .claim("userId", userId) // Add custom claim for user ID
-                // Add other claims if needed (e.g., roles using getAuthorities())
-                // .claim("roles", userPrincipal.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList()))
+        JwtBuilder builder = Jwts.builder()
+                .setId(IDGenerator.generateSimpleUUID()) // jti, 用于吊销
+                .setSubject(username) // Usually username
+                .claim(CLAIM_USER_ID, userId); // Add custom claim for user ID
+        if (role != null) {
+            // Lets JwtAuthenticationFilter build the principal without loading the user
+            builder.claim(CLAIM_ROLE, role.name());
+        }
+        return builder
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(secretKey, SignatureAlgorithm.HS256)
@@ -78,37 +111,58 @@ public class JwtTokenProvider {
 
     // 从 JWT 令牌中获取用户名
     public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
+        return requireClaims(token).getSubject();
     }
 
     // 从 JWT 令牌中获取用户ID (自定义声明)
-     public String getUserIdFromJWT(String token) {
-         Claims claims = Jwts.parserBuilder()
-                 .setSigningKey(secretKey)
-                 .build()
-                 .parseClaimsJws(token)
-                 .getBody();
-
-         // Safely get the userId claim
-         return claims.get("userId", String.class);
-     }
+    public String getUserIdFromJWT(String token) {
+        return requireClaims(token).get(CLAIM_USER_ID, String.class);
+    }
 
+    /**
+     * 仅根据已验证的声明 (subject / userId / role) 构建认证主体，不访问数据库。
+     *
+     * @param claims {@link #parseAndVerify(String)} 返回的声明
+     * @return 认证主体 (不含密码等敏感信息)；旧令牌缺少 userId 或 role 声明时为空，由调用方回退到加载用户
+     */
+    public Optional<User> getUserFromClaims(Claims claims) {
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        String roleName = claims.get(CLAIM_ROLE, String.class);
+        if (!StringUtils.hasText(userId) || !StringUtils.hasText(roleName)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(User.builder()
+                    .userId(userId)
+                    .username(claims.getSubject())
+                    .role(Role.valueOf(roleName))
+                    .build());
+        } catch (IllegalArgumentException e) {
+            log.warn("Unknown role claim '{}' in JWT", roleName);
+            return Optional.empty();
+        }
+    }
 
-    // 验证 JWT 令牌
-    public boolean validateToken(String authToken) {
-        if (!StringUtils.hasText(authToken)) {
-             //log.debug("JWT token is empty"); // Optional logging
-            return false;
+    /**
+     * 验证签名与有效期并返回声明，每个请求只需调用一次。
+     * 最近验证通过的令牌会被缓存 (直到过期)，重复携带同一令牌的请求跳过 base64 解码和 HMAC 计算。
+     * 返回的 Claims 可能被多个请求共享，调用方只能读取。
+     *
+     * @param token JWT 令牌
+     * @return 声明；令牌为空、签名无效、格式错误或已过期时为空
+     */
+    public Optional<Claims> parseAndVerify(String token) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
         }
         try {
-            Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(authToken);
-            return true;
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            verifiedTokens.put(token, claims);
+            return Optional.of(claims);
         } catch (SignatureException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -120,6 +174,67 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty.");
         }
-        return false;
+        return Optional.empty();
+    }
+
+    // 验证 JWT 令牌
+    public boolean validateToken(String authToken) {
+        return parseAndVerify(authToken).isPresent();
+    }
+
+    private Claims requireClaims(String token) {
+        return parseAndVerify(token).orElseThrow(() -> new JwtException("Invalid or expired JWT token"));
+    }
+
+    /**
+     * 已验证令牌的有界缓存。
+     * key 为签名段 (最后一个 '.' 之后的部分)，命中后还要比较完整令牌，
+     * 因此伪造的头部/载荷即使复用了合法签名也不会命中。过期的条目在读取时删除。
+     */
+    static final class VerifiedTokenCache {
+
+        private record Entry(String token, Claims claims, long expiresAt) {
+        }
+
+        private final int maxSize;
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        VerifiedTokenCache(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        Claims get(String token) {
+            if (maxSize <= 0) {
+                return null;
+            }
+            String key = signatureOf(token);
+            Entry entry = entries.get(key);
+            if (entry == null || !entry.token().equals(token)) {
+                return null;
+            }
+            if (entry.expiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key, entry);
+                return null;
+            }
+            return entry.claims();
+        }
+
+        void put(String token, Claims claims) {
+            if (maxSize <= 0 || claims.getExpiration() == null) {
+                return; // never cache tokens without an expiry
+            }
+            if (entries.size() >= maxSize) {
+                long now = System.currentTimeMillis();
+                entries.values().removeIf(entry -> entry.expiresAt() <= now);
+                if (entries.size() >= maxSize) {
+                    entries.clear();
+                }
+            }
+            entries.put(signatureOf(token), new Entry(token, claims, claims.getExpiration().getTime()));
+        }
+
+        private static String signatureOf(String token) {
+            return token.substring(token.lastIndexOf('.') + 1);
+        }
     }
-} 
\ No newline at end of file
+}
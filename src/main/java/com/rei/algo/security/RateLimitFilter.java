@@ -0,0 +1,237 @@
+package com.rei.algo.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rei.algo.model.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按路由配置的限流过滤器，位于 JWT 过滤器之后 (USER 维度需要已认证的用户)。
+ * <p>
+ * 超限的请求直接返回 429 和 Retry-After，不会进入 BCrypt 或数据库写入。
+ * 由 SecurityConfig 创建并加入 Spring Security 过滤器链，不注册为 Bean，避免被 Servlet 容器重复注册。
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final List<CompiledRoute> routes;
+    private final RateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final int maxBodyBytes;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.maxBodyBytes = properties.getMaxBodyBytes();
+        this.limiter = new RateLimiter(properties.getMaxKeys(), properties.getSweepInterval().toNanos());
+        this.routes = properties.getRoutes().stream()
+                .map(route -> new CompiledRoute(route, meterRegistry))
+                .toList();
+        log.info("Rate limiting enabled for {} route(s)", routes.size());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        // All matching routes must admit the request; if one rejects it, tokens taken from the others are returned
+        long waitNanos = 0;
+        List<Acquired> acquired = new ArrayList<>(2);
+        for (CompiledRoute route : routes) {
+            if (!route.matcher.matches(request)) {
+                continue;
+            }
+            if (route.keyType == RateLimitProperties.KeyType.USERNAME && !(request instanceof CachedBodyRequest)) {
+                request = CachedBodyRequest.wrap(request, maxBodyBytes);
+            }
+            String key = route.name + '|' + resolveKey(route.keyType, request);
+            long wait = limiter.tryAcquire(key, route.emissionIntervalNanos, route.burst);
+            if (wait > 0) {
+                if (route.throttled != null) {
+                    route.throttled.increment();
+                }
+                waitNanos = wait;
+                break;
+            }
+            acquired.add(new Acquired(key, route.emissionIntervalNanos));
+        }
+
+        if (waitNanos > 0) {
+            acquired.forEach(token -> limiter.refund(token.key, token.emissionIntervalNanos));
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            log.debug("Rate limit exceeded for {} {} from {}, retry after {}s",
+                    request.getMethod(), request.getRequestURI(), request.getRemoteAddr(), retryAfterSeconds);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value()); // 429
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("{\"error\": \"Too Many Requests\", \"message\": \"请求过于频繁，请稍后重试\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // --- Helper Methods --- //
+
+    private String resolveKey(RateLimitProperties.KeyType keyType, HttpServletRequest request) {
+        switch (keyType) {
+            case USER -> {
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.getPrincipal() instanceof User user && user.getUserId() != null) {
+                    return "u:" + user.getUserId();
+                }
+            }
+            case USERNAME -> {
+                String username = extractUsername(request);
+                if (username != null) {
+                    // 与数据库 _ci 排序规则一致：大小写不同的用户名共用一个桶
+                    return "n:" + username.toLowerCase(Locale.ROOT);
+                }
+            }
+            default -> {
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private String extractUsername(HttpServletRequest request) {
+        if (!(request instanceof CachedBodyRequest cached) || cached.body == null) {
+            return null;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(cached.body).get("username");
+            return username != null && username.isTextual() && StringUtils.hasText(username.asText())
+                    ? username.asText().trim()
+                    : null;
+        } catch (IOException e) {
+            return null; // malformed JSON is rejected later by the controller
+        }
+    }
+
+    private record Acquired(String key, long emissionIntervalNanos) {
+    }
+
+    private static final class CompiledRoute {
+        private final String name;
+        private final RequestMatcher matcher;
+        private final RateLimitProperties.KeyType keyType;
+        private final long emissionIntervalNanos;
+        private final int burst;
+        private final Counter throttled;
+
+        CompiledRoute(RateLimitProperties.Route route, MeterRegistry meterRegistry) {
+            Assert.hasText(route.getName(), "Rate limit route name cannot be empty");
+            Assert.notEmpty(route.getPatterns(), "Rate limit route '" + route.getName() + "' needs at least one pattern");
+            Assert.isTrue(route.getLimit() > 0, "Rate limit route '" + route.getName() + "' needs a positive limit");
+            String method = StringUtils.hasText(route.getMethod()) ? route.getMethod().toUpperCase(Locale.ROOT) : null;
+            this.name = route.getName();
+            this.matcher = new OrRequestMatcher(route.getPatterns().stream()
+                    .map(pattern -> (RequestMatcher) new AntPathRequestMatcher(pattern, method))
+                    .toList());
+            this.keyType = route.getKey();
+            this.emissionIntervalNanos = Math.max(1, route.getPeriod().toNanos() / route.getLimit());
+            this.burst = route.getBurst() > 0 ? route.getBurst() : route.getLimit();
+            this.throttled = meterRegistry != null
+                    ? Counter.builder("http.server.requests.throttled").tag("route", name)
+                            .description("Requests rejected by the rate limiter").register(meterRegistry)
+                    : null;
+        }
+    }
+
+    /**
+     * 预先读取 (有上限的) 请求体以便提取用户名，之后向下游重放同一份字节
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body; // null when the body was too large or of unknown length
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        static HttpServletRequest wrap(HttpServletRequest request, int maxBodyBytes) throws IOException {
+            long length = request.getContentLengthLong();
+            if (length < 0 || length > maxBodyBytes) {
+                return request; // leave the stream untouched, the caller falls back to the IP key
+            }
+            return new CachedBodyRequest(request, request.getInputStream().readNBytes((int) length));
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is already in memory: it is available at once and nothing more will arrive
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
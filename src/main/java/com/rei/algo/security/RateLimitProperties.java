@@ -0,0 +1,57 @@
+package com.rei.algo.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 限流配置 (rate-limit.*)，每条路由单独配置速率、突发量和限流维度。
+ * <p>
+ * 一个请求可以同时匹配多条路由 (例如登录同时按 IP 和按用户名限流)，任意一条超限即返回 429。
+ */
+@Data
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** 内存中最多保留的桶数量，超过时先清理空闲桶，仍然超过则整体清空 */
+    private int maxKeys = 100_000;
+
+    /** 清理空闲 (已回满) 桶的间隔 */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+
+    /** USERNAME 维度需要读取请求体，超过该长度的请求体按 IP 限流 */
+    private int maxBodyBytes = 8192;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+        /** 路由名称，用作桶的命名空间和指标标签 */
+        private String name;
+        /** HTTP 方法，为空表示任意方法 */
+        private String method;
+        /** Ant 风格的路径模式 */
+        private List<String> patterns = new ArrayList<>();
+        /** 限流维度 */
+        private KeyType key = KeyType.IP;
+        /** 每个 period 内允许的请求数 (稳态速率) */
+        private int limit;
+        private Duration period = Duration.ofMinutes(1);
+        /** 允许的突发请求数，0 表示等于 limit */
+        private int burst;
+    }
+
+    public enum KeyType {
+        /** 客户端 IP (request.getRemoteAddr()，代理场景需配置 server.forward-headers-strategy) */
+        IP,
+        /** 已认证用户 ID，未登录时退化为 IP */
+        USER,
+        /** 请求体 JSON 中的 username 字段 (登录)，取不到时退化为 IP */
+        USERNAME
+    }
+}
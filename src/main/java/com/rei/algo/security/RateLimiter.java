@@ -0,0 +1,98 @@
+package com.rei.algo.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶限流器 (GCRA 形式)。
+ * <p>
+ * 每个桶只保存一个 long：理论到达时间 TAT (theoretical arrival time)。令牌桶"当前令牌数"与 TAT 一一对应，
+ * 获取令牌就是把 TAT 往后推一个发射间隔，用一次 CAS 完成，不需要锁也不需要单独的补充 (refill) 逻辑。
+ * 桶存放在 {@link ConcurrentHashMap} 中 (内部按桶分段加锁，读取无锁)。
+ * <p>
+ * TAT 不晚于当前时间的桶已经回满，删除它与保留它完全等价，因此定期清理这些空闲桶不会影响限流结果。
+ */
+@Slf4j
+public class RateLimiter {
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    private final long origin = System.nanoTime();
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    /**
+     * @param maxKeys            最多保留的桶数量
+     * @param sweepIntervalNanos 清理空闲桶的间隔
+     */
+    public RateLimiter(int maxKeys, long sweepIntervalNanos) {
+        this.maxKeys = maxKeys;
+        this.sweepIntervalNanos = sweepIntervalNanos;
+    }
+
+    /**
+     * 尝试从 key 对应的桶中获取一个令牌
+     *
+     * @param key                   桶的键
+     * @param emissionIntervalNanos 每个令牌的补充间隔 (period / limit)
+     * @param burst                 桶容量
+     * @return 0 表示放行；否则为需要等待的纳秒数
+     */
+    public long tryAcquire(String key, long emissionIntervalNanos, int burst) {
+        long now = System.nanoTime() - origin;
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            maybeSweep(now);
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        long capacity = emissionIntervalNanos * burst;
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long excess = next - now - capacity;
+            if (excess > 0) {
+                return excess;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 归还一个已获取的令牌 (同一请求的其他路由超限时调用，被拒绝的请求不应消耗任何桶)
+     *
+     * @param key                   桶的键
+     * @param emissionIntervalNanos 获取时使用的补充间隔
+     */
+    public void refund(String key, long emissionIntervalNanos) {
+        AtomicLong tat = buckets.get(key);
+        if (tat != null) {
+            // A swept bucket was already full, nothing to give back
+            tat.addAndGet(-emissionIntervalNanos);
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // --- Helper Methods --- //
+
+    // Only the thread that wins the CAS sweeps; others go on without waiting
+    private void maybeSweep(long now) {
+        long last = lastSweep.get();
+        boolean due = now - last >= sweepIntervalNanos;
+        boolean full = buckets.size() >= maxKeys;
+        if ((due || full) && lastSweep.compareAndSet(last, now)) {
+            buckets.values().removeIf(tat -> tat.get() <= now);
+            if (buckets.size() >= maxKeys) {
+                log.warn("Rate limiter holds {} active bucket(s) (max {}), clearing all.", buckets.size(), maxKeys);
+                buckets.clear();
+            }
+        }
+    }
+}
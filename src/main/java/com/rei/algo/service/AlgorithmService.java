@@ -50,24 +50,27 @@ public interface AlgorithmService {
      * @param userId 用户 ID
      * @param pageNum 页码 (从 1 开始)
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数；false 时不执行 COUNT，只返回 hasNext
      * @return 分页后的算法 DTO 列表
      */
-    PageDTO<AlgorithmDTO> getAlgorithmsByUserId(String userId, int pageNum, int pageSize);
+    PageDTO<AlgorithmDTO> getAlgorithmsByUserId(String userId, int pageNum, int pageSize, boolean withTotal);
 
     /**
      * 搜索公开的算法 (分页)
      * @param keyword 关键字 (可能为空或 null)
      * @param pageNum 页码 (从 1 开始)
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数；false 时不执行 COUNT，只返回 hasNext
      * @return 分页后的算法 DTO 列表
      */
-    PageDTO<AlgorithmDTO> searchPublicAlgorithms(String keyword, int pageNum, int pageSize);
+    PageDTO<AlgorithmDTO> searchPublicAlgorithms(String keyword, int pageNum, int pageSize, boolean withTotal);
 
     /**
      * 获取所有公开的算法 (分页)
      * @param pageNum 页码 (从 1 开始)
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数；false 时不执行 COUNT，只返回 hasNext
      * @return 分页后的算法 DTO 列表
      */
-    PageDTO<AlgorithmDTO> listPublicAlgorithms(int pageNum, int pageSize);
+    PageDTO<AlgorithmDTO> listPublicAlgorithms(int pageNum, int pageSize, boolean withTotal);
 } 
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.rei.algo.service;
+
+import com.rei.algo.DTO.auth.LoginResponseDTO;
+
+/**
+ * 令牌服务：刷新令牌的签发与轮换、登出时的吊销
+ */
+public interface AuthTokenService {
+
+    /**
+     * 为刚登录的用户签发新的刷新令牌 (开启一条新的轮换链)
+     * @param userId 用户 ID
+     * @return 刷新令牌 (只在此时以明文返回给客户端)
+     */
+    String issueRefreshToken(String userId);
+
+    /**
+     * 使用刷新令牌换取新的访问令牌和刷新令牌，旧的刷新令牌随即作废。
+     * 已作废的刷新令牌被再次使用时视为泄露，整条轮换链都会被作废。
+     *
+     * @param refreshToken 刷新令牌
+     * @return 新的令牌对
+     * @throws org.springframework.security.authentication.BadCredentialsException 令牌无效、过期或已被使用
+     */
+    LoginResponseDTO refresh(String refreshToken);
+
+    /**
+     * 登出：吊销当前访问令牌，并作废刷新令牌所在的轮换链
+     * @param accessToken 当前访问令牌 (可为空)
+     * @param refreshToken 刷新令牌 (可为空)
+     */
+    void logout(String accessToken, String refreshToken);
+}
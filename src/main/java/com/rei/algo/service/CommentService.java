@@ -44,18 +44,20 @@ public interface CommentService {
      * @param postId 帖子 ID
      * @param pageNum 页码 (针对顶级评论)
      * @param pageSize 每页数量 (针对顶级评论)
+     * @param withTotal 是否计算总数；false 时不执行 COUNT，只返回 hasNext
      * @return 分页后的顶级评论 DTO 列表 (每个 DTO 可能包含其下所有回复)
      */
-    PageDTO<CommentDTO> getCommentsByPostId(String postId, int pageNum, int pageSize);
+    PageDTO<CommentDTO> getCommentsByPostId(String postId, int pageNum, int pageSize, boolean withTotal);
 
     /**
      * 根据用户 ID 获取该用户发表的评论列表 (分页)
      * @param userId 用户 ID
      * @param pageNum 页码
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数；false 时不执行 COUNT，只返回 hasNext
      * @return 分页后的评论 DTO 列表 (包含作者信息) // 可能需要包含 Post 摘要
      */
-    PageDTO<CommentDTO> getCommentsByUserId(String userId, int pageNum, int pageSize);
+    PageDTO<CommentDTO> getCommentsByUserId(String userId, int pageNum, int pageSize, boolean withTotal);
 
      /**
      * 根据评论ID获取单条评论及其回复(如果需要单独获取)
@@ -1,12 +1,15 @@
 package com.rei.algo.service;
 
+import com.rei.algo.DTO.CursorPageDTO;
 import com.rei.algo.DTO.PageDTO;
 import com.rei.algo.DTO.post.PostCreateRequestDTO;
 import com.rei.algo.DTO.post.PostDTO;
 import com.rei.algo.DTO.post.PostUpdateRequestDTO;
 import com.rei.algo.DTO.post.PostSummaryDTO;
 import com.rei.algo.model.enums.EvaluationType;
+import com.rei.algo.model.enums.TagMatchMode;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -52,26 +55,29 @@ public interface PostService {
      * @param userId 用户 ID
      * @param pageNum 页码 (从 1 开始)
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数；false 时不执行 COUNT，只返回 hasNext
      * @return 分页后的帖子梗概 DTO 列表
      */
-    PageDTO<PostSummaryDTO> getPostsByUserId(String userId, int pageNum, int pageSize);
+    PageDTO<PostSummaryDTO> getPostsByUserId(String userId, int pageNum, int pageSize, boolean withTotal);
 
     /**
      * 搜索帖子梗概 (标题或内容关键字，分页)
      * @param keyword 关键字 (可能为空)
      * @param pageNum 页码 (从 1 开始)
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数；false 时不执行 COUNT，只返回 hasNext
      * @return 分页后的帖子梗概 DTO 列表
      */
-    PageDTO<PostSummaryDTO> searchPosts(String keyword, int pageNum, int pageSize);
+    PageDTO<PostSummaryDTO> searchPosts(String keyword, int pageNum, int pageSize, boolean withTotal);
 
      /**
      * 获取所有帖子梗概列表 (分页)
      * @param pageNum 页码 (从 1 开始)
      * @param pageSize 每页数量
+     * @param withTotal 是否计算总数；false 时不执行 COUNT，只返回 hasNext
      * @return 分页后的帖子梗概 DTO 列表
      */
-    PageDTO<PostSummaryDTO> listAllPosts(int pageNum, int pageSize);
+    PageDTO<PostSummaryDTO> listAllPosts(int pageNum, int pageSize, boolean withTotal);
 
     /**
      * 获取帖子梗概列表（分页）。
@@ -97,6 +103,14 @@ public interface PostService {
      */
     void evaluatePost(String postId, String userId, EvaluationType evaluationType);
 
-    // TODO: 添加根据标签查询帖子的方法
-    // PageDTO<PostDTO> getPostsByTag(String tagId, int pageNum, int pageSize);
+    /**
+     * 按标签列出帖子梗概 (keyset 分页，按创建时间倒序)
+     * @param tagIds 标签 ID 列表 (至少一个)
+     * @param matchMode 多标签匹配方式 (AND/OR)，单标签时忽略
+     * @param cursor 上一页返回的游标 (第一页为空)
+     * @param pageSize 每页数量
+     * @return 游标分页后的帖子梗概 DTO 列表
+     * @throws IllegalArgumentException 如果游标格式不正确
+     */
+    CursorPageDTO<PostSummaryDTO> getPostsByTags(List<String> tagIds, TagMatchMode matchMode, String cursor, int pageSize);
 } 
\ No newline at end of file
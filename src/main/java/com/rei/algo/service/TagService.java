@@ -1,8 +1,12 @@
 package com.rei.algo.service;
 
+import com.rei.algo.DTO.tag.SerializedTagListDTO;
+import com.rei.algo.DTO.tag.TagStatDTO;
 import com.rei.algo.model.entity.Tag;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -29,7 +33,7 @@ public interface TagService {
 
     /**
      * 根据一批名称查找或创建标签实体。
-     * 内部使用。
+     * 内部使用。最多三次数据库往返：批量查询、批量 INSERT IGNORE 缺失名称、批量回查。
      *
      * @param tagNames 标签名称集合 (不应为空或包含空字符串)
      * @return 标签实体列表 (ID 已填充)
@@ -38,11 +42,17 @@ public interface TagService {
 
 
     /**
-     * 获取所有标签
+     * 获取所有标签 (由内存标签字典提供)
      * @return 标签 DTO 列表
      */
     List<Tag> getAllTags();
 
+    /**
+     * 获取所有标签的预序列化 JSON 及 ETag
+     * @return 序列化后的标签列表
+     */
+    SerializedTagListDTO getAllTagsSerialized();
+
     /**
      * 根据帖子 ID 获取标签列表
      * @param postId 帖子 ID
@@ -50,13 +60,49 @@ public interface TagService {
      */
     List<Tag> getTagsByPostId(String postId);
 
+    /**
+     * 批量获取多个帖子的标签 (一次查询 post_tag，标签详情由内存字典补全)
+     * @param postIds 帖子 ID 集合
+     * @return postId -> 按名称排序的标签列表；没有标签的帖子不在结果中
+     */
+    Map<String, List<Tag>> getTagsByPostIds(Collection<String> postIds);
+
+    /**
+     * 获取每个标签的帖子数 (由内存计数器提供，不查询数据库)
+     * @return 按帖子数降序的标签统计列表
+     */
+    List<TagStatDTO> getTagPostCounts();
+
+    /**
+     * 获取按时间衰减热度排序的热门标签
+     * @param limit 最多返回的数量
+     * @return 热门标签列表 (热度降序)
+     */
+    List<TagStatDTO> getTrendingTags(int limit);
+
+    /**
+     * 标签自动补全 (内存前缀树，按帖子数排序)
+     * @param prefix 输入前缀，大小写不敏感，也可从名称中任一单词开头匹配
+     * @param limit 最多返回的数量
+     * @return 匹配的标签列表
+     */
+    List<TagStatDTO> suggestTags(String prefix, int limit);
+
+    /**
+     * 获取与指定标签最常一起使用的标签 (内存共现矩阵，不做 post_tag 自连接)
+     * @param tagId 标签 ID
+     * @param limit 最多返回的数量
+     * @return 相关标签列表，postCount 为共同出现的帖子数
+     * @throws com.rei.algo.exception.ResourceNotFoundException 标签不存在
+     */
+    List<TagStatDTO> getRelatedTags(String tagId, int limit);
 
     // 可选的管理员操作:
     /**
      * 删除标签 (管理员权限)
-     * 注意：需要考虑是否解除与帖子的关联，或者依赖数据库外键约束。
+     * 与帖子的关联由 post_tag 外键 ON DELETE CASCADE 解除。
      * @param tagId 标签 ID
      */
-    // void deleteTag(String tagId);
+    void deleteTag(String tagId);
 
 } 
\ No newline at end of file
@@ -2,16 +2,20 @@ package com.rei.algo.service;
 
 import com.rei.algo.model.entity.User;
 import com.rei.algo.DTO.user.UserDTO;
+import com.rei.algo.DTO.user.UserImportResultDTO;
 import com.rei.algo.DTO.auth.RegisterRequestDTO;
 import com.rei.algo.DTO.user.UserProfileUpdateDTO;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * 用户服务接口，包含用户管理和 Spring Security 的 UserDetailsService 功能
+ * (UserDetailsPasswordService 用于登录时按新的 BCrypt cost 透明地重新哈希密码)
  */
-public interface UserService extends UserDetailsService { // 继承 UserDetailsService
+public interface UserService extends UserDetailsService, UserDetailsPasswordService { // 继承 UserDetailsService
 
     /**
      * 用户注册
@@ -21,6 +25,13 @@ public interface UserService extends UserDetailsService { // 继承 UserDetailsS
      */
     UserDTO registerUser(RegisterRequestDTO registerRequest);
 
+    /**
+     * 批量导入用户 (管理员)：并行计算密码哈希，按块批量插入；用户名或邮箱已存在的用户被跳过
+     * @param registerRequests 用户注册信息列表
+     * @return 导入结果 (导入数量和被跳过的用户名)
+     */
+    UserImportResultDTO importUsers(List<RegisterRequestDTO> registerRequests);
+
     /**
      * 根据用户 ID 获取用户信息
      * @param userId 用户 ID
@@ -35,6 +46,13 @@ public interface UserService extends UserDetailsService { // 继承 UserDetailsS
      */
     Optional<User> findUserByUsername(String username);
 
+    /**
+     * 根据用户 ID 获取用户实体 (内部使用，例如刷新令牌时重新签发访问令牌)
+     * @param userId 用户 ID
+     * @return 用户实体 (Optional)
+     */
+    Optional<User> findUserById(String userId);
+
 
     /**
      * 更新用户个人资料 (例如头像、邮箱等，通常不允许修改用户名、密码、角色)
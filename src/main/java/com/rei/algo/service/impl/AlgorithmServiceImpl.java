@@ -3,11 +3,12 @@ package com.rei.algo.service.impl;
 import com.rei.algo.DTO.algorithm.AlgorithmDTO;
 import com.rei.algo.DTO.PageDTO;
 import com.rei.algo.DTO.user.UserDTO;
+import com.rei.algo.cache.CountCache;
 import com.rei.algo.mapper.AlgorithmMapper;
 import com.rei.algo.mapper.UserMapper; // 用于获取用户信息
 import com.rei.algo.model.entity.Algorithm;
+import com.rei.algo.model.entity.User;
 import com.rei.algo.service.AlgorithmService;
-import com.rei.algo.util.IDGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils; // For simple property copying
 import org.springframework.security.access.AccessDeniedException; // Specific exception for authorization failure
@@ -18,9 +19,13 @@ import org.springframework.util.StringUtils; // For checking empty strings
 
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +34,14 @@ public class AlgorithmServiceImpl implements AlgorithmService {
 
     private final AlgorithmMapper algorithmMapper;
     private final UserMapper userMapper; // Inject UserMapper to fetch author details
+    private final EntityIdGenerator entityIdGenerator;
+    private final PagedQueryExecutor pagedQueryExecutor;
+    private final CountCache countCache;
+
+    // CountCache keys; invalidated by prefix after algorithm writes commit
+    private static final String COUNT_BY_USER = "algorithm:user:";
+    private static final String COUNT_PUBLIC = "algorithm:public";  // also the prefix of the keyword counts
+    private static final String COUNT_PUBLIC_BY_KEYWORD = "algorithm:public:keyword:";
 
     @Override
     @Transactional
@@ -41,12 +54,13 @@ public class AlgorithmServiceImpl implements AlgorithmService {
 
 
         Algorithm algorithm = convertToEntity(algorithmDTO);
-        algorithm.setAlgoId(IDGenerator.generateAlphanumericId()); // Generate ID
+        algorithm.setAlgoId(entityIdGenerator.nextId()); // Generate ID
         algorithm.setUserId(creatorUserId);
         algorithm.setCreatedAt(LocalDateTime.now());
         algorithm.setUpdatedAt(LocalDateTime.now());
 
         algorithmMapper.insert(algorithm);
+        countCache.invalidateAfterCommit(COUNT_BY_USER + creatorUserId, COUNT_PUBLIC);
 
         return convertToDTO(algorithm); // Return DTO of the created algorithm
     }
@@ -85,6 +99,7 @@ public class AlgorithmServiceImpl implements AlgorithmService {
          if (updatedRows == 0) {
              throw new RuntimeException("Failed to update algorithm with ID: " + algoId);
          }
+        countCache.invalidateAfterCommit(COUNT_PUBLIC); // visibility, title or description may have changed
 
         // 5. Fetch updated algorithm and return DTO
         return getAlgorithmById(algoId, currentUserId)
@@ -113,6 +128,7 @@ public class AlgorithmServiceImpl implements AlgorithmService {
              // Should not happen if findById succeeded, unless deleted concurrently
              throw new RuntimeException("Failed to delete algorithm with ID: " + algoId);
          }
+        countCache.invalidateAfterCommit(COUNT_BY_USER + existingAlgorithm.getUserId(), COUNT_PUBLIC);
     }
 
     @Override
@@ -134,57 +150,41 @@ public class AlgorithmServiceImpl implements AlgorithmService {
                  });
     }
 
+    // 分页方法不加 @Transactional：PagedQueryExecutor 让 COUNT 与取页各用一个只读事务并行执行
     @Override
-    @Transactional(readOnly = true)
-    public PageDTO<AlgorithmDTO> getAlgorithmsByUserId(String userId, int pageNum, int pageSize) {
+    public PageDTO<AlgorithmDTO> getAlgorithmsByUserId(String userId, int pageNum, int pageSize, boolean withTotal) {
         Assert.hasText(userId, "User ID cannot be empty");
         validatePageParams(pageNum, pageSize);
 
-        int offset = (pageNum - 1) * pageSize;
-        long total = algorithmMapper.countByUserId(userId);
-        List<Algorithm> algorithms = algorithmMapper.findByUserId(userId, offset, pageSize);
-
-        List<AlgorithmDTO> dtos = algorithms.stream()
-                                          .map(this::convertToDTO) // No need for user info here usually
-                                          .collect(Collectors.toList());
-        long totalPages = (total + pageSize - 1) / pageSize;
-
-        return new PageDTO<>(pageNum, pageSize, total, (int)totalPages, dtos);
+        return pagedQueryExecutor.fetch(pageNum, pageSize, withTotal,
+                () -> countCache.exact(COUNT_BY_USER + userId, () -> algorithmMapper.countByUserId(userId)),
+                (offset, limit) -> algorithmMapper.findByUserId(userId, offset, limit),
+                algorithms -> algorithms.stream()
+                        .map(this::convertToDTO) // No need for user info here usually
+                        .collect(Collectors.toList()));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public PageDTO<AlgorithmDTO> searchPublicAlgorithms(String keyword, int pageNum, int pageSize) {
+    public PageDTO<AlgorithmDTO> searchPublicAlgorithms(String keyword, int pageNum, int pageSize, boolean withTotal) {
         validatePageParams(pageNum, pageSize);
-        int offset = (pageNum - 1) * pageSize;
         String searchKeyword = StringUtils.hasText(keyword) ? keyword.trim() : null;
 
-        long total = algorithmMapper.countPublicByKeyword(searchKeyword);
-        List<Algorithm> algorithms = algorithmMapper.searchPublic(searchKeyword, offset, pageSize);
-
-        List<AlgorithmDTO> dtos = algorithms.stream()
-                                          .map(this::convertToDTOWithUser) // Include user info for public lists
-                                          .collect(Collectors.toList());
-        long totalPages = (total + pageSize - 1) / pageSize;
-
-        return new PageDTO<>(pageNum, pageSize, total, (int)totalPages, dtos);
+        return pagedQueryExecutor.fetch(pageNum, pageSize, withTotal,
+                () -> countCache.upTo(COUNT_PUBLIC_BY_KEYWORD + keywordKey(searchKeyword),
+                        () -> algorithmMapper.countPublicByKeyword(searchKeyword),
+                        limit -> algorithmMapper.countPublicByKeywordUpTo(searchKeyword, limit)),
+                (offset, limit) -> algorithmMapper.searchPublic(searchKeyword, offset, limit),
+                this::convertToDTOsWithUsers); // Include user info for public lists
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public PageDTO<AlgorithmDTO> listPublicAlgorithms(int pageNum, int pageSize) {
+    public PageDTO<AlgorithmDTO> listPublicAlgorithms(int pageNum, int pageSize, boolean withTotal) {
        validatePageParams(pageNum, pageSize);
-       int offset = (pageNum - 1) * pageSize;
-
-       long total = algorithmMapper.countAllPublic();
-       List<Algorithm> algorithms = algorithmMapper.findAllPublic(offset, pageSize);
 
-       List<AlgorithmDTO> dtos = algorithms.stream()
-                                          .map(this::convertToDTOWithUser) // Include user info for public lists
-                                          .collect(Collectors.toList());
-       long totalPages = (total + pageSize - 1) / pageSize;
-
-       return new PageDTO<>(pageNum, pageSize, total, (int)totalPages, dtos);
+       return pagedQueryExecutor.fetch(pageNum, pageSize, withTotal,
+               () -> countCache.upTo(COUNT_PUBLIC, algorithmMapper::countAllPublic, algorithmMapper::countAllPublicUpTo),
+               algorithmMapper::findAllPublic,
+               this::convertToDTOsWithUsers); // Include user info for public lists
     }
 
      // --- Helper Methods --- //
@@ -194,6 +194,11 @@ public class AlgorithmServiceImpl implements AlgorithmService {
         Assert.isTrue(pageSize >= 1 && pageSize <= 100, "Page size must be between 1 and 100"); // Example limit
     }
 
+    // Keyword matching is case-insensitive (utf8mb4_unicode_ci), so differently cased keywords share a count
+    private static String keywordKey(String keyword) {
+        return keyword == null ? "" : keyword.toLowerCase(Locale.ROOT);
+    }
+
     private AlgorithmDTO convertToDTO(Algorithm algorithm) {
         if (algorithm == null) return null;
         AlgorithmDTO dto = new AlgorithmDTO();
@@ -222,6 +227,28 @@ public class AlgorithmServiceImpl implements AlgorithmService {
         return dto;
     }
 
+    // List variant: the authors of a whole page are loaded with one query instead of one per algorithm
+    private List<AlgorithmDTO> convertToDTOsWithUsers(List<Algorithm> algorithms) {
+        Set<String> userIds = algorithms.stream()
+                .map(Algorithm::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, UserDTO> authors = userIds.isEmpty() ? Collections.emptyMap()
+                : userMapper.findSummariesByIds(userIds).stream()
+                        .collect(Collectors.toMap(User::getUserId, user -> UserDTO.builder()
+                                .userId(user.getUserId())
+                                .username(user.getUsername())
+                                .avatarUrl(user.getAvatarUrl())
+                                .build()));
+        return algorithms.stream()
+                .map(algorithm -> {
+                    AlgorithmDTO dto = convertToDTO(algorithm);
+                    dto.setUser(authors.get(algorithm.getUserId()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
     private Algorithm convertToEntity(AlgorithmDTO dto) {
         if (dto == null) return null;
         Algorithm entity = new Algorithm();
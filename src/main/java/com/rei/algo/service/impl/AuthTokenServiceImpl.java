@@ -0,0 +1,186 @@
+package com.rei.algo.service.impl;
+
+import com.rei.algo.DTO.auth.LoginResponseDTO;
+import com.rei.algo.cache.RevokedTokenRegistry;
+import com.rei.algo.mapper.AuthTokenMapper;
+import com.rei.algo.model.entity.RefreshToken;
+import com.rei.algo.model.entity.User;
+import com.rei.algo.security.JwtTokenProvider;
+import com.rei.algo.service.AuthTokenService;
+import com.rei.algo.service.UserService;
+import com.rei.algo.util.IDGenerator;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.HexFormat;
+
+@Service
+@Slf4j
+public class AuthTokenServiceImpl implements AuthTokenService {
+
+    private static final String INVALID_REFRESH_TOKEN = "刷新令牌无效或已过期";
+    private static final int SECRET_BYTES = 32;
+
+    private final AuthTokenMapper authTokenMapper;
+    private final RevokedTokenRegistry revokedTokenRegistry;
+    private final JwtTokenProvider tokenProvider;
+    private final UserService userService;
+    private final long refreshTokenTtlMs;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public AuthTokenServiceImpl(AuthTokenMapper authTokenMapper,
+                                RevokedTokenRegistry revokedTokenRegistry,
+                                JwtTokenProvider tokenProvider,
+                                UserService userService,
+                                @Value("${jwt.refresh-expiration-ms:1209600000}") long refreshTokenTtlMs) {
+        this.authTokenMapper = authTokenMapper;
+        this.revokedTokenRegistry = revokedTokenRegistry;
+        this.tokenProvider = tokenProvider;
+        this.userService = userService;
+        this.refreshTokenTtlMs = refreshTokenTtlMs;
+    }
+
+    @Override
+    @Transactional
+    public String issueRefreshToken(String userId) {
+        Assert.hasText(userId, "User ID cannot be empty");
+        return createRefreshToken(userId, IDGenerator.generateSimpleUUID());
+    }
+
+    @Override
+    @Transactional(noRollbackFor = BadCredentialsException.class) // family revocation on reuse must be kept
+    public LoginResponseDTO refresh(String refreshToken) {
+        Assert.hasText(refreshToken, "Refresh token cannot be empty");
+        int separator = refreshToken.indexOf('.');
+        if (separator <= 0 || separator == refreshToken.length() - 1) {
+            throw new BadCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+        String tokenId = refreshToken.substring(0, separator);
+        String secret = refreshToken.substring(separator + 1);
+
+        RefreshToken stored = authTokenMapper.findRefreshTokenById(tokenId)
+                .filter(token -> hashMatches(secret, token.getTokenHash()))
+                .orElseThrow(() -> new BadCredentialsException(INVALID_REFRESH_TOKEN));
+
+        if (stored.getReplacedBy() != null || stored.getRevokedAt() != null) {
+            reuseDetected(stored);
+        }
+        if (!stored.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new BadCredentialsException(INVALID_REFRESH_TOKEN);
+        }
+
+        User user = userService.findUserById(stored.getUserId())
+                .orElseThrow(() -> new BadCredentialsException(INVALID_REFRESH_TOKEN));
+
+        // Rotate: the conditional update lets exactly one of two concurrent refreshes win
+        String newTokenId = IDGenerator.generateSimpleUUID();
+        if (authTokenMapper.markRefreshTokenReplaced(tokenId, newTokenId) == 0) {
+            reuseDetected(stored);
+        }
+        String newRefreshToken = createRefreshToken(user.getUserId(), stored.getFamilyId(), newTokenId);
+
+        return new LoginResponseDTO(tokenProvider.generateToken(user), newRefreshToken,
+                tokenProvider.getAccessTokenTtlMs() / 1000);
+    }
+
+    @Override
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        if (StringUtils.hasText(accessToken)) {
+            tokenProvider.parseAndVerify(accessToken).ifPresent(this::revokeAccessToken);
+        }
+        if (StringUtils.hasText(refreshToken)) {
+            int separator = refreshToken.indexOf('.');
+            if (separator > 0) {
+                String secret = refreshToken.substring(separator + 1);
+                authTokenMapper.findRefreshTokenById(refreshToken.substring(0, separator))
+                        .filter(token -> hashMatches(secret, token.getTokenHash()))
+                        .ifPresent(token -> authTokenMapper.revokeRefreshTokenFamily(token.getFamilyId()));
+            }
+        }
+    }
+
+    /**
+     * 定期清理已过期的刷新令牌和吊销记录
+     */
+    @Scheduled(fixedDelayString = "${jwt.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshTokens = authTokenMapper.deleteExpiredRefreshTokens(now);
+        int revokedTokens = authTokenMapper.deleteExpiredRevokedTokens(now);
+        if (refreshTokens > 0 || revokedTokens > 0) {
+            log.info("Purged {} expired refresh token(s) and {} expired revocation(s).", refreshTokens, revokedTokens);
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private String createRefreshToken(String userId, String familyId) {
+        return createRefreshToken(userId, familyId, IDGenerator.generateSimpleUUID());
+    }
+
+    private String createRefreshToken(String userId, String familyId, String tokenId) {
+        byte[] secretBytes = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(secretBytes);
+        String secret = Base64.getUrlEncoder().withoutPadding().encodeToString(secretBytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        authTokenMapper.insertRefreshToken(RefreshToken.builder()
+                .tokenId(tokenId)
+                .userId(userId)
+                .familyId(familyId)
+                .tokenHash(sha256Hex(secret))
+                .createdAt(now)
+                .expiresAt(now.plusNanos(refreshTokenTtlMs * 1_000_000))
+                .build());
+        return tokenId + "." + secret;
+    }
+
+    // A refresh token that was already rotated or revoked is being presented again: assume it leaked
+    private void reuseDetected(RefreshToken token) {
+        int revoked = authTokenMapper.revokeRefreshTokenFamily(token.getFamilyId());
+        log.warn("Refresh token reuse detected for user {} (family {}), revoked {} token(s).",
+                token.getUserId(), token.getFamilyId(), revoked);
+        throw new BadCredentialsException(INVALID_REFRESH_TOKEN);
+    }
+
+    private void revokeAccessToken(Claims claims) {
+        if (claims.getId() == null || claims.getExpiration() == null) {
+            return; // tokens issued before jti was added cannot be revoked individually
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        authTokenMapper.insertRevokedToken(claims.getId(), expiresAt);
+        revokedTokenRegistry.addAfterCommit(claims.getId());
+    }
+
+    private static boolean hashMatches(String secret, String expectedHex) {
+        // Constant-time comparison
+        return MessageDigest.isEqual(sha256Hex(secret).getBytes(StandardCharsets.US_ASCII),
+                expectedHex.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
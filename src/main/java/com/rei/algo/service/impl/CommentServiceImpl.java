@@ -3,12 +3,12 @@ package com.rei.algo.service.impl;
 import com.rei.algo.DTO.comment.CommentDTO;
 import com.rei.algo.DTO.PageDTO;
 import com.rei.algo.DTO.user.UserDTO;
+import com.rei.algo.cache.CountCache;
 import com.rei.algo.mapper.CommentMapper;
 import com.rei.algo.mapper.PostMapper; // Check if post exists
 import com.rei.algo.mapper.UserMapper; // Get user info
 import com.rei.algo.model.entity.Comment;
 import com.rei.algo.service.CommentService;
-import com.rei.algo.util.IDGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.BeanUtils;
 import org.springframework.security.access.AccessDeniedException;
@@ -20,6 +20,7 @@ import org.springframework.util.StringUtils;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -30,6 +31,13 @@ public class CommentServiceImpl implements CommentService {
     private final CommentMapper commentMapper;
     private final PostMapper postMapper;
     private final UserMapper userMapper;
+    private final EntityIdGenerator entityIdGenerator;
+    private final PagedQueryExecutor pagedQueryExecutor;
+    private final CountCache countCache;
+
+    // CountCache keys; invalidated by prefix after comment writes commit (and by PostServiceImpl on post deletion)
+    static final String COUNT_BY_POST = "comment:post:";
+    static final String COUNT_BY_USER = "comment:user:";
 
     private static final int MAX_REPLIES_PREVIEW = 3; // 评论列表预览时加载的回复数量
 
@@ -62,12 +70,13 @@ public class CommentServiceImpl implements CommentService {
         // 3. Create Comment entity
         Comment comment = new Comment();
         BeanUtils.copyProperties(commentDTO, comment, "user", "replies"); // Exclude fields not in entity
-        comment.setCommentId(IDGenerator.generateAlphanumericId());
+        comment.setCommentId(entityIdGenerator.nextId());
         comment.setUserId(creatorUserId);
         comment.setCreatedAt(LocalDateTime.now());
 
         // 4. Insert comment
         commentMapper.insert(comment);
+        countCache.invalidateAfterCommit(COUNT_BY_POST + comment.getPostId(), COUNT_BY_USER + creatorUserId);
 
         // 5. Fetch the created comment with user details to return
         return commentMapper.findByIdWithUser(comment.getCommentId())
@@ -130,40 +139,34 @@ public class CommentServiceImpl implements CommentService {
          if (deletedRows == 0) {
              throw new RuntimeException("Failed to delete comment with ID: " + commentId);
          }
+        // Cascaded replies may belong to any user
+        countCache.invalidateAfterCommit(COUNT_BY_POST + existingComment.getPostId(), COUNT_BY_USER);
     }
 
+    // 分页方法不加 @Transactional：PagedQueryExecutor 让 COUNT 与取页各用一个只读事务并行执行
     @Override
-    @Transactional(readOnly = true)
-    public PageDTO<CommentDTO> getCommentsByPostId(String postId, int pageNum, int pageSize) {
+    public PageDTO<CommentDTO> getCommentsByPostId(String postId, int pageNum, int pageSize, boolean withTotal) {
          Assert.hasText(postId, "Post ID cannot be empty");
          validatePageParams(pageNum, pageSize);
-         int offset = (pageNum - 1) * pageSize;
-
-         // 1. Get total count of top-level comments
-         long total = commentMapper.countTopLevelByPostId(postId);
-
-         // 2. Fetch top-level comments for the current page
-         List<Comment> topLevelComments = commentMapper.findTopLevelByPostId(postId, offset, pageSize);
 
-         // 3. Convert to DTOs and fetch limited replies for each
-         List<CommentDTO> commentDTOs = topLevelComments.stream()
-                 .map(comment -> {
-                     CommentDTO dto = convertEntityToDTO(comment);
-                     // Fetch limited replies for preview
-                     List<Comment> replies = commentMapper.findRepliesByParentId(comment.getCommentId(), 0, MAX_REPLIES_PREVIEW);
-                     if (!replies.isEmpty()) {
-                         dto.setReplies(replies.stream().map(this::convertEntityToDTO).collect(Collectors.toList()));
-                     } else {
-                          dto.setReplies(Collections.emptyList());
-                     }
-                      // Optionally add reply count? Requires another query: commentMapper.countRepliesByParentId(comment.getCommentId())
-                     // dto.setReplyCount(commentMapper.countRepliesByParentId(comment.getCommentId()));
-                     return dto;
-                 })
-                 .collect(Collectors.toList());
-
-        long totalPages = (total + pageSize - 1) / pageSize;
-        return new PageDTO<>(pageNum, pageSize, total, (int)totalPages, commentDTOs);
+         return pagedQueryExecutor.fetch(pageNum, pageSize, withTotal,
+                 // 1. Total count of top-level comments
+                 () -> countCache.exact(COUNT_BY_POST + postId, () -> commentMapper.countTopLevelByPostId(postId)),
+                 // 2. Top-level comments for the current page
+                 (offset, limit) -> commentMapper.findTopLevelByPostId(postId, offset, limit),
+                 // 3. Convert to DTOs and attach limited replies, fetched for the whole page in one query
+                 topLevelComments -> {
+                     Map<String, List<CommentDTO>> replyPreviews = findReplyPreviews(topLevelComments);
+                     return topLevelComments.stream()
+                             .map(comment -> {
+                                 CommentDTO dto = convertEntityToDTO(comment);
+                                 dto.setReplies(replyPreviews.getOrDefault(comment.getCommentId(), Collections.emptyList()));
+                                 // Optionally add reply count? Requires another query: commentMapper.countRepliesByParentId(comment.getCommentId())
+                                 // dto.setReplyCount(commentMapper.countRepliesByParentId(comment.getCommentId()));
+                                 return dto;
+                             })
+                             .collect(Collectors.toList());
+                 });
     }
 
      @Override
@@ -190,23 +193,18 @@ public class CommentServiceImpl implements CommentService {
 
 
     @Override
-    @Transactional(readOnly = true)
-    public PageDTO<CommentDTO> getCommentsByUserId(String userId, int pageNum, int pageSize) {
+    public PageDTO<CommentDTO> getCommentsByUserId(String userId, int pageNum, int pageSize, boolean withTotal) {
         Assert.hasText(userId, "User ID cannot be empty");
         validatePageParams(pageNum, pageSize);
-        int offset = (pageNum - 1) * pageSize;
 
-        long total = commentMapper.countByUserId(userId);
         // Fetch comments with user info (author)
-        List<Comment> comments = commentMapper.findByUserId(userId, offset, pageSize);
-
         // TODO: Add Post title/ID to the DTO for context if needed by joining post table in mapper
-        List<CommentDTO> dtos = comments.stream()
-                                      .map(this::convertEntityToDTO)
-                                      .collect(Collectors.toList());
-        long totalPages = (total + pageSize - 1) / pageSize;
-
-        return new PageDTO<>(pageNum, pageSize, total, (int)totalPages, dtos);
+        return pagedQueryExecutor.fetch(pageNum, pageSize, withTotal,
+                () -> countCache.exact(COUNT_BY_USER + userId, () -> commentMapper.countByUserId(userId)),
+                (offset, limit) -> commentMapper.findByUserId(userId, offset, limit),
+                comments -> comments.stream()
+                        .map(this::convertEntityToDTO)
+                        .collect(Collectors.toList()));
     }
 
     // --- Helper Methods --- //
@@ -216,6 +214,17 @@ public class CommentServiceImpl implements CommentService {
         Assert.isTrue(pageSize >= 1 && pageSize <= 100, "Page size must be between 1 and 100");
     }
 
+    // parentCommentId -> first MAX_REPLIES_PREVIEW replies, in creation order
+    private Map<String, List<CommentDTO>> findReplyPreviews(List<Comment> parents) {
+        if (parents.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> parentIds = parents.stream().map(Comment::getCommentId).toList();
+        return commentMapper.findReplyPreviewsByParentIds(parentIds, MAX_REPLIES_PREVIEW).stream()
+                .collect(Collectors.groupingBy(Comment::getParentCommentId,
+                        Collectors.mapping(this::convertEntityToDTO, Collectors.toList())));
+    }
+
     // Converts Comment entity to DTO, including nested UserDTO
     private CommentDTO convertEntityToDTO(Comment comment) {
         if (comment == null) return null;
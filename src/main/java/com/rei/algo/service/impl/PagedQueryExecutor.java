@@ -0,0 +1,126 @@
+package com.rei.algo.service.impl;
+
+import com.rei.algo.DTO.PageDTO;
+import com.rei.algo.cache.CountCache;
+import com.rei.algo.interceptor.QueryCounter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 分页查询执行器：把 COUNT 查询和分页查询合并为一个 {@link PageDTO}。
+ * <p>
+ * 带总数 (withTotal = true)：COUNT 在虚拟线程上的独立只读事务 (独立连接) 中执行，
+ * 同时调用线程在自己的只读事务中取当前页并完成转换，页面延迟约为两者中较慢的一个，而不是两者之和。
+ * 调用线程在等待 COUNT 之前已经提交并归还了自己的连接，不会出现"持有一个连接再等另一个"的情况。
+ * <p>
+ * 不带总数 (withTotal = false)：只取 pageSize + 1 行，多出的一行仅用于判断 hasNext，total/pages 为 null。
+ * 适合无限滚动等不需要总页数的场景，完全省掉 COUNT。
+ * <p>
+ * 调用方已处于事务中时 (例如在写事务里读取)，另一个连接看不到未提交的数据，此时两条查询在当前事务中顺序执行。
+ * 因此使用本执行器的服务方法自身不应再标注 {@code @Transactional}。
+ */
+@Component
+public class PagedQueryExecutor implements DisposableBean {
+
+    /**
+     * 按偏移量和行数读取一页数据
+     */
+    @FunctionalInterface
+    public interface PageQuery<E> {
+        List<E> fetch(int offset, int limit);
+    }
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService countExecutor;
+    private final boolean parallelCount;
+
+    public PagedQueryExecutor(PlatformTransactionManager transactionManager,
+                              @Value("${pagination.parallel-count:true}") boolean parallelCount) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.countExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("page-count-", 0).factory());
+        this.parallelCount = parallelCount;
+    }
+
+    /**
+     * 执行分页查询
+     * @param pageNum 页码 (从 1 开始，调用方已校验)
+     * @param pageSize 每页数量 (调用方已校验)
+     * @param withTotal 是否计算总数；false 时只返回 hasNext
+     * @param countQuery 总数查询 (通常经过 {@link CountCache})
+     * @param pageQuery 分页查询
+     * @param converter 在取页的同一事务中把实体转换为 DTO (可以再查询关联数据)
+     * @return 分页结果
+     */
+    public <E, T> PageDTO<T> fetch(int pageNum, int pageSize, boolean withTotal, Supplier<CountCache.Count> countQuery,
+                                   PageQuery<E> pageQuery, Function<List<E>, List<T>> converter) {
+        int offset = (pageNum - 1) * pageSize;
+
+        if (!withTotal) {
+            return readOnlyTransaction.execute(status -> {
+                List<E> rows = pageQuery.fetch(offset, pageSize + 1);
+                boolean hasNext = rows.size() > pageSize;
+                List<E> page = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+                return PageDTO.slice(pageNum, pageSize, hasNext, converter.apply(page));
+            });
+        }
+
+        if (!parallelCount || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return readOnlyTransaction.execute(status -> {
+                CountCache.Count total = countQuery.get();
+                List<T> list = converter.apply(pageQuery.fetch(offset, pageSize));
+                return PageDTO.of(pageNum, pageSize, total.value(), total.approximate(), list);
+            });
+        }
+
+        // The count thread inherits the caller's security context so read-your-writes routing still applies,
+        // and the request's query counter so the COUNT still counts against the endpoint's budget
+        Future<CountCache.Count> totalFuture = countExecutor.submit(new DelegatingSecurityContextCallable<CountCache.Count>(
+                QueryCounter.propagate(() -> readOnlyTransaction.execute(status -> countQuery.get()))));
+        List<T> list;
+        try {
+            list = readOnlyTransaction.execute(status -> converter.apply(pageQuery.fetch(offset, pageSize)));
+        } catch (RuntimeException e) {
+            totalFuture.cancel(true);
+            throw e;
+        }
+        CountCache.Count total = await(totalFuture);
+        return PageDTO.of(pageNum, pageSize, total.value(), total.approximate(), list);
+    }
+
+    @Override
+    public void destroy() {
+        countExecutor.shutdownNow();
+    }
+
+    // --- Helper Methods --- //
+
+    private static CountCache.Count await(Future<CountCache.Count> totalFuture) {
+        try {
+            return totalFuture.get();
+        } catch (InterruptedException e) {
+            totalFuture.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the page count", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException; // e.g. ServiceBusyException from the database gate -> 503
+            }
+            throw new IllegalStateException("Failed to count page results", e.getCause());
+        }
+    }
+}
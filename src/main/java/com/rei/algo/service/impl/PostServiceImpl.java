@@ -8,19 +8,23 @@ import com.rei.algo.DTO.post.PostDTO;
 import com.rei.algo.DTO.post.PostSummaryDTO;
 import com.rei.algo.DTO.post.PostUpdateRequestDTO;
 import com.rei.algo.DTO.user.UserDTO;
+import com.rei.algo.cache.CountCache;
+import com.rei.algo.event.PostTagsChangedEvent;
 import com.rei.algo.mapper.PostMapper;
 import com.rei.algo.mapper.UserMapper;
 import com.rei.algo.model.entity.Post;
 import com.rei.algo.model.entity.PostEvaluation;
 import com.rei.algo.model.entity.Tag;
 import com.rei.algo.model.enums.EvaluationType;
+import com.rei.algo.model.enums.TagMatchMode;
 import com.rei.algo.service.PostService;
 import com.rei.algo.service.TagService;
-import com.rei.algo.util.IDGenerator;
+import com.rei.algo.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.session.RowBounds;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,7 +34,11 @@ import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -44,6 +52,15 @@ public class PostServiceImpl implements PostService {
     private final UserMapper userMapper;
     private final TagService tagService; // Inject TagService
     private final ObjectMapper objectMapper; // Inject Jackson ObjectMapper
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityIdGenerator entityIdGenerator;
+    private final PagedQueryExecutor pagedQueryExecutor;
+    private final CountCache countCache;
+
+    // CountCache keys; invalidated by prefix after post writes commit
+    private static final String COUNT_ALL = "post:all";
+    private static final String COUNT_BY_USER = "post:user:";
+    private static final String COUNT_BY_KEYWORD = "post:keyword:";
 
     @Override
     @Transactional
@@ -59,7 +76,7 @@ public class PostServiceImpl implements PostService {
         // 2. Prepare Post entity
         Post post = new Post();
         BeanUtils.copyProperties(postDTO, post, "content", "tags", "user", "tagNames"); // Exclude fields not in entity or managed differently
-        post.setPostId(IDGenerator.generateAlphanumericId());
+        post.setPostId(entityIdGenerator.nextId());
         post.setUserId(creatorUserId);
         post.setContent(contentJson); // Store JSON string
         post.setCreatedAt(LocalDateTime.now());
@@ -67,6 +84,7 @@ public class PostServiceImpl implements PostService {
 
         // 3. Insert Post
         postMapper.insert(post);
+        countCache.invalidateAfterCommit(COUNT_ALL, COUNT_BY_USER + creatorUserId, COUNT_BY_KEYWORD);
 
         // 4. Handle Tags
         if (!CollectionUtils.isEmpty(postDTO.getTagNames())) {
@@ -74,6 +92,8 @@ public class PostServiceImpl implements PostService {
             Set<String> tagIds = tags.stream().map(Tag::getTagId).collect(Collectors.toSet());
             if (!tagIds.isEmpty()) {
                 postMapper.addTagsToPost(post.getPostId(), tagIds);
+                postMapper.addTagsToIndex(post.getPostId(), tagIds);
+                publishTagsChanged(post.getPostId(), Collections.emptySet(), tagIds);
             }
         }
 
@@ -121,20 +141,33 @@ public class PostServiceImpl implements PostService {
         if (needsUpdate) {
             // We set updated_at = NOW() in the XML, so no need to set it here
             postMapper.update(postToUpdate);
+            countCache.invalidateAfterCommit(COUNT_BY_KEYWORD); // title/content change keyword matches
         }
 
         // 5. Handle Tags (replace existing tags)
         if (postDTO.getTagNames() != null) { // Allow sending empty list/null to remove all tags
-             // Remove existing tags
-            postMapper.removeAllTagsFromPost(postId);
-             // Add new tags
-            if (!CollectionUtils.isEmpty(postDTO.getTagNames())) {
-                List<Tag> tags = tagService.findOrCreateTagsByNames(postDTO.getTagNames());
-                Set<String> tagIds = tags.stream().map(Tag::getTagId).collect(Collectors.toSet());
-                if (!tagIds.isEmpty()) {
-                    postMapper.addTagsToPost(postId, tagIds);
-                }
+            // Only the difference against the current tags is written, so an unchanged tag set touches no rows
+            Set<String> oldTagIds = new HashSet<>(postMapper.findTagIdsByPostIdForUpdate(postId));
+            Set<String> newTagIds = CollectionUtils.isEmpty(postDTO.getTagNames())
+                    ? Collections.emptySet()
+                    : tagService.findOrCreateTagsByNames(postDTO.getTagNames()).stream()
+                                .map(Tag::getTagId)
+                                .collect(Collectors.toSet());
+
+            Set<String> removedTagIds = new HashSet<>(oldTagIds);
+            removedTagIds.removeAll(newTagIds);
+            Set<String> addedTagIds = new HashSet<>(newTagIds);
+            addedTagIds.removeAll(oldTagIds);
+
+            if (!removedTagIds.isEmpty()) {
+                postMapper.removeTagsFromPost(postId, removedTagIds);
+                postMapper.removeTagsFromIndex(postId, removedTagIds);
+            }
+            if (!addedTagIds.isEmpty()) {
+                postMapper.addTagsToPost(postId, addedTagIds);
+                postMapper.addTagsToIndex(postId, addedTagIds);
             }
+            publishTagsChanged(postId, oldTagIds, newTagIds);
         }
 
         // 6. Return updated detailed DTO
@@ -158,67 +191,99 @@ public class PostServiceImpl implements PostService {
             throw new AccessDeniedException("User not authorized to delete this post");
         }
 
+        // Capture the tags before the cascade removes them so tag counters can be decremented
+        Set<String> oldTagIds = new HashSet<>(postMapper.findTagIdsByPostIdForUpdate(postId));
+
         // 3. Delete post (associated tags and comments deleted by DB cascade)
         int deletedRows = postMapper.deleteById(postId);
          if (deletedRows == 0) {
              throw new RuntimeException("Failed to delete post with ID: " + postId);
          }
          // Note: Related post_tag and comment records are deleted due to ON DELETE CASCADE constraint
+        countCache.invalidateAfterCommit(COUNT_ALL, COUNT_BY_USER + existingPost.getUserId(), COUNT_BY_KEYWORD,
+                CommentServiceImpl.COUNT_BY_POST + postId, CommentServiceImpl.COUNT_BY_USER);
+        publishTagsChanged(postId, oldTagIds, Collections.emptySet());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<PostDTO> getPostById(String postId) {
         Assert.hasText(postId, "Post ID cannot be empty");
-        return postMapper.findByIdWithDetails(postId) // Use the mapper method that joins User and selects Tags
-                .map(this::convertEntityToDTOWithDetails);
+        return postMapper.findByIdWithDetails(postId) // Use the mapper method that joins User
+                .map(post -> {
+                    // Tags are hydrated from the in-memory tag dictionary
+                    post.setTags(tagService.getTagsByPostId(postId));
+                    return convertEntityToDTOWithDetails(post);
+                });
     }
 
+    // 分页方法不加 @Transactional：PagedQueryExecutor 让 COUNT 与取页各用一个只读事务并行执行
     @Override
-    @Transactional(readOnly = true)
-    public PageDTO<PostSummaryDTO> getPostsByUserId(String userId, int pageNum, int pageSize) {
+    public PageDTO<PostSummaryDTO> getPostsByUserId(String userId, int pageNum, int pageSize, boolean withTotal) {
         Assert.hasText(userId, "User ID cannot be empty");
         validatePageParams(pageNum, pageSize);
-        int offset = (pageNum - 1) * pageSize;
-        RowBounds rowBounds = new RowBounds(offset, pageSize);
 
-        long total = postMapper.countByUserId(userId);
-        List<PostSummaryDTO> dtos = postMapper.findByUserId(userId, rowBounds);
-
-        long totalPages = (total == 0) ? 0 : (total + pageSize - 1) / pageSize;
-
-        return new PageDTO<>(pageNum, pageSize, total, (int)totalPages, dtos);
+        return pagedQueryExecutor.fetch(pageNum, pageSize, withTotal,
+                () -> countCache.exact(COUNT_BY_USER + userId, () -> postMapper.countByUserId(userId)),
+                (offset, limit) -> postMapper.findByUserId(userId, new RowBounds(offset, limit)),
+                this::hydrateTags);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public PageDTO<PostSummaryDTO> searchPosts(String keyword, int pageNum, int pageSize) {
+    public PageDTO<PostSummaryDTO> searchPosts(String keyword, int pageNum, int pageSize, boolean withTotal) {
         validatePageParams(pageNum, pageSize);
-        int offset = (pageNum - 1) * pageSize;
-        RowBounds rowBounds = new RowBounds(offset, pageSize);
         String searchKeyword = StringUtils.hasText(keyword) ? keyword.trim() : null;
 
-        long total = postMapper.countByKeyword(searchKeyword);
-        List<PostSummaryDTO> dtos = postMapper.search(searchKeyword, rowBounds);
-
-        long totalPages = (total == 0) ? 0 : (total + pageSize - 1) / pageSize;
-
-        return new PageDTO<>(pageNum, pageSize, total, (int)totalPages, dtos);
+        return pagedQueryExecutor.fetch(pageNum, pageSize, withTotal,
+                () -> countCache.upTo(COUNT_BY_KEYWORD + keywordKey(searchKeyword),
+                        () -> postMapper.countByKeyword(searchKeyword),
+                        limit -> postMapper.countByKeywordUpTo(searchKeyword, limit)),
+                (offset, limit) -> postMapper.search(searchKeyword, new RowBounds(offset, limit)),
+                this::hydrateTags);
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public PageDTO<PostSummaryDTO> listAllPosts(int pageNum, int pageSize) {
+    public PageDTO<PostSummaryDTO> listAllPosts(int pageNum, int pageSize, boolean withTotal) {
         validatePageParams(pageNum, pageSize);
-        int offset = (pageNum - 1) * pageSize;
-        RowBounds rowBounds = new RowBounds(offset, pageSize);
 
-        long total = postMapper.countPosts();
-        List<PostSummaryDTO> dtos = postMapper.findAll(rowBounds);
+        return pagedQueryExecutor.fetch(pageNum, pageSize, withTotal,
+                () -> countCache.estimated(COUNT_ALL, "post", postMapper::countPosts),
+                (offset, limit) -> postMapper.findAll(new RowBounds(offset, limit)),
+                this::hydrateTags);
+    }
 
-        long totalPages = (total == 0) ? 0 : (total + pageSize - 1) / pageSize;
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDTO<PostSummaryDTO> getPostsByTags(List<String> tagIds, TagMatchMode matchMode, String cursor, int pageSize) {
+        Assert.notEmpty(tagIds, "At least one tag ID is required");
+        validatePageParams(1, pageSize);
+        Set<String> distinctTagIds = tagIds.stream()
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Assert.notEmpty(distinctTagIds, "At least one tag ID is required");
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        LocalDateTime cursorCreatedAt = after != null ? after.createdAt() : null;
+        String cursorPostId = after != null ? after.id() : null;
+
+        // Fetch one extra row to know whether there is a next page
+        int limit = pageSize + 1;
+        List<PostSummaryDTO> dtos = distinctTagIds.size() == 1
+                ? postMapper.findSummariesByTag(distinctTagIds.iterator().next(), cursorCreatedAt, cursorPostId, limit)
+                : postMapper.findSummariesByTags(distinctTagIds, matchMode != TagMatchMode.OR, cursorCreatedAt, cursorPostId, limit);
+
+        boolean hasNext = dtos.size() > pageSize;
+        if (hasNext) {
+            dtos = dtos.subList(0, pageSize);
+        }
+        hydrateTags(dtos);
 
-        return new PageDTO<>(pageNum, pageSize, total, (int)totalPages, dtos);
+        String nextCursor = null;
+        if (hasNext) {
+            PostSummaryDTO last = dtos.get(dtos.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+        return new CursorPageDTO<>(pageSize, nextCursor, hasNext, dtos);
     }
 
     // --- Helper Methods --- //
@@ -228,6 +293,36 @@ public class PostServiceImpl implements PostService {
         Assert.isTrue(pageSize >= 1 && pageSize <= 100, "Page size must be between 1 and 100");
     }
 
+    // Publishes the tag delta of a post; listeners (tag counters etc.) only see it after the transaction commits
+    private void publishTagsChanged(String postId, Set<String> oldTagIds, Set<String> newTagIds) {
+        Set<String> added = new HashSet<>(newTagIds);
+        added.removeAll(oldTagIds);
+        Set<String> removed = new HashSet<>(oldTagIds);
+        removed.removeAll(newTagIds);
+        PostTagsChangedEvent event = new PostTagsChangedEvent(postId, Set.copyOf(added), Set.copyOf(removed), Set.copyOf(newTagIds));
+        if (!event.isEmpty()) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    // Keyword matching is case-insensitive (utf8mb4_unicode_ci), so differently cased keywords share a count
+    private static String keywordKey(String keyword) {
+        return keyword == null ? "" : keyword.toLowerCase(Locale.ROOT);
+    }
+
+    // Fills in the tags of a page of summaries with a single post_tag query
+    private List<PostSummaryDTO> hydrateTags(List<PostSummaryDTO> summaries) {
+        if (summaries.isEmpty()) {
+            return summaries;
+        }
+        Map<String, List<Tag>> tagsByPostId = tagService.getTagsByPostIds(
+                summaries.stream().map(PostSummaryDTO::getPostId).collect(Collectors.toList()));
+        for (PostSummaryDTO summary : summaries) {
+            summary.setTags(tagsByPostId.getOrDefault(summary.getPostId(), Collections.emptyList()));
+        }
+        return summaries;
+    }
+
     // Convert complex content object to JSON string for storage
     private String convertContentToJson(Object content) {
         try {
@@ -275,7 +370,7 @@ public class PostServiceImpl implements PostService {
         }
 
         // Handle Tags (List<Tag> entity -> List<Tag>)
-        // Assumes tags are loaded by the findByIdWithDetails query (via nested select)
+        // Tags are set by getPostById from TagService
         if (!CollectionUtils.isEmpty(post.getTags())) {
             dto.setTags(post.getTags().stream()
                     .map(tag -> Tag.builder().tagId(tag.getTagId()).name(tag.getName()).build())
@@ -291,11 +386,10 @@ public class PostServiceImpl implements PostService {
     // --- New/Missing Method Implementations --- //
 
     @Override
-    @Transactional(readOnly = true)
     public PageDTO<PostSummaryDTO> getPostSummaries(int pageNum, int pageSize) {
         // This method seems redundant with listAllPosts, let's delegate to it.
         log.debug("Delegating getPostSummaries to listAllPosts with pageNum: {}, pageSize: {}", pageNum, pageSize);
-        return listAllPosts(pageNum, pageSize);
+        return listAllPosts(pageNum, pageSize, true);
     }
 
     @Override
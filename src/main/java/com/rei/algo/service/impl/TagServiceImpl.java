@@ -1,9 +1,16 @@
 package com.rei.algo.service.impl;
 
+import com.rei.algo.DTO.tag.SerializedTagListDTO;
+import com.rei.algo.DTO.tag.TagStatDTO;
+import com.rei.algo.cache.TagCooccurrence;
+import com.rei.algo.cache.TagDictionary;
+import com.rei.algo.cache.TagStatistics;
+import com.rei.algo.cache.TagSuggestIndex;
+import com.rei.algo.exception.ResourceNotFoundException;
 import com.rei.algo.mapper.TagMapper;
+import com.rei.algo.model.entity.PostTag;
 import com.rei.algo.model.entity.Tag;
 import com.rei.algo.service.TagService;
-import com.rei.algo.util.IDGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -13,8 +20,16 @@ import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -23,7 +38,16 @@ import java.util.stream.Collectors;
 @Slf4j // Use Slf4j for logging
 public class TagServiceImpl implements TagService {
 
+    private static final int MAX_TAG_NAME_LENGTH = 50; // tag.name VARCHAR(50)
+
+    private static final Comparator<Tag> BY_NAME = Comparator.comparing(Tag::getName, String.CASE_INSENSITIVE_ORDER);
+
     private final TagMapper tagMapper;
+    private final TagDictionary tagDictionary;
+    private final TagStatistics tagStatistics;
+    private final TagSuggestIndex tagSuggestIndex;
+    private final TagCooccurrence tagCooccurrence;
+    private final EntityIdGenerator entityIdGenerator;
 
     @Override
     @Transactional
@@ -45,16 +69,27 @@ public class TagServiceImpl implements TagService {
         Assert.hasText(tagName, "Tag name cannot be empty");
         String trimmedName = tagName.trim();
 
+        // Served from the in-memory dictionary when possible
+        Optional<Tag> cached = tagDictionary.findByName(trimmedName);
+        if (cached.isPresent()) {
+            return convertToDTO(cached.get());
+        }
+
         // Try to find existing tag first
         return tagMapper.findByName(trimmedName)
+                .map(tag -> {
+                    registerAfterCommit(List.of(tag));
+                    return tag;
+                })
                 .orElseGet(() -> {
                     log.info("Tag '{}' not found, creating new one.", trimmedName);
                     Tag newTag = Tag.builder()
-                            .tagId(IDGenerator.generateAlphanumericId())
+                            .tagId(entityIdGenerator.nextId())
                             .name(trimmedName)
                             .build();
                     try {
                         tagMapper.insert(newTag);
+                        registerAfterCommit(List.of(newTag));
                          return newTag;
                     } catch (Exception e) {
                         // Handle potential race condition: another thread inserted the same tag
@@ -73,70 +108,206 @@ public class TagServiceImpl implements TagService {
             return Collections.emptyList();
         }
 
-        List<Tag> resultTags = new ArrayList<>();
-        List<String> namesToCreate = new ArrayList<>();
         Set<String> trimmedNames = tagNames.stream()
                                           .filter(name -> name != null && !name.trim().isEmpty())
                                           .map(String::trim)
-                                          .collect(Collectors.toSet());
-
-        // TODO: Optimize: Find existing tags in one query? (e.g., findByNames)
-        // If findByNames is implemented in Mapper:
-        // Map<String, Tag> existingTagsMap = tagMapper.findByNames(trimmedNames).stream().collect(Collectors.toMap(Tag::getName, t -> t));
-        // resultTags.addAll(existingTagsMap.values());
-        // namesToCreate.addAll(trimmedNames.stream().filter(name -> !existingTagsMap.containsKey(name)).toList());
+                                          .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (trimmedNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // INSERT IGNORE would silently truncate over-long names, so reject them up front
+        trimmedNames.forEach(name -> Assert.isTrue(name.length() <= MAX_TAG_NAME_LENGTH,
+                "Tag name cannot exceed " + MAX_TAG_NAME_LENGTH + " characters: " + name));
 
-        // Simple approach: find or create one by one (less efficient for many tags)
+        // 0. Resolve what we can from the in-memory dictionary; only unknown names hit the database
+        List<Tag> resultTags = new ArrayList<>();
+        Set<String> unresolvedNames = new LinkedHashSet<>();
         for (String name : trimmedNames) {
-             resultTags.add(findOrCreateTagByName(name));
-        }
-
-
-        // If namesToCreate is populated by an optimized approach:
-        // if (!namesToCreate.isEmpty()) {
-        //     List<Tag> newTags = new ArrayList<>();
-        //     for (String name : namesToCreate) {
-        //         newTags.add(Tag.builder()
-        //                        .tagId(IDGenerator.generateAlphanumericId())
-        //                        .name(name)
-        //                        .build());
-        //     }
-        //     if (!newTags.isEmpty()) {
-        //         try {
-        //             // Use insertBatchIfNotExists or handle potential duplicates
-        //             tagMapper.insertBatchIfNotExists(newTags); // Assumes this handles duplicates or is safe
-        //             resultTags.addAll(newTags); // Need IDs if insertBatch doesn't return them
-        //             // Potentially re-query inserted tags if IDs weren't returned/set
-        //         } catch (Exception e) {
-        //            log.error("Error during batch insert of tags: {}", namesToCreate, e);
-        //            // Handle error, maybe retry individually?
-        //            // For simplicity now, we rely on the one-by-one findOrCreate
-        //         }
-        //     }
-        // }
+            tagDictionary.findByName(name).ifPresentOrElse(
+                    tag -> resultTags.add(convertToDTO(tag)),
+                    () -> unresolvedNames.add(name));
+        }
+        if (unresolvedNames.isEmpty()) {
+            return resultTags;
+        }
+
+        // 1. Find existing tags in one query
+        List<Tag> existingTags = tagMapper.findByNames(unresolvedNames);
+
+        // tag.name uses a case-insensitive collation, so compare names case-insensitively as well
+        Set<String> existingKeys = existingTags.stream()
+                                               .map(tag -> normalizeName(tag.getName()))
+                                               .collect(Collectors.toSet());
+        List<Tag> newTags = new ArrayList<>();
+        Set<String> pendingKeys = new HashSet<>();
+        for (String name : unresolvedNames) {
+            String key = normalizeName(name);
+            if (!existingKeys.contains(key) && pendingKeys.add(key)) {
+                newTags.add(Tag.builder()
+                               .tagId(entityIdGenerator.nextId())
+                               .name(name)
+                               .build());
+            }
+        }
+
+        List<Tag> storedTags = existingTags;
+        if (!newTags.isEmpty()) {
+            // 2. Insert the missing ones in a single multi-row INSERT IGNORE.
+            // Rows skipped because a concurrent request created the same name are picked up by the re-select.
+            log.info("Creating {} new tag(s): {}", newTags.size(), newTags.stream().map(Tag::getName).toList());
+            tagMapper.insertBatchIfNotExists(newTags);
 
+            // 3. Re-select once so every returned tag carries the ID that is actually stored
+            storedTags = tagMapper.findByNames(unresolvedNames);
+        }
+
+        registerAfterCommit(storedTags);
+        resultTags.addAll(storedTags);
         return resultTags;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Tag> getAllTags() {
-        return tagMapper.findAll().stream()
+        if (!tagDictionary.isWarm()) {
+            return tagMapper.findAll().stream()
+                    .map(this::convertToDTO)
+                    .collect(Collectors.toList());
+        }
+        return tagDictionary.current().getSorted().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public SerializedTagListDTO getAllTagsSerialized() {
+        if (!tagDictionary.isWarm()) {
+            // Startup load failed or has not happened yet; try again before serving an empty list
+            tagDictionary.reload();
+        }
+        TagDictionary.Snapshot snapshot = tagDictionary.current();
+        return new SerializedTagListDTO(snapshot.getJson(), snapshot.getEtag());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Tag> getTagsByPostId(String postId) {
         Assert.hasText(postId, "Post ID cannot be empty");
-        return tagMapper.findTagsByPostId(postId).stream()
+        List<String> tagIds = tagMapper.findTagIdsByPostId(postId);
+        if (tagIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Tag> tags = resolveTagIds(new HashSet<>(tagIds)).values().stream()
                 .map(this::convertToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
+        tags.sort(BY_NAME);
+        return tags;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, List<Tag>> getTagsByPostIds(Collection<String> postIds) {
+        if (CollectionUtils.isEmpty(postIds)) {
+            return Collections.emptyMap();
+        }
+        List<PostTag> links = tagMapper.findTagLinksByPostIds(postIds);
+        if (links.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Tag> tagsById = resolveTagIds(links.stream().map(PostTag::getTagId).collect(Collectors.toSet()));
+
+        Map<String, List<Tag>> result = new HashMap<>();
+        for (PostTag link : links) {
+            Tag tag = tagsById.get(link.getTagId());
+            if (tag != null) {
+                result.computeIfAbsent(link.getPostId(), k -> new ArrayList<>()).add(convertToDTO(tag));
+            }
+        }
+        result.values().forEach(tags -> tags.sort(BY_NAME));
+        return result;
+    }
+
+    @Override
+    public List<TagStatDTO> getTagPostCounts() {
+        List<TagStatDTO> result = new ArrayList<>();
+        for (Tag tag : tagDictionary.current().getSorted()) {
+            long count = tagStatistics.getPostCount(tag.getTagId());
+            if (count > 0) {
+                result.add(TagStatDTO.builder().tagId(tag.getTagId()).name(tag.getName()).postCount(count).build());
+            }
+        }
+        // Stable sort keeps name order among tags with the same count
+        result.sort(Comparator.comparing(TagStatDTO::getPostCount).reversed());
+        return result;
+    }
+
+    @Override
+    public List<TagStatDTO> getTrendingTags(int limit) {
+        Assert.isTrue(limit >= 1 && limit <= 100, "Limit must be between 1 and 100");
+        List<TagStatDTO> trending = tagStatistics.getTrending();
+        return trending.size() <= limit ? trending : trending.subList(0, limit);
+    }
+
+    @Override
+    public List<TagStatDTO> suggestTags(String prefix, int limit) {
+        Assert.hasText(prefix, "Prefix cannot be empty");
+        Assert.isTrue(prefix.length() <= MAX_TAG_NAME_LENGTH, "Prefix cannot exceed " + MAX_TAG_NAME_LENGTH + " characters");
+        Assert.isTrue(limit >= 1 && limit <= 20, "Limit must be between 1 and 20");
+        return tagSuggestIndex.suggest(prefix, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TagStatDTO> getRelatedTags(String tagId, int limit) {
+        Assert.hasText(tagId, "Tag ID cannot be empty");
+        Assert.isTrue(limit >= 1 && limit <= 50, "Limit must be between 1 and 50");
+        if (tagDictionary.findById(tagId).isEmpty() && tagMapper.findById(tagId).isEmpty()) {
+            throw new ResourceNotFoundException("Tag", "ID", tagId);
+        }
+        return tagCooccurrence.related(tagId, limit);
+    }
+
+    @Override
+    @Transactional
+    public void deleteTag(String tagId) {
+        Assert.hasText(tagId, "Tag ID cannot be empty");
+        int deletedRows = tagMapper.deleteById(tagId);
+        if (deletedRows == 0) {
+            throw new ResourceNotFoundException("Tag", "ID", tagId);
+        }
+        // post_tag rows are removed by ON DELETE CASCADE
+        tagDictionary.evictAfterCommit(tagId);
+        tagSuggestIndex.removeAfterCommit(tagId);
     }
 
     // --- Helper Methods --- //
 
+    // Makes newly seen tags visible to the in-memory dictionary and the suggest index once the transaction commits
+    private void registerAfterCommit(Collection<Tag> tags) {
+        tagDictionary.registerAfterCommit(tags);
+        tagSuggestIndex.addAfterCommit(tags);
+    }
+
+    /**
+     * Hydrates tag IDs from the dictionary, falling back to one findByIds query for IDs it does not know yet
+     * (e.g. tags created on another node since the last refresh).
+     */
+    private Map<String, Tag> resolveTagIds(Set<String> tagIds) {
+        List<String> missingIds = new ArrayList<>();
+        List<Tag> tags = new ArrayList<>(tagDictionary.findByIds(tagIds, missingIds));
+        if (!missingIds.isEmpty()) {
+            List<Tag> loaded = tagMapper.findByIds(new HashSet<>(missingIds));
+            tagDictionary.register(loaded);
+            tagSuggestIndex.add(loaded);
+            tags.addAll(loaded);
+        }
+        return tags.stream().collect(Collectors.toMap(Tag::getTagId, tag -> tag, (a, b) -> a));
+    }
+
+    private String normalizeName(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
     private Tag convertToDTO(Tag tag) {
         if (tag == null) return null;
         Tag dto = new Tag();
@@ -145,4 +316,4 @@ public class TagServiceImpl implements TagService {
     }
 
     // private Tag convertToEntity(Tag dto) { ... }
-} 
\ No newline at end of file
+}
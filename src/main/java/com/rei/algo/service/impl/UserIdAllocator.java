@@ -0,0 +1,141 @@
+package com.rei.algo.service.impl;
+
+import com.rei.algo.mapper.IdSequenceMapper;
+import com.rei.algo.mapper.UserMapper;
+import com.rei.algo.util.FeistelPermutation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 8 位用户 ID 分配器 (号段模式)。
+ * <p>
+ * 从 id_sequence 表按块租用连续序号 (独立的 REQUIRES_NEW 事务，行锁只持有一条 UPDATE 的时间)，
+ * 块内的 ID 在内存中通过原子游标发放，不再访问数据库。序号经 {@link FeistelPermutation}
+ * 映射到 [10000000, 99999999]，ID 看起来是随机的，但不同序号一定得到不同 ID，注册无需"生成-检查-重试"。
+ * <p>
+ * 引入分配器之前随机生成的 ID 仍可能与置换结果相同：每租到一个块就用一次 IN 查询剔除已被占用的 ID。
+ * 进程重启时未发放完的块会被丢弃，只留下空洞，不会重复。
+ * <p>
+ * 必须在事务外调用：租用号段需要一个连接，若调用方已持有事务连接，同一线程会同时占用两个连接 (和 db.gate 许可)。
+ */
+@Component
+@Slf4j
+public class UserIdAllocator {
+
+    private static final String SEQUENCE_NAME = "user";
+    private static final long MIN_USER_ID = 10_000_000L;
+    private static final long USER_ID_SPACE = 90_000_000L; // 10000000 - 99999999
+
+    private final IdSequenceMapper idSequenceMapper;
+    private final UserMapper userMapper;
+    private final TransactionTemplate leaseTransaction;
+    private final FeistelPermutation permutation;
+    private final int blockSize;
+
+    private volatile Block current = Block.EMPTY;
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    public UserIdAllocator(IdSequenceMapper idSequenceMapper,
+                           UserMapper userMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${users.id.block-size:100}") int blockSize,
+                           @Value("${users.id.permutation-key:0}") long permutationKey) {
+        this.idSequenceMapper = idSequenceMapper;
+        this.userMapper = userMapper;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.permutation = new FeistelPermutation(USER_ID_SPACE, permutationKey);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * @return 一个未被使用过的 8 位用户 ID
+     * @throws IllegalStateException 8 位 ID 空间已用尽，或在事务中调用
+     */
+    public String nextUserId() {
+        Assert.state(!TransactionSynchronizationManager.isActualTransactionActive(),
+                "User IDs must be allocated outside a transaction");
+        while (true) {
+            Block block = current;
+            String id = block.next();
+            if (id != null) {
+                return id;
+            }
+            refill(block);
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    // Only one thread leases a new block; the others wait here and then use it.
+    // A ReentrantLock rather than synchronized: the lease does JDBC I/O, which would pin a virtual thread
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current != exhausted) {
+                return; // another thread already replaced it
+            }
+            current = leaseBlock();
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private Block leaseBlock() {
+        Long start = leaseTransaction.execute(status -> {
+            Long next = idSequenceMapper.findNextValueForUpdate(SEQUENCE_NAME);
+            if (next == null) {
+                idSequenceMapper.insertIfAbsent(SEQUENCE_NAME);
+                next = idSequenceMapper.findNextValueForUpdate(SEQUENCE_NAME);
+            }
+            if (next >= USER_ID_SPACE) {
+                throw new IllegalStateException("8 位用户 ID 已用尽");
+            }
+            idSequenceMapper.advance(SEQUENCE_NAME, blockSize);
+            return next;
+        });
+
+        long end = Math.min(start + blockSize, USER_ID_SPACE);
+        List<String> ids = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            ids.add(String.valueOf(MIN_USER_ID + permutation.permute(sequence)));
+        }
+        // Skip IDs taken by users registered before the allocator existed
+        Set<String> taken = new HashSet<>(userMapper.findExistingUserIds(ids));
+        if (!taken.isEmpty()) {
+            ids.removeIf(taken::contains);
+            log.info("Skipped {} legacy user ID(s) in block starting at sequence {}", taken.size(), start);
+        }
+        log.debug("Leased user ID block [{}, {})", start, end);
+        return new Block(ids.toArray(new String[0]));
+    }
+
+    private static final class Block {
+        static final Block EMPTY = new Block(new String[0]);
+
+        private final String[] ids;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        Block(String[] ids) {
+            this.ids = ids;
+        }
+
+        String next() {
+            int index = cursor.getAndIncrement();
+            return index < ids.length ? ids[index] : null;
+        }
+    }
+}
@@ -2,13 +2,18 @@ package com.rei.algo.service.impl;
 
 import com.rei.algo.DTO.user.UserDTO;
 import com.rei.algo.DTO.auth.RegisterRequestDTO;
+import com.rei.algo.DTO.user.UserImportResultDTO;
 import com.rei.algo.DTO.user.UserProfileUpdateDTO;
+import com.rei.algo.cache.UserAvailabilityFilter;
+import com.rei.algo.cache.UserCache;
 import com.rei.algo.exception.ResourceNotFoundException;
 import com.rei.algo.mapper.UserMapper;
 import com.rei.algo.model.entity.Role;
 import com.rei.algo.model.entity.User;
+import com.rei.algo.security.BoundedPasswordEncoder;
 import com.rei.algo.service.UserService;
-import com.rei.algo.util.IDGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,7 +24,11 @@ import org.springframework.context.annotation.Lazy;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @Slf4j
@@ -27,67 +36,123 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
-
-    public UserServiceImpl(UserMapper userMapper, @Lazy PasswordEncoder passwordEncoder) {
+    private final UserCache userCache;
+    private final UserIdAllocator userIdAllocator;
+    private final UserAvailabilityFilter userAvailabilityFilter;
+    private final UserWriter userWriter;
+    private final int importHashingParallelism;
+
+    private static final Pattern DUPLICATE_KEY_NAME = Pattern.compile("for key '(?:[^'.]+\\.)?([^']+)'");
+
+    public UserServiceImpl(UserMapper userMapper, @Lazy PasswordEncoder passwordEncoder, UserCache userCache,
+                           UserIdAllocator userIdAllocator, UserAvailabilityFilter userAvailabilityFilter,
+                           UserWriter userWriter,
+                           @Value("${users.import.hashing-parallelism:0}") int importHashingParallelism) {
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.userIdAllocator = userIdAllocator;
+        this.userAvailabilityFilter = userAvailabilityFilter;
+        this.userWriter = userWriter;
+        this.importHashingParallelism = importHashingParallelism > 0
+                ? importHashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         log.debug("Loading user by username: {}", username);
-        return userMapper.findByUsername(username)
+        return userCache.getByUsername(username, () -> userMapper.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("用户名或密码错误"));
     }
 
     @Override
     @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        // Called by DaoAuthenticationProvider after a successful login when the stored hash uses an outdated cost
+        User existingUser = (user instanceof User u) ? u : userMapper.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("用户不存在: " + user.getUsername()));
+        userMapper.update(User.builder().userId(existingUser.getUserId()).password(newPassword).build());
+        userCache.invalidateAfterCommit(existingUser.getUserId());
+        log.info("Re-hashed password of user '{}' with the current BCrypt cost", existingUser.getUsername());
+        existingUser.setPassword(newPassword);
+        return existingUser;
+    }
+
+    // 不加 @Transactional：哈希 (可能在 BoundedPasswordEncoder 中排队) 和号段租用在事务外完成，只有 INSERT 在 UserWriter 的事务中
+    @Override
     public UserDTO registerUser(RegisterRequestDTO registerRequest) {
         log.debug("Registering new user: {}", registerRequest.getUsername());
-        
-        // 检查用户名是否存在
-        if (userMapper.existsByUsername(registerRequest.getUsername())) {
-            throw new IllegalArgumentException("用户名已存在: " + registerRequest.getUsername());
-        }
-        
-        // 检查邮箱是否存在
-        if (registerRequest.getEmail() != null && !registerRequest.getEmail().trim().isEmpty()) {
-            if (userMapper.existsByEmail(registerRequest.getEmail())) {
-                throw new IllegalArgumentException("邮箱已存在: " + registerRequest.getEmail());
-            }
-        }
 
-        // 生成用户ID
-        String userId = IDGenerator.generateUserId();
-
-        // 创建新用户
+        String email = normalizeEmail(registerRequest.getEmail());
         User newUser = User.builder()
-                .userId(userId)
+                .userId(userIdAllocator.nextUserId()) // 从号段分配用户ID (保证不重复，无需检查后重试)
                 .username(registerRequest.getUsername())
                 .password(passwordEncoder.encode(registerRequest.getPassword()))
-                .email(registerRequest.getEmail())
+                .email(email)
                 .role(Role.USER)
                 .avatarUrl(null)
                 .createdAt(LocalDateTime.now())
                 .build();
 
+        // 用户名/邮箱的唯一性由 UNIQUE 约束保证：一条 INSERT 完成，没有"先查后插"的竞态窗口
         log.debug("Saving new user to database: {}", newUser.getUsername());
-        userMapper.insert(newUser);
+        try {
+            userWriter.insert(newUser);
+        } catch (DuplicateKeyException e) {
+            throw duplicateUserException(e, newUser);
+        }
 
         return newUser.convertToDTO();
     }
 
+    // 不加 @Transactional：哈希 (可能需要几分钟) 在事务外完成，只有批量 INSERT 在 UserWriter 的事务中
+    @Override
+    public UserImportResultDTO importUsers(List<RegisterRequestDTO> registerRequests) {
+        Assert.notEmpty(registerRequests, "Users to import cannot be empty");
+        long startedAt = System.currentTimeMillis();
+
+        // 1. 计算密码哈希 (全部成功后才开始写库)
+        List<String> passwordHashes = hashPasswords(registerRequests);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(registerRequests.size());
+        for (int i = 0; i < registerRequests.size(); i++) {
+            RegisterRequestDTO request = registerRequests.get(i);
+            users.add(User.builder()
+                    .userId(userIdAllocator.nextUserId())
+                    .username(request.getUsername())
+                    .password(passwordHashes.get(i))
+                    .email(normalizeEmail(request.getEmail()))
+                    .role(Role.USER)
+                    .createdAt(now)
+                    .build());
+        }
+
+        // 2. 在一个短事务中批量插入
+        UserImportResultDTO result = userWriter.insertAll(users);
+        log.info("Imported {} of {} user(s) in {} ms, skipped {} duplicate(s).", result.getImported(), users.size(),
+                System.currentTimeMillis() - startedAt, result.getSkippedUsernames().size());
+        return result;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<UserDTO> getUserById(String userId) {
-        return userMapper.findById(userId).map(User::convertToDTO);
+        return userCache.getById(userId, () -> userMapper.findById(userId)).map(User::convertToDTO);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<User> findUserByUsername(String username) {
-        return userMapper.findByUsername(username);
+        return userCache.getByUsername(username, () -> userMapper.findByUsername(username));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findUserById(String userId) {
+        return userCache.getById(userId, () -> userMapper.findById(userId));
     }
 
     @Override
@@ -125,10 +190,43 @@ public class UserServiceImpl implements UserService {
             if (updatedRows == 0) {
                 throw new RuntimeException("Failed to update user profile for ID: " + userId);
             }
+            userCache.invalidateAfterCommit(userId);
+            if (userToUpdate.getEmail() != null) {
+                userAvailabilityFilter.addAfterCommit(existingUser.getUsername(), userToUpdate.getEmail());
+            }
             existingUser = userMapper.findById(userId)
                     .orElseThrow(() -> new RuntimeException("Failed to fetch updated user profile after update for ID: " + userId));
         }
 
         return existingUser.convertToDTO();
     }
+
+    // --- Helper Methods --- //
+
+    private static String normalizeEmail(String email) {
+        // 空字符串也会参与 UNIQUE 比较，统一存为 NULL
+        return email != null && !email.trim().isEmpty() ? email.trim() : null;
+    }
+
+    // MySQL: "Duplicate entry 'xxx' for key 'user.username'" (5.7 without the table prefix)
+    private static RuntimeException duplicateUserException(DuplicateKeyException e, User user) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        Matcher matcher = DUPLICATE_KEY_NAME.matcher(message);
+        String keyName = matcher.find() ? matcher.group(1) : "";
+        return switch (keyName) {
+            case "username" -> new IllegalArgumentException("用户名已存在: " + user.getUsername());
+            case "email" -> new IllegalArgumentException("邮箱已存在: " + user.getEmail());
+            default -> new IllegalStateException("Failed to register user '" + user.getUsername() + "': " + message, e);
+        };
+    }
+
+    // The bounded encoder keeps at most importHashingParallelism hashes in flight, so logins keep the remaining
+    // hashing threads and the whole queue; a busy encoder slows the import down instead of failing it
+    private List<String> hashPasswords(List<RegisterRequestDTO> registerRequests) {
+        List<String> rawPasswords = registerRequests.stream().map(RegisterRequestDTO::getPassword).toList();
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedPasswordEncoder) {
+            return boundedPasswordEncoder.encodeAll(rawPasswords, importHashingParallelism);
+        }
+        return rawPasswords.stream().map(passwordEncoder::encode).toList();
+    }
 } 
\ No newline at end of file
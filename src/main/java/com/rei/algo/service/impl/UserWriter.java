@@ -0,0 +1,78 @@
+package com.rei.algo.service.impl;
+
+import com.rei.algo.DTO.user.UserImportResultDTO;
+import com.rei.algo.cache.UserAvailabilityFilter;
+import com.rei.algo.mapper.UserMapper;
+import com.rei.algo.model.entity.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 注册与批量导入用户的写库部分。
+ * <p>
+ * 与密码哈希分开：{@link UserServiceImpl} 先在事务外算完哈希并分配好 ID，
+ * 这里的事务只包含 INSERT，持有连接 (和 db.gate 许可) 的时间与哈希耗时无关。
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+class UserWriter {
+
+    private final UserMapper userMapper;
+    private final UserAvailabilityFilter userAvailabilityFilter;
+
+    @Value("${users.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * 插入一个新注册的用户；用户名/邮箱冲突时抛出 {@link org.springframework.dao.DuplicateKeyException}
+     * @param user 已哈希密码、已分配 ID 的用户
+     */
+    @Transactional
+    public void insert(User user) {
+        userMapper.insert(user);
+        userAvailabilityFilter.addAfterCommit(user.getUsername(), user.getEmail());
+    }
+
+    /**
+     * 按块批量插入；冲突的行被 INSERT IGNORE 跳过，只有出现跳过时才多查一次确认是哪些行
+     * @param users 已哈希密码、已分配 ID 的用户
+     * @return 导入结果
+     */
+    @Transactional
+    public UserImportResultDTO insertAll(List<User> users) {
+        int step = Math.max(1, chunkSize);
+        int imported = 0;
+        List<String> skippedUsernames = new ArrayList<>();
+        List<User> insertedUsers = new ArrayList<>(users.size());
+        for (int from = 0; from < users.size(); from += step) {
+            List<User> chunk = users.subList(from, Math.min(from + step, users.size()));
+            int inserted = userMapper.insertIgnoreBatch(chunk);
+            imported += inserted;
+            if (inserted < chunk.size()) {
+                Set<String> insertedIds = new HashSet<>(userMapper.findExistingUserIds(
+                        chunk.stream().map(User::getUserId).toList()));
+                for (User user : chunk) {
+                    if (insertedIds.contains(user.getUserId())) {
+                        insertedUsers.add(user);
+                    } else {
+                        skippedUsernames.add(user.getUsername());
+                    }
+                }
+            } else {
+                insertedUsers.addAll(chunk);
+            }
+        }
+
+        userAvailabilityFilter.addAllAfterCommit(insertedUsers);
+        return new UserImportResultDTO(users.size(), imported, skippedUsernames);
+    }
+}
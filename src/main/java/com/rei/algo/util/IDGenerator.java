@@ -44,6 +44,7 @@ public class IDGenerator {
     /**
      * 生成 8 位无前导零的数字用户 ID (字符串形式)。
      * 注意：此方法不保证全局唯一性，需要在 Service 层结合数据库检查。
+     * 注册新用户请使用 {@link com.rei.algo.service.impl.UserIdAllocator}。
      *
      * @return 8位数字ID字符串
      */
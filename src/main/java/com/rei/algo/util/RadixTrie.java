@@ -0,0 +1,156 @@
+package com.rei.algo.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 压缩前缀树 (radix trie)：单子节点链被合并为一条带字符串标签的边。
+ * 同一个 key 可以挂多个值 (例如多个标签共享同一个单词后缀)。
+ * <p>
+ * 非线程安全，并发访问由调用方加锁。
+ *
+ * @param <V> 值类型
+ */
+public class RadixTrie<V> {
+
+    private static final class Node<V> {
+        String label;                      // 从父节点进入本节点的边上的字符串
+        Map<Character, Node<V>> children;  // 按边的首字符索引，懒加载
+        List<V> values;                    // 以本节点结尾的 key 对应的值，懒加载
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Node<V> root = new Node<>("");
+    private int size;
+
+    /**
+     * 为 key 添加一个值 (同一 key 下重复的值会被忽略)
+     */
+    public void put(String key, V value) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node<V> child = node.children == null ? null : node.children.get(key.charAt(i));
+            if (child == null) {
+                child = new Node<>(key.substring(i));
+                addChild(node, child);
+                node = child;
+                break;
+            }
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // Split the edge: node -> middle(label[0..common)) -> child(label[common..])
+                Node<V> middle = new Node<>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                node.children.put(middle.label.charAt(0), middle);
+                addChild(middle, child);
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.values == null) {
+            node.values = new ArrayList<>(1);
+        }
+        if (!node.values.contains(value)) {
+            node.values.add(value);
+            size++;
+        }
+    }
+
+    /**
+     * 从所有 key 上移除满足条件的值 (需要遍历整棵树)。空节点不回收，由调用方定期整体重建来压缩。
+     */
+    public void removeIf(Predicate<V> filter) {
+        Deque<Node<V>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node<V> node = stack.pop();
+            if (node.values != null) {
+                int before = node.values.size();
+                node.values.removeIf(filter);
+                size -= before - node.values.size();
+            }
+            if (node.children != null) {
+                node.children.values().forEach(stack::push);
+            }
+        }
+    }
+
+    /**
+     * 按前缀访问所有匹配的值 (不截断，调用方自行排序取前 K 个)
+     *
+     * @param prefix  前缀
+     * @param visitor 对每个匹配的值调用一次 (同一个值挂在多个 key 上时会被多次访问)
+     */
+    public void forEachWithPrefix(String prefix, Consumer<? super V> visitor) {
+        Node<V> start = find(prefix);
+        if (start == null) {
+            return;
+        }
+        Deque<Node<V>> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node<V> node = stack.pop();
+            if (node.values != null) {
+                node.values.forEach(visitor);
+            }
+            if (node.children != null) {
+                node.children.values().forEach(stack::push);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // --- Helper Methods --- //
+
+    // Returns the node the prefix leads to; a prefix that ends inside an edge yields the node that edge points to
+    private Node<V> find(String prefix) {
+        Node<V> node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node<V> child = node.children == null ? null : node.children.get(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefixLength(child.label, prefix, i);
+            if (common == child.label.length()) {
+                node = child;
+                i += common;
+            } else if (i + common == prefix.length()) {
+                return child; // prefix ends inside this edge
+            } else {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private void addChild(Node<V> parent, Node<V> child) {
+        if (parent.children == null) {
+            parent.children = new HashMap<>(4);
+        }
+        parent.children.put(child.label.charAt(0), child);
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
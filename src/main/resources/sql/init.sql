@@ -68,6 +68,23 @@ CREATE TABLE IF NOT EXISTS `post_tag` (
     FOREIGN KEY (`tag_id`) REFERENCES `tag`(`tag_id`) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='帖子标签关联表';
 
+-- 标签-帖子时间索引表 (按标签列出帖子时的二级索引，由 PostServiceImpl 与 post_tag 同步维护)
+CREATE TABLE IF NOT EXISTS `post_tag_index` (
+    `tag_id` VARCHAR(16) NOT NULL COMMENT '标签ID',
+    `post_created_at` DATETIME NOT NULL COMMENT '帖子创建时间 (冗余自 post.created_at)',
+    `post_id` VARCHAR(16) NOT NULL COMMENT '帖子ID',
+    PRIMARY KEY (`tag_id`, `post_created_at`, `post_id`), -- 支持按标签 + 时间倒序的 keyset 分页
+    INDEX `idx_pti_post_id` (`post_id`),
+    FOREIGN KEY (`post_id`) REFERENCES `post`(`post_id`) ON DELETE CASCADE,
+    FOREIGN KEY (`tag_id`) REFERENCES `tag`(`tag_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='标签帖子时间索引表';
+
+-- 从已有的 post_tag 数据回填索引表 (可重复执行)
+INSERT IGNORE INTO `post_tag_index` (`tag_id`, `post_created_at`, `post_id`)
+SELECT pt.`tag_id`, p.`created_at`, pt.`post_id`
+FROM `post_tag` pt
+JOIN `post` p ON p.`post_id` = pt.`post_id`;
+
 -- 评论表
 CREATE TABLE IF NOT EXISTS `comment` (
     `comment_id` VARCHAR(16) PRIMARY KEY COMMENT '评论ID (16位)',
@@ -91,4 +108,35 @@ CREATE TABLE IF NOT EXISTS `docs`(
     `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `updated_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     `content` JSON NOT NULL
-);
\ No newline at end of file
+);
+-- 刷新令牌表 (令牌本身只在客户端，这里只存 SHA-256 哈希)
+CREATE TABLE IF NOT EXISTS `refresh_token` (
+    `token_id` VARCHAR(32) PRIMARY KEY COMMENT '刷新令牌ID (令牌的公开部分)',
+    `user_id` VARCHAR(8) NOT NULL COMMENT '用户ID',
+    `family_id` VARCHAR(32) NOT NULL COMMENT '轮换链ID，同一次登录派生出的令牌共享',
+    `token_hash` CHAR(64) NOT NULL COMMENT '令牌秘密部分的 SHA-256 (hex)',
+    `expires_at` DATETIME NOT NULL COMMENT '过期时间',
+    `created_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    `replaced_by` VARCHAR(32) NULL COMMENT '轮换后的新令牌ID',
+    `revoked_at` DATETIME NULL COMMENT '作废时间 (轮换、登出或检测到重用)',
+    INDEX `idx_rt_family_id` (`family_id`),
+    INDEX `idx_rt_user_id` (`user_id`),
+    INDEX `idx_rt_expires_at` (`expires_at`),
+    FOREIGN KEY (`user_id`) REFERENCES `user`(`user_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='刷新令牌表';
+
+-- 已吊销的访问令牌 (按 jti)，过期后可删除
+CREATE TABLE IF NOT EXISTS `revoked_token` (
+    `jti` VARCHAR(32) PRIMARY KEY COMMENT '访问令牌ID (JWT jti)',
+    `expires_at` DATETIME NOT NULL COMMENT '访问令牌的过期时间',
+    `revoked_at` DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '吊销时间',
+    INDEX `idx_revoked_expires_at` (`expires_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='访问令牌吊销表';
+
+-- 号段表：按块租用递增序号，应用内再经置换映射为 8 位用户 ID
+CREATE TABLE IF NOT EXISTS `id_sequence` (
+    `name` VARCHAR(32) PRIMARY KEY COMMENT '序列名称',
+    `next_value` BIGINT NOT NULL DEFAULT 0 COMMENT '下一个未分配的序号'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='号段表';
+
+INSERT IGNORE INTO `id_sequence` (`name`, `next_value`) VALUES ('user', 0);
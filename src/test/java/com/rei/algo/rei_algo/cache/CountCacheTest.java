@@ -0,0 +1,92 @@
+package com.rei.algo.rei_algo.cache;
+
+import com.rei.algo.cache.CountCache;
+import com.rei.algo.mapper.StatisticsMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分页总数缓存：命中不再查询、按前缀失效、加载期间发生的失效不会缓存旧总数，以及两种近似模式的阈值判断。
+ */
+class CountCacheTest {
+
+    private static final int THRESHOLD = 100;
+
+    private StatisticsMapper statisticsMapper;
+    private CountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        statisticsMapper = mock(StatisticsMapper.class);
+        cache = new CountCache(statisticsMapper, 60_000, 1_000, true, THRESHOLD);
+    }
+
+    @Test
+    void cachesUntilAPrefixIsInvalidated() {
+        AtomicInteger queries = new AtomicInteger();
+        cache.exact("post:keyword:java", () -> queries.incrementAndGet() * 10L);
+        cache.exact("post:all", () -> queries.incrementAndGet() * 10L);
+
+        assertEquals(10, cache.exact("post:keyword:java", () -> queries.incrementAndGet() * 10L).value());
+        assertEquals(2, queries.get());
+
+        cache.invalidate("post:keyword:");
+        assertEquals(30, cache.exact("post:keyword:java", () -> queries.incrementAndGet() * 10L).value());
+        // Other prefixes are untouched
+        assertEquals(20, cache.exact("post:all", () -> queries.incrementAndGet() * 10L).value());
+        assertEquals(3, queries.get());
+    }
+
+    @Test
+    void countLoadedAcrossAnInvalidationIsNotCached() {
+        CountCache.Count stale = cache.exact("post:all", () -> {
+            // A post is created and committed while the COUNT is running
+            cache.invalidate("post:");
+            return 5;
+        });
+        assertEquals(5, stale.value());
+
+        assertEquals(6, cache.exact("post:all", () -> 6).value());
+    }
+
+    @Test
+    void cappedCountIsApproximateAtTheThreshold() {
+        CountCache.Count below = cache.upTo("a", () -> {
+            throw new AssertionError("exact count must not run in approximate mode");
+        }, limit -> 42);
+        CountCache.Count capped = cache.upTo("b", () -> {
+            throw new AssertionError("exact count must not run in approximate mode");
+        }, limit -> limit);
+
+        assertEquals(CountCache.Count.exact(42), below);
+        assertEquals(THRESHOLD, capped.value());
+        assertTrue(capped.approximate());
+    }
+
+    @Test
+    void tableEstimateIsUsedOnlyAboveTheThreshold() {
+        when(statisticsMapper.estimateRowCount("post")).thenReturn(5_000L);
+        when(statisticsMapper.estimateRowCount("comment")).thenReturn(50L);
+
+        assertEquals(new CountCache.Count(5_000, true), cache.estimated("post:all", "post", () -> 4_990));
+        assertEquals(CountCache.Count.exact(48), cache.estimated("comment:all", "comment", () -> 48));
+    }
+
+    @Test
+    void approximateModeCanBeDisabled() {
+        CountCache exactOnly = new CountCache(statisticsMapper, 60_000, 1_000, false, THRESHOLD);
+
+        CountCache.Count count = exactOnly.upTo("a", () -> 12_345, limit -> limit);
+        assertEquals(12_345, count.value());
+        assertFalse(count.approximate());
+        assertEquals(CountCache.Count.exact(7), exactOnly.estimated("b", "post", () -> 7));
+    }
+}
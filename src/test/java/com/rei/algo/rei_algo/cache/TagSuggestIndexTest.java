@@ -0,0 +1,80 @@
+package com.rei.algo.rei_algo.cache;
+
+import com.rei.algo.DTO.tag.TagStatDTO;
+import com.rei.algo.cache.TagDictionary;
+import com.rei.algo.cache.TagStatistics;
+import com.rei.algo.cache.TagSuggestIndex;
+import com.rei.algo.model.entity.Tag;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 标签建议按热度排序：热度最高的标签无论在前缀树中的位置如何都不会被截掉。
+ */
+class TagSuggestIndexTest {
+
+    private final Map<String, Tag> tags = new HashMap<>();
+    private final Map<String, Long> postCounts = new HashMap<>();
+    private TagSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        TagDictionary dictionary = mock(TagDictionary.class);
+        TagStatistics statistics = mock(TagStatistics.class);
+        when(dictionary.findById(anyString())).thenAnswer(call -> Optional.ofNullable(tags.get(call.<String>getArgument(0))));
+        when(statistics.getPostCount(anyString())).thenAnswer(call -> postCounts.getOrDefault(call.<String>getArgument(0), 0L));
+        index = new TagSuggestIndex(dictionary, statistics);
+    }
+
+    @Test
+    void mostPopularTagsWinAmongManyMatches() {
+        List<Tag> added = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            added.add(tag("t" + i, "algo-" + i, i % 7));
+        }
+        added.add(tag("hot", "algo-zzz", 1_000));
+        added.add(tag("warm", "algo-aaa", 500));
+        index.add(added);
+
+        List<TagStatDTO> suggestions = index.suggest("ALGO", 3);
+
+        assertEquals(List.of("hot", "warm"), suggestions.subList(0, 2).stream().map(TagStatDTO::getTagId).toList());
+        assertEquals(6L, suggestions.get(2).getPostCount());
+    }
+
+    @Test
+    void tagMatchedThroughSeveralKeysIsReturnedOnce() {
+        index.add(List.of(tag("sb", "spring boot", 3), tag("b", "boot", 5)));
+
+        assertEquals(List.of("b", "sb"), index.suggest("boot", 10).stream().map(TagStatDTO::getTagId).toList());
+        assertEquals(List.of("sb"), index.suggest("spr", 10).stream().map(TagStatDTO::getTagId).toList());
+    }
+
+    @Test
+    void removedTagIsNoLongerSuggested() {
+        index.add(List.of(tag("g", "graph", 1)));
+        index.remove("g");
+
+        assertEquals(List.of(), index.suggest("gr", 10));
+    }
+
+    // --- Helper Methods --- //
+
+    private Tag tag(String tagId, String name, long postCount) {
+        Tag tag = Tag.builder().tagId(tagId).name(name).build();
+        tags.put(tagId, tag);
+        postCounts.put(tagId, postCount);
+        return tag;
+    }
+}
@@ -0,0 +1,112 @@
+package com.rei.algo.rei_algo.cache;
+
+import com.rei.algo.cache.UserAvailabilityFilter;
+import com.rei.algo.mapper.UserMapper;
+import com.rei.algo.model.entity.User;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户名 / 邮箱可用性过滤器：未命中时不查询数据库，命中时由数据库确认；
+ * 重建扫描期间提交的注册不会因为换用新过滤器而丢失。
+ */
+class UserAvailabilityFilterTest {
+
+    private final List<User> users = new ArrayList<>();
+    private UserMapper userMapper;
+    private UserAvailabilityFilter filter;
+    private Runnable duringScan = () -> {
+    };
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        when(userMapper.countUsers()).thenAnswer(call -> (long) users.size());
+        doAnswer(call -> {
+            ResultHandler<User> handler = call.getArgument(0);
+            DefaultResultContext<User> context = new DefaultResultContext<>();
+            for (User user : users) {
+                context.nextResultObject(user);
+                handler.handleResult(context);
+                duringScan.run();
+            }
+            return null;
+        }).when(userMapper).scanUsernamesAndEmails(any());
+        filter = new UserAvailabilityFilter(userMapper);
+
+        users.add(User.builder().username("alice").email("alice@example.com").build());
+        users.add(User.builder().username("bob").build());
+    }
+
+    @Test
+    void missSkipsTheDatabaseAndHitIsConfirmed() {
+        filter.rebuild();
+        when(userMapper.existsByUsername("  Alice ")).thenReturn(true);
+
+        assertTrue(filter.isUsernameAvailable("carol"));
+        assertTrue(filter.isEmailAvailable("carol@example.com"));
+        verify(userMapper, never()).existsByUsername("carol");
+        verify(userMapper, never()).existsByEmail(anyString());
+
+        // Keys are compared case-insensitively, the database has the final say
+        assertFalse(filter.isUsernameAvailable("  Alice "));
+        verify(userMapper).existsByUsername("  Alice ");
+    }
+
+    @Test
+    void withoutAFilterEveryCheckGoesToTheDatabase() {
+        assertTrue(filter.isUsernameAvailable("carol"));
+        verify(userMapper).existsByUsername("carol");
+    }
+
+    @Test
+    void committedRegistrationIsAddedToTheFilter() {
+        filter.rebuild();
+        filter.addAfterCommit("dave", "Dave@Example.com");
+
+        filter.isUsernameAvailable("dave");
+        filter.isEmailAvailable("dave@example.com");
+        verify(userMapper).existsByUsername("dave");
+        verify(userMapper).existsByEmail("dave@example.com");
+    }
+
+    @Test
+    void registrationDuringRebuildSurvivesTheSwap() {
+        filter.rebuild();
+        // Registered on this node while the next rebuild is still scanning rows that predate it
+        duringScan = () -> {
+            filter.addAfterCommit("erin", "erin@example.com");
+            duringScan = () -> {
+            };
+        };
+        filter.rebuild();
+
+        filter.isUsernameAvailable("erin");
+        verify(userMapper).existsByUsername("erin");
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousFilter() {
+        filter.rebuild();
+        when(userMapper.countUsers()).thenThrow(new IllegalStateException("database down"));
+        filter.rebuild();
+
+        assertTrue(filter.isUsernameAvailable("carol"));
+        verify(userMapper, never()).existsByUsername(anyString());
+    }
+}
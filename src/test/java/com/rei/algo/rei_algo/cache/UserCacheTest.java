@@ -0,0 +1,84 @@
+package com.rei.algo.rei_algo.cache;
+
+import com.rei.algo.cache.UserCache;
+import com.rei.algo.model.entity.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+/**
+ * 用户缓存：命中返回副本，按用户名 (不区分大小写) 命中，加载期间发生的失效不会让旧数据被重新缓存。
+ */
+class UserCacheTest {
+
+    private final UserCache cache = new UserCache(60_000, 100);
+
+    @Test
+    void hitReturnsCopyAndSharesEntryWithUsernameIndex() {
+        AtomicInteger loads = new AtomicInteger();
+        User first = cache.getById("u1", () -> {
+            loads.incrementAndGet();
+            return Optional.of(user("u1", "Alice"));
+        }).orElseThrow();
+        first.setEmail("changed@example.com");
+
+        User second = cache.getById("u1", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).orElseThrow();
+        User byName = cache.getByUsername("ALICE", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertEquals("alice@example.com", second.getEmail());
+        assertNotSame(first, second);
+        assertEquals("u1", byName.getUserId());
+    }
+
+    @Test
+    void invalidateDuringLoadDoesNotCacheStaleUser() {
+        User stale = cache.getById("u1", () -> {
+            // The row is updated and invalidated while this (old) read is in flight
+            cache.invalidate("u1");
+            return Optional.of(user("u1", "Alice"));
+        }).orElseThrow();
+        assertEquals("Alice", stale.getUsername());
+
+        User fresh = cache.getById("u1", () -> Optional.of(user("u1", "Alicia"))).orElseThrow();
+        assertEquals("Alicia", fresh.getUsername());
+        assertEquals("u1", cache.getByUsername("alicia", Optional::empty).orElseThrow().getUserId());
+    }
+
+    @Test
+    void invalidateRemovesBothIndexes() {
+        cache.getById("u1", () -> Optional.of(user("u1", "Alice")));
+        cache.invalidate("u1");
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.getByUsername("alice", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        cache.getById("u1", () -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        });
+        assertEquals(2, loads.get());
+    }
+
+    // --- Helper Methods --- //
+
+    private static User user(String userId, String username) {
+        return User.builder()
+                .userId(userId)
+                .username(username)
+                .email(username.toLowerCase() + "@example.com")
+                .build();
+    }
+}
@@ -4,8 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.rei.algo.DTO.auth.LoginRequestDTO;
 import com.rei.algo.DTO.auth.RegisterRequestDTO;
 import com.rei.algo.DTO.user.UserDTO;
+import com.rei.algo.cache.RevokedTokenRegistry;
+import com.rei.algo.cache.UserAvailabilityFilter;
 import com.rei.algo.controller.AuthController;
 import com.rei.algo.security.JwtTokenProvider;
+import com.rei.algo.service.AuthTokenService;
 import com.rei.algo.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,6 +46,15 @@ class AuthControllerTest {
     @MockitoBean
     private JwtTokenProvider tokenProvider;
 
+    @MockitoBean
+    private AuthTokenService authTokenService;
+
+    @MockitoBean
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @MockitoBean
+    private UserAvailabilityFilter userAvailabilityFilter;
+
     @Autowired
     private ObjectMapper objectMapper; // For converting objects to JSON
 
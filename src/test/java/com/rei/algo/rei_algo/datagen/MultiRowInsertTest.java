@@ -0,0 +1,86 @@
+package com.rei.algo.rei_algo.datagen;
+
+import com.rei.algo.datagen.MultiRowInsert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 多行 INSERT：整批语句只预编译一次，flush 写出剩余行，所有行的值按列顺序写入 (H2 内存库)。
+ */
+class MultiRowInsertTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:multi_row_insert");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE item (id INT PRIMARY KEY, name VARCHAR(32), weight DOUBLE)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Test
+    void writesFullBatchesWithOnePreparedStatementAndFlushesTheRest() throws SQLException {
+        Connection tracked = spy(connection);
+        try (MultiRowInsert insert = new MultiRowInsert(tracked, 100, "item", "id", "name", "weight")) {
+            for (int i = 0; i < 250; i++) {
+                insert.add(i, "item-" + i, i / 2.0);
+            }
+            assertEquals(200, insert.insertedRows());
+            assertEquals(200, countRows());
+
+            insert.flush();
+            insert.flush(); // nothing left: no statement
+            assertEquals(250, insert.insertedRows());
+            assertEquals("item", insert.table());
+        }
+
+        // One statement for the full batches, one for the remaining 50 rows
+        verify(tracked, times(2)).prepareStatement(anyString());
+        assertEquals(250, countRows());
+        try (Statement statement = connection.createStatement();
+             ResultSet row = statement.executeQuery("SELECT name, weight FROM item WHERE id = 249")) {
+            row.next();
+            assertEquals("item-249", row.getString(1));
+            assertEquals(124.5, row.getDouble(2));
+        }
+    }
+
+    @Test
+    void rejectsRowsWithTheWrongNumberOfValues() throws SQLException {
+        try (MultiRowInsert insert = new MultiRowInsert(connection, 10, "item", "id", "name", "weight")) {
+            assertThrows(IllegalArgumentException.class, () -> insert.add(1, "only-two"));
+            insert.flush();
+            assertEquals(0, insert.insertedRows());
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private long countRows() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM item")) {
+            count.next();
+            return count.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.rei.algo.rei_algo.datagen;
+
+import com.rei.algo.datagen.ZipfDistribution;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Zipf 分布：概率之和为 1、按排名以 k^-s 递减，抽样频率与概率一致。
+ */
+class ZipfDistributionTest {
+
+    @Test
+    void probabilitiesFollowThePowerLaw() {
+        ZipfDistribution zipf = new ZipfDistribution(1_000, 1.2);
+
+        double sum = 0;
+        for (int rank = 1; rank <= 1_000; rank++) {
+            sum += zipf.probability(rank);
+            if (rank > 1) {
+                assertTrue(zipf.probability(rank) < zipf.probability(rank - 1));
+            }
+        }
+        assertEquals(1.0, sum, 1e-9);
+        assertEquals(Math.pow(2, 1.2), zipf.probability(1) / zipf.probability(2), 1e-9);
+    }
+
+    @Test
+    void samplesMatchTheProbabilities() {
+        ZipfDistribution zipf = new ZipfDistribution(10, 1.0);
+        SplittableRandom random = new SplittableRandom(42);
+        int samples = 200_000;
+        int[] counts = new int[11];
+        for (int i = 0; i < samples; i++) {
+            int rank = zipf.sample(random);
+            assertTrue(rank >= 1 && rank <= 10, "rank out of range: " + rank);
+            counts[rank]++;
+        }
+
+        for (int rank = 1; rank <= 10; rank++) {
+            assertEquals(zipf.probability(rank), (double) counts[rank] / samples, 0.005, "rank " + rank);
+        }
+    }
+
+    @Test
+    void singleRankAlwaysSamplesOne() {
+        ZipfDistribution zipf = new ZipfDistribution(1, 1.5);
+        SplittableRandom random = new SplittableRandom(1);
+
+        assertEquals(1.0, zipf.probability(1), 1e-12);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1, zipf.sample(random));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0));
+    }
+}
@@ -0,0 +1,69 @@
+package com.rei.algo.rei_algo.datasource;
+
+import com.rei.algo.datasource.ConcurrencyLimitedDataSource;
+import com.rei.algo.exception.ServiceBusyException;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 数据库闸门：许可用完时等待超时返回 503，连接关闭时归还许可 (重复关闭只归还一次)。
+ */
+class ConcurrencyLimitedDataSourceTest {
+
+    @Test
+    void rejectsWhenAllPermitsAreHeld() throws Exception {
+        ConcurrencyLimitedDataSource gate = new ConcurrencyLimitedDataSource("test", h2(), 2, 100, null);
+
+        try (Connection first = gate.getConnection(); Connection second = connectOnNewThread(gate).get()) {
+            ExecutionException rejected = assertThrows(ExecutionException.class,
+                    () -> connectOnNewThread(gate).get());
+            assertInstanceOf(ServiceBusyException.class, rejected.getCause());
+        }
+
+        // Both permits were returned
+        try (Connection first = gate.getConnection()) {
+            connectOnNewThread(gate).get().close();
+        }
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws Exception {
+        ConcurrencyLimitedDataSource gate = new ConcurrencyLimitedDataSource("test", h2(), 1, 100, null);
+
+        Connection connection = gate.getConnection();
+        connection.close();
+        connection.close();
+
+        try (Connection held = gate.getConnection()) {
+            ExecutionException rejected = assertThrows(ExecutionException.class,
+                    () -> connectOnNewThread(gate).get());
+            assertInstanceOf(ServiceBusyException.class, rejected.getCause());
+        }
+    }
+
+    // --- Helper Methods --- //
+
+    private static CompletableFuture<Connection> connectOnNewThread(ConcurrencyLimitedDataSource gate) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return gate.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }, task -> new Thread(task).start());
+    }
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:gate;DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
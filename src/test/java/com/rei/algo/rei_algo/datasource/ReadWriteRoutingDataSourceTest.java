@@ -0,0 +1,105 @@
+package com.rei.algo.rei_algo.datasource;
+
+import com.rei.algo.datasource.ReadWriteRoutingDataSource;
+import com.rei.algo.datasource.ReadYourWritesTracker;
+import com.rei.algo.datasource.ReplicaHealthChecker;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 用两个 H2 内存库分别充当主库和副本，验证读写路由、健康/延迟回退和读己之写。
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final AtomicReference<String> currentUser = new AtomicReference<>();
+
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = standIn("primary");
+        DataSource replica = standIn("replica");
+        routingDataSource = new ReadWriteRoutingDataSource(primary, Map.of("replica", replica),
+                new ReadYourWritesTracker(60_000, currentUser::get));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        currentUser.set(null);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void writeTransactionsAndNonTransactionalAccessGoToPrimary() {
+        assertEquals("primary", writeTransaction.execute(status -> whoAmI()));
+        assertEquals("primary", whoAmI());
+    }
+
+    @Test
+    void unhealthyReplicaFallsBackToPrimary() {
+        routingDataSource.setReplicaHealthy("replica", false);
+        assertEquals("primary", readOnlyTransaction.execute(status -> whoAmI()));
+
+        routingDataSource.setReplicaHealthy("replica", true);
+        assertEquals("replica", readOnlyTransaction.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void laggingReplicaIsTakenOutOfRotation() {
+        // A custom lag query returns the lag in seconds as its first column
+        new ReplicaHealthChecker(routingDataSource, "SELECT 30", 5).checkAll();
+        assertEquals("primary", readOnlyTransaction.execute(status -> whoAmI()));
+
+        new ReplicaHealthChecker(routingDataSource, "SELECT 1", 5).checkAll();
+        assertEquals("replica", readOnlyTransaction.execute(status -> whoAmI()));
+    }
+
+    @Test
+    void userReadsOwnWritesFromPrimary() {
+        currentUser.set("10000001");
+        writeTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("UPDATE whoami SET name = name"));
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> whoAmI()));
+
+        currentUser.set("10000002");
+        assertEquals("replica", readOnlyTransaction.execute(status -> whoAmI()));
+    }
+
+    // --- Helper Methods --- //
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static DataSource standIn(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:routing_" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(16))");
+        jdbc.execute("DELETE FROM whoami");
+        jdbc.update("INSERT INTO whoami (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,156 @@
+package com.rei.algo.rei_algo.interceptor;
+
+import com.rei.algo.exception.QueryBudgetExceededException;
+import com.rei.algo.interceptor.QueryBudgetFilter;
+import com.rei.algo.interceptor.QueryBudgetProperties;
+import com.rei.algo.interceptor.QueryCountInterceptor;
+import com.rei.algo.interceptor.QueryCounter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 查询预算：请求经过 QueryBudgetFilter，接口内通过 MyBatis (带 QueryCountInterceptor) 查询 H2，
+ * 验证语句计数 (含派生线程上的查询)、WARN 模式只记录日志、FAIL 模式抛出异常。
+ */
+@ExtendWith(OutputCaptureExtension.class)
+class QueryBudgetFilterTest {
+
+    private static final String ENDPOINT = "/api/comments/post/p1";
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    public interface ProbeMapper {
+        @Select("SELECT 1")
+        int ping();
+    }
+
+    @BeforeAll
+    static void setUpMyBatis() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:query_budget;DB_CLOSE_DELAY=-1");
+        Configuration configuration = new Configuration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.addInterceptor(new QueryCountInterceptor());
+        configuration.addMapper(ProbeMapper.class);
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @Test
+    void countsEveryStatementOfTheRequest() throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(properties(QueryBudgetProperties.Mode.FAIL, 10));
+
+        MockHttpServletResponse response = get(filter, 4, 2);
+
+        // Statements run on another thread through QueryCounter.propagate are counted too
+        assertEquals("6", response.getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER));
+    }
+
+    @Test
+    void warnModeLogsRepeatedStatementsAndLetsTheRequestThrough(CapturedOutput output) {
+        QueryBudgetFilter filter = new QueryBudgetFilter(properties(QueryBudgetProperties.Mode.WARN, 3));
+
+        MockHttpServletResponse response = assertDoesNotThrow(() -> get(filter, 5, 0));
+
+        assertEquals(200, response.getStatus());
+        assertTrue(output.getOut().contains("GET " + ENDPOINT + " executed 5 SQL statement(s), budget 3"), output.getOut());
+        assertTrue(output.getOut().contains("ProbeMapper.ping x5"), output.getOut());
+    }
+
+    @Test
+    void failModeThrowsOnlyWhenOverBudget(CapturedOutput output) throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(properties(QueryBudgetProperties.Mode.FAIL, 3));
+
+        assertDoesNotThrow(() -> get(filter, 3, 0));
+        QueryBudgetExceededException exceeded = assertThrows(QueryBudgetExceededException.class, () -> get(filter, 4, 0));
+        assertTrue(exceeded.getMessage().contains("executed 4 SQL statement(s), budget 3"), exceeded.getMessage());
+        assertFalse(output.getOut().contains("budget 3"));
+    }
+
+    @Test
+    void counterIsUnboundAfterTheRequest() throws Exception {
+        get(new QueryBudgetFilter(properties(QueryBudgetProperties.Mode.FAIL, 10)), 1, 0);
+
+        assertNull(QueryCounter.current());
+    }
+
+    // --- Helper Methods --- //
+
+    /**
+     * 请求 ENDPOINT，接口在请求线程上执行 queries 条语句，另在一个派生线程上执行 forkedQueries 条
+     */
+    private static MockHttpServletResponse get(QueryBudgetFilter filter, int queries, int forkedQueries) throws Exception {
+        HttpServlet endpoint = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+                runQueries(queries);
+                try {
+                    CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return QueryCounter.propagate(() -> runQueries(forkedQueries)).call();
+                        } catch (Exception e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ENDPOINT);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(endpoint));
+        return response;
+    }
+
+    private static int runQueries(int count) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            ProbeMapper mapper = session.getMapper(ProbeMapper.class);
+            for (int i = 0; i < count; i++) {
+                mapper.ping();
+            }
+        }
+        return count;
+    }
+
+    private static QueryBudgetProperties properties(QueryBudgetProperties.Mode mode, int budget) {
+        QueryBudgetProperties.Endpoint endpoint = new QueryBudgetProperties.Endpoint();
+        endpoint.setMethod("GET");
+        endpoint.setPatterns(List.of("/api/comments/post/*"));
+        endpoint.setBudget(budget);
+
+        QueryBudgetProperties properties = new QueryBudgetProperties();
+        properties.setMode(mode);
+        properties.setRepeatThreshold(2);
+        properties.setExposeHeader(true);
+        properties.setEndpoints(List.of(endpoint));
+        return properties;
+    }
+}
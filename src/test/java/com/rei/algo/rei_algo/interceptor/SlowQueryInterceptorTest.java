@@ -0,0 +1,103 @@
+package com.rei.algo.rei_algo.interceptor;
+
+import com.rei.algo.interceptor.SlowQueryInterceptor;
+import com.rei.algo.monitoring.SlowQueryLog;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 慢查询记录的 SQL 渲染：敏感参数脱敏、长参数截断、引号转义，字符串字面量中的 ? 不被替换。
+ * 阈值为 0，每条语句都会被记录。
+ */
+class SlowQueryInterceptorTest {
+
+    public interface ProbeMapper {
+        @Select("SELECT CONCAT(CAST(#{username} AS VARCHAR), CAST(#{passwordHash} AS VARCHAR), "
+                + "CAST(#{refreshToken} AS VARCHAR), CAST(#{bio} AS VARCHAR), '?', CAST(#{limit} AS VARCHAR))")
+        String probe(@Param("username") String username, @Param("passwordHash") String passwordHash,
+                     @Param("refreshToken") String refreshToken, @Param("bio") String bio, @Param("limit") Integer limit);
+    }
+
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(10);
+    private SqlSessionFactory sqlSessionFactory;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:slow_query;DB_CLOSE_DELAY=-1");
+        Configuration configuration = new Configuration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.addInterceptor(new SlowQueryInterceptor(slowQueryLog, 0, 0, 60_000));
+        configuration.addMapper(ProbeMapper.class);
+        sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @Test
+    void secretParametersAreRedacted() {
+        String sql = probe("alice", "$2a$10$abcdefghijklmnopqrstuv", "eyJhbGciOiJIUzI1NiJ9.payload", "bio", 3);
+
+        assertTrue(sql.contains("CAST('alice' AS VARCHAR)"), sql);
+        assertEquals(2, occurrences(sql, "'***'"), sql);
+        assertFalse(sql.contains("$2a$10$"), sql);
+        assertFalse(sql.contains("eyJhbGci"), sql);
+    }
+
+    @Test
+    void longValuesAreTruncatedAndQuotesEscaped() {
+        String sql = probe("o'brien", null, null, "x".repeat(100), 7);
+
+        assertTrue(sql.contains("'o''brien'"), sql);
+        assertTrue(sql.contains("'" + "x".repeat(64) + "...(100 chars)'"), sql);
+        assertTrue(sql.contains("CAST(NULL AS VARCHAR)"), sql);
+        assertTrue(sql.contains("CAST(7 AS VARCHAR)"), sql);
+        // The literal '?' is left alone and does not consume a parameter
+        assertTrue(sql.contains("'?'"), sql);
+    }
+
+    @Test
+    void entryCarriesStatementAndRowCount() {
+        probe("bob", null, null, null, 1);
+
+        SlowQueryLog.Entry entry = slowQueryLog.recent(1).get(0);
+        assertEquals("SlowQueryInterceptorTest$ProbeMapper.probe", entry.statement());
+        assertEquals("SELECT", entry.command());
+        assertEquals(1, entry.rows());
+        // Sample rate 0: no EXPLAIN
+        assertNull(entry.plan());
+    }
+
+    // --- Helper Methods --- //
+
+    private String probe(String username, String passwordHash, String refreshToken, String bio, Integer limit) {
+        try (SqlSession session = sqlSessionFactory.openSession()) {
+            session.getMapper(ProbeMapper.class).probe(username, passwordHash, refreshToken, bio, limit);
+        }
+        List<SlowQueryLog.Entry> recent = slowQueryLog.recent(1);
+        assertEquals(1, recent.size());
+        return recent.get(0).sql();
+    }
+
+    private static int occurrences(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,82 @@
+package com.rei.algo.rei_algo.monitoring;
+
+import com.rei.algo.monitoring.SlowQueryLog;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 慢查询环形缓冲区：绕回后只保留最新的记录，并发写入后每个槽位都是该槽位最新的一条。
+ */
+class SlowQueryLogTest {
+
+    @Test
+    void keepsOnlyTheNewestEntriesNewestFirst() {
+        SlowQueryLog log = new SlowQueryLog(3);
+        for (int i = 0; i < 5; i++) {
+            log.add(entry("s" + i));
+        }
+
+        assertEquals(List.of("s4", "s3", "s2"), statements(log.recent(10)));
+        assertEquals(List.of("s4", "s3"), statements(log.recent(2)));
+    }
+
+    @Test
+    void clearEmptiesTheBufferButKeepsAccepting() {
+        SlowQueryLog log = new SlowQueryLog(2);
+        log.add(entry("old"));
+        log.clear();
+        assertTrue(log.recent(10).isEmpty());
+
+        log.add(entry("new"));
+        assertEquals(List.of("new"), statements(log.recent(10)));
+    }
+
+    @Test
+    void concurrentWritersNeverLeaveAnOlderEntryInASlot() throws InterruptedException {
+        int capacity = 8;
+        int threads = 8;
+        int perThread = 20_000;
+        SlowQueryLog log = new SlowQueryLog(capacity);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            String name = "t" + t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    log.add(entry(name));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Once writes are quiet, every slot holds the newest sequence that maps to it
+        assertEquals(capacity, log.recent(capacity).size());
+    }
+
+    // --- Helper Methods --- //
+
+    private static SlowQueryLog.Entry entry(String statement) {
+        return new SlowQueryLog.Entry(Instant.now(), statement, "SELECT", "SELECT 1", 250, 1, null, null);
+    }
+
+    private static List<String> statements(List<SlowQueryLog.Entry> entries) {
+        return entries.stream().map(SlowQueryLog.Entry::statement).toList();
+    }
+}
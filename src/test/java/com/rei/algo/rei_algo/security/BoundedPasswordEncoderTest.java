@@ -0,0 +1,36 @@
+package com.rei.algo.rei_algo.security;
+
+import com.rei.algo.security.BoundedPasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 批量哈希：结果按输入顺序返回；队列很小时也不会因拒绝而失败。
+ */
+class BoundedPasswordEncoderTest {
+
+    private final BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(4, 2, 1, 5_000, null);
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void encodeAllKeepsInputOrder() {
+        List<String> passwords = IntStream.range(0, 20).mapToObj(i -> "password-" + i).toList();
+
+        List<String> hashes = encoder.encodeAll(passwords, 8);
+
+        assertEquals(passwords.size(), hashes.size());
+        for (int i = 0; i < passwords.size(); i++) {
+            assertTrue(encoder.matches(passwords.get(i), hashes.get(i)));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.rei.algo.rei_algo.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rei.algo.security.RateLimitFilter;
+import com.rei.algo.security.RateLimitProperties;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * 一个请求匹配多条路由时，被其中一条拒绝的请求不消耗其他路由的令牌；
+ * 按用户名限流时预读的请求体可以被下游以非阻塞方式 (ReadListener) 读取。
+ */
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), new ObjectMapper(), null);
+
+    @Test
+    void rejectedRequestDoesNotConsumeOtherRoutes() throws Exception {
+        assertEquals(200, login("alice"));
+        // Rejected by the per-username route; the per-IP token it took is given back
+        assertEquals(429, login("alice"));
+        assertEquals(200, login("bob"));
+        // Now the per-IP route is exhausted
+        assertEquals(429, login("carol"));
+    }
+
+    @Test
+    void cachedBodyCanBeReadWithAReadListener() throws Exception {
+        String body = "{\"username\": \"alice\", \"password\": \"x\"}";
+        List<String> events = new ArrayList<>();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+
+        filter.doFilter(loginRequest(body), new MockHttpServletResponse(), (request, response) -> {
+            ServletInputStream in = request.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    events.add("data");
+                    byte[] buffer = new byte[8];
+                    while (in.isReady() && !in.isFinished()) {
+                        int n = in.read(buffer);
+                        if (n > 0) {
+                            read.write(buffer, 0, n);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    events.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    events.add("error");
+                }
+            });
+        });
+
+        assertEquals(List.of("data", "done"), events);
+        assertEquals(body, read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void readListenerFailureIsReportedToOnError() throws Exception {
+        List<Throwable> errors = new ArrayList<>();
+
+        filter.doFilter(loginRequest("{\"username\": \"alice\"}"), new MockHttpServletResponse(),
+                (request, response) -> request.getInputStream().setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        throw new IOException("client went away");
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        errors.add(t);
+                    }
+                }));
+
+        assertEquals(1, errors.size());
+        assertInstanceOf(IOException.class, errors.get(0));
+    }
+
+    // --- Helper Methods --- //
+
+    private int login(String username) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(loginRequest("{\"username\": \"" + username + "\", \"password\": \"x\"}"), response,
+                new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest loginRequest(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr("10.0.0.1");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(
+                route("login-ip", RateLimitProperties.KeyType.IP, 2),
+                route("login-username", RateLimitProperties.KeyType.USERNAME, 1)));
+        return properties;
+    }
+
+    private static RateLimitProperties.Route route(String name, RateLimitProperties.KeyType key, int limit) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setName(name);
+        route.setMethod("POST");
+        route.setPatterns(List.of("/api/auth/login"));
+        route.setKey(key);
+        route.setLimit(limit);
+        route.setPeriod(Duration.ofHours(1));
+        return route;
+    }
+}
@@ -0,0 +1,56 @@
+package com.rei.algo.rei_algo.security;
+
+import com.rei.algo.security.RateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * GCRA 限流器：突发量、按发射间隔补充、桶之间互不影响以及归还令牌。
+ */
+class RateLimiterTest {
+
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final RateLimiter limiter = new RateLimiter(1_000, Duration.ofMinutes(1).toNanos());
+
+    @Test
+    void allowsBurstThenRejectsWithWaitTime() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("k", INTERVAL, 3));
+        }
+        long wait = limiter.tryAcquire("k", INTERVAL, 3);
+        assertTrue(wait > 0 && wait <= INTERVAL, "wait " + wait);
+    }
+
+    @Test
+    void refillsOneTokenPerEmissionInterval() throws InterruptedException {
+        assertEquals(0, limiter.tryAcquire("k", INTERVAL, 1));
+        assertTrue(limiter.tryAcquire("k", INTERVAL, 1) > 0);
+
+        TimeUnit.NANOSECONDS.sleep(INTERVAL + TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(0, limiter.tryAcquire("k", INTERVAL, 1));
+        assertTrue(limiter.tryAcquire("k", INTERVAL, 1) > 0);
+    }
+
+    @Test
+    void bucketsAreIndependent() {
+        assertEquals(0, limiter.tryAcquire("a", INTERVAL, 1));
+        assertTrue(limiter.tryAcquire("a", INTERVAL, 1) > 0);
+        assertEquals(0, limiter.tryAcquire("b", INTERVAL, 1));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void refundedTokenCanBeTakenAgain() {
+        long hour = TimeUnit.HOURS.toNanos(1);
+        assertEquals(0, limiter.tryAcquire("k", hour, 1));
+        limiter.refund("k", hour);
+        assertEquals(0, limiter.tryAcquire("k", hour, 1));
+        assertTrue(limiter.tryAcquire("k", hour, 1) > 0);
+    }
+}
@@ -0,0 +1,142 @@
+package com.rei.algo.rei_algo.service;
+
+import com.rei.algo.DTO.auth.LoginResponseDTO;
+import com.rei.algo.cache.RevokedTokenRegistry;
+import com.rei.algo.mapper.AuthTokenMapper;
+import com.rei.algo.model.entity.RefreshToken;
+import com.rei.algo.model.entity.User;
+import com.rei.algo.security.JwtTokenProvider;
+import com.rei.algo.service.UserService;
+import com.rei.algo.service.impl.AuthTokenServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 刷新令牌轮换：每次刷新换发新令牌；已轮换的令牌再次出现时视为泄露，作废整条轮换链。
+ * 令牌表用内存 Map 模拟，条件更新与作废的语义与 AuthTokenMapper.xml 一致。
+ */
+class AuthTokenServiceImplTest {
+
+    private static final String USER_ID = "10000001";
+
+    private final Map<String, RefreshToken> tokens = new HashMap<>();
+    private AuthTokenMapper authTokenMapper;
+    private AuthTokenServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        authTokenMapper = mock(AuthTokenMapper.class);
+        when(authTokenMapper.insertRefreshToken(any())).thenAnswer(call -> {
+            RefreshToken token = call.getArgument(0);
+            tokens.put(token.getTokenId(), token);
+            return 1;
+        });
+        when(authTokenMapper.findRefreshTokenById(anyString()))
+                .thenAnswer(call -> Optional.ofNullable(tokens.get(call.<String>getArgument(0))));
+        when(authTokenMapper.markRefreshTokenReplaced(anyString(), anyString())).thenAnswer(call -> {
+            RefreshToken token = tokens.get(call.<String>getArgument(0));
+            if (token == null || token.getReplacedBy() != null || token.getRevokedAt() != null) {
+                return 0;
+            }
+            token.setReplacedBy(call.getArgument(1));
+            return 1;
+        });
+        when(authTokenMapper.revokeRefreshTokenFamily(anyString())).thenAnswer(call -> {
+            int revoked = 0;
+            for (RefreshToken token : tokens.values()) {
+                if (token.getFamilyId().equals(call.getArgument(0)) && token.getRevokedAt() == null) {
+                    token.setRevokedAt(LocalDateTime.now());
+                    revoked++;
+                }
+            }
+            return revoked;
+        });
+
+        JwtTokenProvider tokenProvider = mock(JwtTokenProvider.class);
+        when(tokenProvider.generateToken(any(User.class))).thenReturn("access-token");
+        when(tokenProvider.getAccessTokenTtlMs()).thenReturn(900_000L);
+        UserService userService = mock(UserService.class);
+        when(userService.findUserById(USER_ID)).thenReturn(Optional.of(User.builder().userId(USER_ID).username("alice").build()));
+
+        service = new AuthTokenServiceImpl(authTokenMapper, mock(RevokedTokenRegistry.class), tokenProvider, userService,
+                1_209_600_000L);
+    }
+
+    @Test
+    void refreshRotatesWithinTheSameFamily() {
+        String first = service.issueRefreshToken(USER_ID);
+
+        LoginResponseDTO response = service.refresh(first);
+        String second = response.getRefreshToken();
+
+        assertEquals("access-token", response.getAccessToken());
+        assertEquals(900L, response.getExpiresIn());
+        assertNotEquals(first, second);
+        RefreshToken old = tokens.get(tokenId(first));
+        RefreshToken rotated = tokens.get(tokenId(second));
+        assertEquals(rotated.getTokenId(), old.getReplacedBy());
+        assertEquals(old.getFamilyId(), rotated.getFamilyId());
+        // The secret is stored only as a hash
+        assertNotEquals(second.substring(second.indexOf('.') + 1), rotated.getTokenHash());
+
+        // The new token keeps working
+        assertNotNull(service.refresh(second).getRefreshToken());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        String first = service.issueRefreshToken(USER_ID);
+        String second = service.refresh(first).getRefreshToken();
+
+        assertThrows(BadCredentialsException.class, () -> service.refresh(first));
+
+        assertNotNull(tokens.get(tokenId(second)).getRevokedAt());
+        // The legitimate holder of the newest token is logged out too
+        assertThrows(BadCredentialsException.class, () -> service.refresh(second));
+    }
+
+    @Test
+    void wrongSecretIsRejectedWithoutRevokingTheFamily() {
+        String token = service.issueRefreshToken(USER_ID);
+
+        assertThrows(BadCredentialsException.class, () -> service.refresh(tokenId(token) + ".not-the-secret"));
+        assertThrows(BadCredentialsException.class, () -> service.refresh("no-separator"));
+
+        verify(authTokenMapper, never()).revokeRefreshTokenFamily(anyString());
+        assertNull(tokens.get(tokenId(token)).getRevokedAt());
+        assertNotNull(service.refresh(token).getRefreshToken());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = service.issueRefreshToken(USER_ID);
+        tokens.get(tokenId(token)).setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+        assertThrows(BadCredentialsException.class, () -> service.refresh(token));
+        assertNull(tokens.get(tokenId(token)).getReplacedBy());
+    }
+
+    // --- Helper Methods --- //
+
+    private static String tokenId(String refreshToken) {
+        return refreshToken.substring(0, refreshToken.indexOf('.'));
+    }
+}
@@ -0,0 +1,178 @@
+package com.rei.algo.rei_algo.service;
+
+import com.rei.algo.DTO.PageDTO;
+import com.rei.algo.cache.CountCache;
+import com.rei.algo.service.impl.PagedQueryExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 分页执行器：不带总数时多取一行判断 hasNext；带总数时 COUNT 与取页并行，
+ * COUNT 线程继承调用方的安全上下文，COUNT 的异常原样抛出。
+ */
+class PagedQueryExecutorTest {
+
+    private PlatformTransactionManager transactionManager;
+    private PagedQueryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(call -> new SimpleTransactionStatus());
+        executor = new PagedQueryExecutor(transactionManager, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.destroy();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void sliceFetchesOneExtraRowForHasNext() {
+        AtomicInteger requestedLimit = new AtomicInteger();
+        AtomicInteger requestedOffset = new AtomicInteger();
+        PageDTO<Integer> page = executor.fetch(3, 10, false,
+                () -> {
+                    throw new AssertionError("slices must not count");
+                },
+                (offset, limit) -> {
+                    requestedOffset.set(offset);
+                    requestedLimit.set(limit);
+                    return rows(offset, limit);
+                },
+                Function.identity());
+
+        assertEquals(20, requestedOffset.get());
+        assertEquals(11, requestedLimit.get());
+        assertEquals(rows(20, 10), page.getList());
+        assertTrue(page.getHasNext());
+        assertNull(page.getTotal());
+        assertNull(page.getPages());
+    }
+
+    @Test
+    void lastSliceHasNoNext() {
+        PageDTO<Integer> page = executor.fetch(1, 10, false, () -> CountCache.Count.exact(0),
+                (offset, limit) -> rows(offset, 4), Function.identity());
+
+        assertEquals(4, page.getList().size());
+        assertFalse(page.getHasNext());
+    }
+
+    @Test
+    void countRunsInParallelWithThePageQuery() {
+        CountDownLatch countStarted = new CountDownLatch(1);
+        CountDownLatch pageStarted = new CountDownLatch(1);
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+
+        // Each side waits for the other to start: only a parallel execution finishes without timing out
+        PageDTO<Integer> page = executor.fetch(2, 10, true,
+                () -> {
+                    countThread.set(Thread.currentThread());
+                    countStarted.countDown();
+                    await(pageStarted);
+                    return new CountCache.Count(95, true);
+                },
+                (offset, limit) -> {
+                    pageStarted.countDown();
+                    await(countStarted);
+                    return rows(offset, limit);
+                },
+                Function.identity());
+
+        assertTrue(countThread.get().isVirtual());
+        assertEquals(95L, page.getTotal());
+        assertEquals(10, page.getPages());
+        assertTrue(page.getApproximateTotal());
+        assertEquals(rows(10, 10), page.getList());
+    }
+
+    @Test
+    void sequentialModeCountsOnTheCallingThread() {
+        executor.destroy();
+        executor = new PagedQueryExecutor(transactionManager, false);
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> countThread = new AtomicReference<>();
+
+        PageDTO<Integer> page = executor.fetch(1, 10, true,
+                () -> {
+                    countThread.set(Thread.currentThread());
+                    return CountCache.Count.exact(25);
+                },
+                (offset, limit) -> rows(offset, limit), Function.identity());
+
+        assertSame(caller, countThread.get());
+        assertEquals(3, page.getPages());
+        assertTrue(page.getHasNext());
+    }
+
+    @Test
+    void countThreadSeesTheCallersAuthentication() {
+        Authentication authentication = new TestingAuthenticationToken("alice", null, "ROLE_USER");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+
+        executor.fetch(1, 10, true,
+                () -> {
+                    seen.set(SecurityContextHolder.getContext().getAuthentication());
+                    return CountCache.Count.exact(1);
+                },
+                (offset, limit) -> rows(offset, 1), Function.identity());
+
+        assertSame(authentication, seen.get());
+    }
+
+    @Test
+    void countFailureIsRethrownUnwrapped() {
+        IllegalStateException failure = new IllegalStateException("database busy");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> executor.fetch(1, 10, true,
+                () -> {
+                    throw failure;
+                },
+                (offset, limit) -> rows(offset, limit), Function.identity()));
+        assertSame(failure, thrown);
+    }
+
+    // --- Helper Methods --- //
+
+    private static List<Integer> rows(int offset, int limit) {
+        return IntStream.range(offset, offset + limit).boxed().toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new AssertionError("count and page query did not run in parallel");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.rei.algo.rei_algo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rei.algo.DTO.post.PostUpdateRequestDTO;
+import com.rei.algo.cache.CountCache;
+import com.rei.algo.event.PostTagsChangedEvent;
+import com.rei.algo.mapper.PostMapper;
+import com.rei.algo.mapper.UserMapper;
+import com.rei.algo.model.entity.Post;
+import com.rei.algo.model.entity.Tag;
+import com.rei.algo.service.TagService;
+import com.rei.algo.service.impl.EntityIdGenerator;
+import com.rei.algo.service.impl.PagedQueryExecutor;
+import com.rei.algo.service.impl.PostServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 更新帖子标签时只写入差量：未变化的标签集合不写任何行，事件只携带新增/移除的标签。
+ */
+@ExtendWith(MockitoExtension.class)
+class PostServiceImplTest {
+
+    private static final String POST_ID = "post1";
+    private static final String USER_ID = "10000001";
+
+    @Mock
+    private PostMapper postMapper;
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private TagService tagService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EntityIdGenerator entityIdGenerator;
+    @Mock
+    private PagedQueryExecutor pagedQueryExecutor;
+    @Mock
+    private CountCache countCache;
+
+    private PostServiceImpl postService;
+
+    @BeforeEach
+    void setUp() {
+        postService = new PostServiceImpl(postMapper, userMapper, tagService, new ObjectMapper(), eventPublisher,
+                entityIdGenerator, pagedQueryExecutor, countCache);
+        Post post = Post.builder().postId(POST_ID).userId(USER_ID).title("title").build();
+        when(postMapper.findById(POST_ID)).thenReturn(Optional.of(post));
+        when(postMapper.findByIdWithDetails(POST_ID)).thenReturn(Optional.of(post));
+    }
+
+    @Test
+    void writesOnlyAddedAndRemovedTags() {
+        when(postMapper.findTagIdsByPostIdForUpdate(POST_ID)).thenReturn(List.of("a", "b"));
+        when(tagService.findOrCreateTagsByNames(Set.of("B", "C"))).thenReturn(List.of(tag("b"), tag("c")));
+
+        postService.updatePost(POST_ID, update(Set.of("B", "C")), USER_ID);
+
+        verify(postMapper).removeTagsFromPost(POST_ID, Set.of("a"));
+        verify(postMapper).removeTagsFromIndex(POST_ID, Set.of("a"));
+        verify(postMapper).addTagsToPost(POST_ID, Set.of("c"));
+        verify(postMapper).addTagsToIndex(POST_ID, Set.of("c"));
+
+        ArgumentCaptor<PostTagsChangedEvent> event = ArgumentCaptor.forClass(PostTagsChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(new PostTagsChangedEvent(POST_ID, Set.of("c"), Set.of("a"), Set.of("b", "c")), event.getValue());
+    }
+
+    @Test
+    void unchangedTagSetWritesNothing() {
+        when(postMapper.findTagIdsByPostIdForUpdate(POST_ID)).thenReturn(List.of("a", "b"));
+        when(tagService.findOrCreateTagsByNames(Set.of("A", "B"))).thenReturn(List.of(tag("a"), tag("b")));
+
+        postService.updatePost(POST_ID, update(Set.of("A", "B")), USER_ID);
+
+        verify(postMapper, never()).removeTagsFromPost(anyString(), anyCollection());
+        verify(postMapper, never()).removeTagsFromIndex(anyString(), anyCollection());
+        verify(postMapper, never()).addTagsToPost(anyString(), anySet());
+        verify(postMapper, never()).addTagsToIndex(anyString(), anyCollection());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void emptyTagSetRemovesEverything() {
+        when(postMapper.findTagIdsByPostIdForUpdate(POST_ID)).thenReturn(List.of("a"));
+
+        postService.updatePost(POST_ID, update(Set.of()), USER_ID);
+
+        verify(postMapper).removeTagsFromPost(eq(POST_ID), eq(Set.of("a")));
+        verify(postMapper, never()).addTagsToPost(anyString(), anySet());
+        verify(eventPublisher).publishEvent(new PostTagsChangedEvent(POST_ID, Set.of(), Set.of("a"), Set.of()));
+    }
+
+    // --- Helper Methods --- //
+
+    private static PostUpdateRequestDTO update(Set<String> tagNames) {
+        PostUpdateRequestDTO update = new PostUpdateRequestDTO();
+        update.setTagNames(tagNames);
+        return update;
+    }
+
+    private static Tag tag(String tagId) {
+        return Tag.builder().tagId(tagId).name(tagId.toUpperCase()).build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.rei.algo.rei_algo.util;
+
+import com.rei.algo.util.FeistelPermutation;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Feistel 置换：在各种定义域大小 (含非 2 的幂) 上都是双射，且结果由密钥决定。
+ */
+class FeistelPermutationTest {
+
+    @Test
+    void isABijectionOnTheDomain() {
+        for (long domainSize : new long[]{1, 2, 3, 5, 1_000, 12_345, 65_536, 100_003}) {
+            FeistelPermutation permutation = new FeistelPermutation(domainSize, 42);
+            BitSet seen = new BitSet((int) domainSize);
+            for (long value = 0; value < domainSize; value++) {
+                long image = permutation.permute(value);
+                assertTrue(image >= 0 && image < domainSize, "image out of domain: " + image);
+                assertFalse(seen.get((int) image), "duplicate image " + image + " for domain " + domainSize);
+                seen.set((int) image);
+            }
+            assertEquals(domainSize, seen.cardinality());
+        }
+    }
+
+    @Test
+    void sameKeyIsDeterministicAndDifferentKeysDiffer() {
+        FeistelPermutation a = new FeistelPermutation(1_000_000, 1);
+        FeistelPermutation b = new FeistelPermutation(1_000_000, 1);
+        FeistelPermutation c = new FeistelPermutation(1_000_000, 2);
+
+        int differences = 0;
+        for (long value = 0; value < 1_000; value++) {
+            assertEquals(a.permute(value), b.permute(value));
+            if (a.permute(value) != c.permute(value)) {
+                differences++;
+            }
+        }
+        assertTrue(differences > 990, "keys 1 and 2 agree on " + (1_000 - differences) + " values");
+    }
+
+    @Test
+    void scattersConsecutiveValues() {
+        FeistelPermutation permutation = new FeistelPermutation(1_000_000, 7);
+        int ascending = 0;
+        for (long value = 0; value < 1_000; value++) {
+            if (permutation.permute(value + 1) > permutation.permute(value)) {
+                ascending++;
+            }
+        }
+        // Roughly half of the neighbours should be in order, unlike the identity
+        assertTrue(ascending > 400 && ascending < 600, "ascending pairs: " + ascending);
+        assertNotEquals(1L, permutation.permute(1));
+    }
+
+    @Test
+    void rejectsValuesOutsideTheDomain() {
+        FeistelPermutation permutation = new FeistelPermutation(10, 0);
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(10));
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(-1));
+        assertThrows(IllegalArgumentException.class, () -> new FeistelPermutation(0, 0));
+    }
+}
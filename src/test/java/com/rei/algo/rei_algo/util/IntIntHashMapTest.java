@@ -0,0 +1,80 @@
+package com.rei.algo.rei_algo.util;
+
+import com.rei.algo.util.IntIntHashMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 开放寻址 int -> int 哈希表：扩容、减到 0 删除、回移删除后探测链仍然完整 (与 HashMap 对照)。
+ */
+class IntIntHashMapTest {
+
+    @Test
+    void addToAccumulatesAndRemovesAtZero() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertEquals(3, map.addTo(7, 3));
+        assertEquals(5, map.addTo(7, 2));
+        assertEquals(0, map.addTo(7, -5));
+
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.get(7));
+        // Adding zero to a missing key does not create an entry
+        assertEquals(0, map.addTo(9, 0));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void growsPastTheInitialCapacity() {
+        IntIntHashMap map = new IntIntHashMap(2);
+        for (int key = 0; key < 10_000; key++) {
+            map.addTo(key, key + 1);
+        }
+
+        assertEquals(10_000, map.size());
+        for (int key = 0; key < 10_000; key++) {
+            assertEquals(key + 1, map.get(key));
+        }
+    }
+
+    @Test
+    void matchesHashMapUnderRandomUpdatesAndRemovals() {
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // A small key range forces long probe chains and many deletions inside them
+            int key = random.nextInt(512);
+            if (random.nextInt(10) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                int delta = random.nextInt(5) - 2;
+                map.addTo(key, delta);
+                expected.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+                expected.remove(key, 0);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 512; key++) {
+            assertEquals(expected.getOrDefault(key, 0), map.get(key), "key " + key);
+        }
+        Map<Integer, Integer> iterated = new HashMap<>();
+        map.forEach(iterated::put);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    void rejectsNegativeKeys() {
+        IntIntHashMap map = new IntIntHashMap();
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(-1, 1));
+        assertEquals(0, map.get(-1));
+    }
+}
@@ -0,0 +1,56 @@
+package com.rei.algo.rei_algo.util;
+
+import com.rei.algo.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * keyset 游标：编码后可原样解析 (URL 安全)，被篡改或格式错误的游标被拒绝。
+ */
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsThroughAnUrlSafeString() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_000_000), "0abc|def?");
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="), encoded);
+        assertEquals(cursor, KeysetCursor.decode(encoded));
+    }
+
+    @Test
+    void emptyCursorMeansFirstPage() {
+        assertNull(KeysetCursor.decode(null));
+        assertNull(KeysetCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsMalformedOrTamperedCursors() {
+        String valid = new KeysetCursor(LocalDateTime.of(2025, 3, 1, 12, 0), "post1").encode();
+
+        // Not Base64 at all
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor!"));
+        // A character flipped in the encoded form
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("*" + valid.substring(1)));
+        // Well-formed Base64 but not a (created_at, id) pair
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(encode("2025-03-01T12:00")));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(encode("|post1")));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(encode("2025-03-01T12:00|")));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(encode("yesterday|post1")));
+    }
+
+    // --- Helper Methods --- //
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
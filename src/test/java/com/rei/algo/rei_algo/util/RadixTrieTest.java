@@ -0,0 +1,90 @@
+package com.rei.algo.rei_algo.util;
+
+import com.rei.algo.util.RadixTrie;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 压缩前缀树：边分裂、前缀停在边中间、多值 key 与按条件删除。
+ */
+class RadixTrieTest {
+
+    @Test
+    void prefixEndingInsideAnEdgeMatchesEverythingBelowIt() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.put("spring", "a");
+        trie.put("springboot", "b");
+        trie.put("spark", "c");
+
+        assertEquals(List.of("a", "b"), sorted(trie, "spri"));
+        assertEquals(List.of("a", "b", "c"), sorted(trie, "sp"));
+        assertEquals(List.of("b"), sorted(trie, "springb"));
+        assertEquals(List.of(), sorted(trie, "springs"));
+        assertEquals(List.of(), sorted(trie, "x"));
+    }
+
+    @Test
+    void insertingAShorterKeySplitsTheEdge() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.put("graph", "long");
+        trie.put("gr", "short");
+
+        assertEquals(List.of("long", "short"), sorted(trie, "g"));
+        assertEquals(List.of("long", "short"), sorted(trie, "gr"));
+        assertEquals(List.of("long"), sorted(trie, "gra"));
+    }
+
+    @Test
+    void keyHoldsSeveralDistinctValues() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.put("boot", "1");
+        trie.put("boot", "2");
+        trie.put("boot", "1");
+
+        assertEquals(2, trie.size());
+        assertEquals(List.of("1", "2"), sorted(trie, "boot"));
+    }
+
+    @Test
+    void removeIfDropsMatchingValuesUnderEveryKey() {
+        RadixTrie<String> trie = new RadixTrie<>();
+        trie.put("tree", "1");
+        trie.put("trees", "1");
+        trie.put("trees", "2");
+
+        trie.removeIf("1"::equals);
+        assertEquals(1, trie.size());
+        assertEquals(List.of("2"), sorted(trie, "tree"));
+
+        trie.removeIf("2"::equals);
+        assertEquals(0, trie.size());
+        assertTrue(sorted(trie, "").isEmpty());
+    }
+
+    @Test
+    void forEachWithPrefixVisitsEveryMatchWithoutLimit() {
+        RadixTrie<Integer> trie = new RadixTrie<>();
+        for (int i = 0; i < 5_000; i++) {
+            trie.put("tag-" + i, i);
+        }
+
+        List<Integer> visited = new ArrayList<>();
+        trie.forEachWithPrefix("tag-", visited::add);
+
+        assertEquals(5_000, visited.size());
+    }
+
+    // --- Helper Methods --- //
+
+    private static List<String> sorted(RadixTrie<String> trie, String prefix) {
+        List<String> values = new ArrayList<>();
+        trie.forEachWithPrefix(prefix, values::add);
+        values.sort(null);
+        return values;
+    }
+}
@@ -0,0 +1,99 @@
+package com.rei.algo.rei_algo.util;
+
+import com.rei.algo.util.SortableIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 有序 ID：字符串顺序即生成顺序 (同一毫秒内与时钟回拨时同样成立)，时间戳可以从 ID 中还原。
+ */
+class SortableIdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2025-06-01T12:00:00Z").toEpochMilli();
+
+    @Test
+    void idsAreStrictlyIncreasingWithinAndAcrossMilliseconds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SortableIdGenerator generator = new SortableIdGenerator(3, clock::get);
+
+        String previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 100 == 0) {
+                clock.addAndGet(1);
+            }
+            String id = generator.nextId();
+            assertEquals(SortableIdGenerator.ID_LENGTH, id.length());
+            assertTrue(id.compareTo(previous) > 0, id + " <= " + previous);
+            previous = id;
+        }
+        assertEquals(Instant.ofEpochMilli(clock.get()), SortableIdGenerator.timestampOf(previous));
+    }
+
+    @Test
+    void clockRollbackKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        SortableIdGenerator generator = new SortableIdGenerator(0, clock::get);
+        String beforeRollback = generator.nextId();
+
+        clock.addAndGet(-5_000);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        String previous = beforeRollback;
+        for (String id : ids) {
+            assertTrue(id.compareTo(previous) > 0, id + " <= " + previous);
+            previous = id;
+        }
+        // The rolled-back clock is ignored until it catches up again
+        assertEquals(Instant.ofEpochMilli(NOW), SortableIdGenerator.timestampOf(previous));
+        clock.set(NOW + 1_000);
+        assertEquals(Instant.ofEpochMilli(NOW + 1_000), SortableIdGenerator.timestampOf(generator.nextId()));
+    }
+
+    @Test
+    void concurrentCallersNeverShareAnId() {
+        SortableIdGenerator generator = new SortableIdGenerator(1);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 8).parallel().forEach(t -> {
+            for (int i = 0; i < 10_000; i++) {
+                ids.add(generator.nextId());
+            }
+        });
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void nodesSharingAMillisecondDoNotCollide() {
+        SortableIdGenerator first = new SortableIdGenerator(1, () -> NOW);
+        SortableIdGenerator second = new SortableIdGenerator(2, () -> NOW);
+        assertNotEquals(first.nextId(), second.nextId());
+    }
+
+    @Test
+    void ofEncodesTheGivenTimestamp() {
+        Instant timestamp = Instant.parse("2024-03-15T08:30:00.123Z");
+        String id = SortableIdGenerator.of(timestamp, 0xFFFFFFFFL);
+
+        assertEquals(timestamp, SortableIdGenerator.timestampOf(id));
+        assertTrue(SortableIdGenerator.of(timestamp.plusMillis(1), 0).compareTo(id) > 0);
+        assertNull(SortableIdGenerator.timestampOf("12345678"));
+        assertNull(SortableIdGenerator.timestampOf("ABCDEFGH00000000"));
+        assertThrows(IllegalArgumentException.class, () -> SortableIdGenerator.of(Instant.parse("2023-12-31T23:59:59Z"), 0));
+        assertThrows(IllegalArgumentException.class, () -> new SortableIdGenerator(SortableIdGenerator.MAX_NODE_ID + 1));
+    }
+}